@@ -2,14 +2,20 @@ package br.com.forumhub.ForumHub.controller;
 
 import br.com.forumhub.ForumHub.dto.token.DadosTokenJWT;
 import br.com.forumhub.ForumHub.dto.usuario.DadosAutenticacao;
-import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.infra.exception.LimiteExcedidoException;
+import br.com.forumhub.ForumHub.infra.exception.SobrecargaException;
+import br.com.forumhub.ForumHub.infra.limite.LimiteDeTaxa;
+import br.com.forumhub.ForumHub.infra.security.UsuarioCredenciais;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import br.com.forumhub.ForumHub.service.TokenService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,12 +29,15 @@ public class AutenticacaoController {
 
     private final AuthenticationManager authenticationManager;  // Gerencia a autenticação
     private final TokenService tokenService;  // Serviço para gerar tokens JWT
+    private final LimiteDeTaxa limiteLoginPorEmail;  // Limita as tentativas de login para o mesmo email
 
     // Injeção de dependência via construtor
     @Autowired
-    public AutenticacaoController(AuthenticationManager authenticationManager, TokenService tokenService) {
+    public AutenticacaoController(AuthenticationManager authenticationManager, TokenService tokenService,
+                                  @Qualifier("limiteLoginPorEmail") LimiteDeTaxa limiteLoginPorEmail) {
         this.authenticationManager = authenticationManager;
         this.tokenService = tokenService;
+        this.limiteLoginPorEmail = limiteLoginPorEmail;
     }
 
     /**
@@ -43,14 +52,29 @@ public class AutenticacaoController {
             description = "Gera um Token JWT para ser utilizado na autenticação das requisições subsequentes."  // Descrição do que a operação faz
     )
     public ResponseEntity<DadosTokenJWT> efetuarLogin(@RequestBody @Valid DadosAutenticacao dados) {
+        // Recusa o login antes de calcular o BCrypt se o email excedeu o limite de tentativas
+        var aguardar = limiteLoginPorEmail.consumir(dados.getEmail().toLowerCase());
+        if (!aguardar.isZero()) {
+            throw new LimiteExcedidoException("Muitas tentativas de login. Tente novamente mais tarde.", aguardar);
+        }
+
         // Criação do token de autenticação usando o e-mail e senha fornecidos
         var authenticationToken = new UsernamePasswordAuthenticationToken(dados.getEmail(), dados.getSenha());
 
         // Realiza a autenticação do usuário com as credenciais fornecidas
-        var authentication = authenticationManager.authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(authenticationToken);
+        } catch (InternalAuthenticationServiceException e) {
+            // A sobrecarga do pool de senhas chega embrulhada quando ocorre durante a busca do usuário pelo Spring
+            if (e.getCause() instanceof SobrecargaException sobrecarga) {
+                throw sobrecarga;
+            }
+            throw e;
+        }
 
         // Geração do Token JWT baseado no usuário autenticado
-        var tokenJWT = tokenService.gerarToken((Usuario) authentication.getPrincipal());
+        var tokenJWT = tokenService.gerarToken(((UsuarioCredenciais) authentication.getPrincipal()).autenticado());
 
         // Retorna o token JWT gerado como resposta com status HTTP 200 (OK)
         return ResponseEntity.ok(new DadosTokenJWT(tokenJWT));
@@ -0,0 +1,44 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.service.CursoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cursos") // Define a URL base para os endpoints relacionados a cursos
+@Tag(name = "Cursos", description = "Endpoints para consulta dos cursos do fórum.") // Descrição para o Swagger
+public class CursoController {
+
+    private final CursoService cursoService; // Serviço que gerencia os cursos
+
+    // Injeção de dependência via construtor
+    @Autowired
+    public CursoController(CursoService cursoService) {
+        this.cursoService = cursoService;
+    }
+
+    /**
+     * Sugere nomes de cursos que começam com o texto digitado, para o autocompletar do cadastro de tópicos.
+     *
+     * @param prefixo texto digitado até o momento.
+     * @param limite quantidade máxima de sugestões.
+     * @return ResponseEntity contendo os cursos sugeridos.
+     */
+    @GetMapping("/sugestoes")
+    @Operation(
+            summary = "Sugerir Cursos",
+            description = "Sugere até 10 cursos cujo nome começa com o texto informado, ignorando acentos e maiúsculas. Os cursos com mais tópicos aparecem primeiro."
+    )
+    public ResponseEntity<List<DadosSugestao>> sugerirNomes(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        return ResponseEntity.ok(cursoService.sugerirNomes(prefixo, limite));
+    }
+}
@@ -1,34 +1,53 @@
 package br.com.forumhub.ForumHub.controller;
 
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
+import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse;
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import br.com.forumhub.ForumHub.dto.topico.DadosResultadoBusca;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoDetalhado;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.dto.topico.DadosVersaoTopico;
+import br.com.forumhub.ForumHub.infra.cache.CarregamentoUnico;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
 import br.com.forumhub.ForumHub.service.TopicoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.ZoneOffset;
+import java.util.List;
+
 @RestController
 @RequestMapping("/topicos") // Define a URL base para os endpoints relacionados a tópicos
 @Tag(name = "Tópicos", description = "Endpoints para gerenciamento de tópicos no fórum.") // Descrição para o Swagger
 public class TopicoController {
 
     private final TopicoService topicoService; // Dependência do serviço que gerencia a lógica dos tópicos
+    private final CarregamentoUnico carregamentoUnico; // Agrupa as leituras simultâneas do mesmo tópico
 
     // Injeção de dependência via construtor
     @Autowired
-    public TopicoController(TopicoService topicoService) {
+    public TopicoController(TopicoService topicoService, CarregamentoUnico carregamentoUnico) {
         this.topicoService = topicoService;
+        this.carregamentoUnico = carregamentoUnico;
     }
 
     /**
@@ -67,26 +86,177 @@ public class TopicoController {
     public ResponseEntity<Page<DadosTopicoResponse>> listarTopicos(
             @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.ASC) Pageable paginacao) { // Parâmetros de paginação padrão
 
-        // Chama o serviço para buscar todos os tópicos e os converte para o DTO DadosTopicoResponse
-        var page = topicoService.buscarTodos(paginacao).map(DadosTopicoResponse::new);
-        return ResponseEntity.ok(page); // Retorna a página de tópicos com status 200 (OK)
+        // Chama o serviço para buscar todos os tópicos, já projetados no DTO DadosTopicoResponse
+        var page = topicoService.buscarTodos(paginacao);
+        // Retorna a página de tópicos com status 200 (OK); no-cache permite a revalidação pelo ETag das listagens
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+    }
+
+    /**
+     * Lista os tópicos de forma paginada sem calcular o total de registros (`?total=false`).
+     *
+     * @param paginacao informações de paginação e ordenação.
+     * @return ResponseEntity contendo a fatia de tópicos, que indica apenas se existe uma próxima página.
+     */
+    @GetMapping(params = "total=false")
+    @Operation(
+            summary = "Listar Tópicos sem Total",
+            description = "Lista os tópicos como a listagem paginada, mas sem o total de registros e de páginas, dispensando a contagem."
+    )
+    public ResponseEntity<Slice<DadosTopicoResponse>> listarTopicosSemTotal(
+            @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.ASC) Pageable paginacao) {
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(topicoService.buscarFatia(paginacao));
+    }
+
+    /**
+     * Lista os tópicos em ordem de criação paginados por cursor, sem o total de registros.
+     * Indicado para percorrer a listagem inteira, pois qualquer página custa o mesmo que a primeira.
+     *
+     * @param after cursor para avançar, recebido em `proximo`.
+     * @param before cursor para voltar, recebido em `anterior`.
+     * @param tamanho quantidade de tópicos por página.
+     * @return ResponseEntity com a página de tópicos e os cursores das páginas vizinhas.
+     */
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Listar Tópicos por Cursor",
+            description = "Lista os tópicos em ordem de criação, paginados por cursor. Envie o cursor 'proximo' no parâmetro 'after' ou o cursor 'anterior' no parâmetro 'before'."
+    )
+    public ResponseEntity<DadosPaginaCursor<DadosTopicoResponse>> listarTopicosPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "10") int tamanho) {
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(topicoService.listarPorCursor(after, before, tamanho));
+    }
+
+    /**
+     * Lista os tópicos filtrados por curso, categoria, status e autor, em ordem de criação e paginados por cursor.
+     *
+     * @param curso nome do curso.
+     * @param categoria categoria do curso.
+     * @param status status do tópico.
+     * @param autor ID do autor.
+     * @param after cursor para avançar, recebido em `proximo`.
+     * @param before cursor para voltar, recebido em `anterior`.
+     * @param tamanho quantidade de tópicos por página.
+     * @return ResponseEntity com a página de tópicos e os cursores das páginas vizinhas.
+     */
+    @GetMapping("/filtrados")
+    @Operation(
+            summary = "Listar Tópicos Filtrados",
+            description = "Lista, em ordem de criação e paginados por cursor, os tópicos que atendem a todos os filtros informados: curso, categoria, status e autor. Os filtros são opcionais."
+    )
+    public ResponseEntity<DadosPaginaCursor<DadosTopicoResponse>> listarTopicosFiltrados(
+            @RequestParam(required = false) String curso,
+            @RequestParam(required = false) Categoria categoria,
+            @RequestParam(required = false) StatusTopico status,
+            @RequestParam(required = false) Long autor,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "10") int tamanho) {
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(topicoService.listarFiltrados(curso, categoria, status, autor, after, before, tamanho));
+    }
+
+    /**
+     * Sugere títulos de tópicos que começam com o texto digitado, para o autocompletar.
+     *
+     * @param prefixo texto digitado até o momento.
+     * @param limite quantidade máxima de sugestões.
+     * @return ResponseEntity contendo os títulos sugeridos.
+     */
+    @GetMapping("/sugestoes")
+    @Operation(
+            summary = "Sugerir Títulos de Tópicos",
+            description = "Sugere até 10 títulos de tópicos que começam com o texto informado, ignorando acentos e maiúsculas. Os tópicos com mais respostas aparecem primeiro."
+    )
+    public ResponseEntity<List<DadosSugestao>> sugerirTitulos(
+            @RequestParam String prefixo,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        return ResponseEntity.ok(topicoService.sugerirTitulos(prefixo, limite));
     }
 
     /**
-     * Busca um tópico específico por ID.
+     * Busca tópicos pelo texto do título, da mensagem e das respostas, ordenados por relevância.
+     *
+     * @param q texto da busca.
+     * @param curso nome do curso, para filtrar os resultados.
+     * @param categoria categoria do curso, para filtrar os resultados.
+     * @param status status do tópico, para filtrar os resultados.
+     * @param paginacao informações de paginação; a ordenação é sempre pela relevância.
+     * @return ResponseEntity contendo a página de resultados.
+     */
+    @GetMapping("/busca")
+    @Operation(
+            summary = "Buscar Tópicos por Texto",
+            description = "Busca tópicos cujo título, mensagem ou respostas contenham os termos informados, ignorando acentos e variações das palavras. Aceita frases entre aspas, '-' para excluir termos e '*' para prefixos."
+    )
+    public ResponseEntity<Page<DadosResultadoBusca>> buscarPorTexto(
+            @RequestParam String q,
+            @RequestParam(required = false) String curso,
+            @RequestParam(required = false) Categoria categoria,
+            @RequestParam(required = false) StatusTopico status,
+            @PageableDefault(size = 10) Pageable paginacao) {
+
+        return ResponseEntity.ok(topicoService.buscarPorTexto(q, curso, categoria, status, paginacao));
+    }
+
+    /**
+     * Busca um tópico específico por ID. A resposta leva um ETag forte e o Last-Modified da versão do tópico;
+     * se a requisição trouxer If-None-Match ou If-Modified-Since e o tópico não tiver mudado, responde 304
+     * depois de consultar apenas a versão, sem carregar o tópico nem as respostas.
      *
      * @param id identificador do tópico.
-     * @return ResponseEntity com os detalhes do tópico ou um erro 404 caso não seja encontrado.
+     * @param requisicao requisição, usada para avaliar os cabeçalhos condicionais.
+     * @return ResponseEntity com os detalhes do tópico, 304 caso não tenha mudado ou um erro 404 caso não seja encontrado.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar Tópico por ID", description = "Detalha um tópico específico por ID.")
-    public ResponseEntity<DadosTopicoDetalhado> buscarPorId(@PathVariable Long id) {
-        // Chama o serviço para buscar o tópico por ID
-        var topico = topicoService.buscarPorId(id);
+    @Operation(summary = "Buscar Tópico por ID", description = "Detalha um tópico específico por ID. Envie o ETag recebido em If-None-Match para receber 304 se o tópico não mudou.")
+    public ResponseEntity<DadosTopicoDetalhado> buscarPorId(@PathVariable Long id, HttpServletRequest requisicao) {
+        // Requisições condicionais consultam primeiro só a versão
+        if (requisicao.getHeader(HttpHeaders.IF_NONE_MATCH) != null || requisicao.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            var versao = topicoService.buscarVersao(id);
+            // Avaliado sem a resposta, para que os cabeçalhos do 304 venham apenas do ResponseEntity
+            var condicional = new ServletWebRequest(requisicao);
+            if (versao.isPresent() && condicional.checkNotModified(etag(versao.get()), ultimaModificacao(versao.get()))) {
+                return validadores(ResponseEntity.status(HttpStatus.NOT_MODIFIED), versao.get()).build();
+            }
+        }
+
+        // Chama o serviço para buscar os detalhes do tópico por ID, uma única vez para as requisições simultâneas
+        var topico = carregamentoUnico.carregar(CarregamentoUnico.detalheDoTopico(id), () -> topicoService.detalhar(id));
         if (topico == null) {
             return ResponseEntity.notFound().build(); // Retorna 404 se o tópico não for encontrado
         }
-        return ResponseEntity.ok(new DadosTopicoDetalhado(topico)); // Retorna os detalhes do tópico com status 200 (OK)
+        // Retorna os detalhes do tópico com status 200 (OK)
+        return validadores(ResponseEntity.ok(), topico.versao()).body(topico.detalhe());
+    }
+
+    /**
+     * Lista as respostas de um tópico paginadas por cursor.
+     *
+     * @param id identificador do tópico.
+     * @param after cursor para avançar, recebido em `proximo` (ou em `proximasRespostas` do detalhe do tópico).
+     * @param before cursor para voltar, recebido em `anterior`.
+     * @param tamanho quantidade de respostas por página.
+     * @return ResponseEntity com a página de respostas e os cursores das páginas vizinhas.
+     */
+    @GetMapping("/{id}/respostas")
+    @Operation(
+            summary = "Listar Respostas de um Tópico",
+            description = "Lista as respostas de um tópico em ordem de criação, paginadas por cursor. Envie o cursor 'proximo' no parâmetro 'after' ou o cursor 'anterior' no parâmetro 'before'."
+    )
+    public ResponseEntity<DadosPaginaCursor<DadosRespostaResponse>> listarRespostas(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int tamanho) {
+
+        return ResponseEntity.ok(topicoService.listarRespostas(id, after, before, tamanho));
     }
 
     /**
@@ -128,4 +298,25 @@ public class TopicoController {
         topicoService.removerTopico(id);
         return ResponseEntity.ok().build(); // Retorna status 200 (OK) sem corpo
     }
+
+    // Cabeçalhos do detalhe do tópico, enviados também no 304; no-cache permite guardar a resposta, desde que revalidada
+    private static ResponseEntity.BodyBuilder validadores(ResponseEntity.BodyBuilder resposta, DadosVersaoTopico versao) {
+        resposta.cacheControl(CacheControl.noCache()).eTag(etag(versao));
+        var ultimaModificacao = ultimaModificacao(versao);
+        if (ultimaModificacao >= 0) {
+            resposta.lastModified(ultimaModificacao);
+        }
+        return resposta;
+    }
+
+    // ETag forte do detalhe do tópico: muda a cada incremento da versão
+    private static String etag(DadosVersaoTopico versao) {
+        return "\"" + versao.id() + "-" + versao.versao() + "\"";
+    }
+
+    // Data da última alteração, gravada em UTC, em milissegundos; -1 para tópicos gravados sem ela fora da API
+    private static long ultimaModificacao(DadosVersaoTopico versao) {
+        return versao.dataAtualizacao() == null ? -1
+                : versao.dataAtualizacao().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
 }
@@ -1,5 +1,6 @@
 package br.com.forumhub.ForumHub.controller;
 
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
 import br.com.forumhub.ForumHub.dto.usuario.DadosCadastroUsuario;
 import br.com.forumhub.ForumHub.dto.usuario.DadosNome;
@@ -13,6 +14,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -96,11 +98,24 @@ public class UsuarioController {
     public ResponseEntity<Page<DadosNome>> buscarUsuario(
             @PageableDefault(size = 10) Pageable paginacao) { // Parâmetro de paginação (tamanho de página padrão: 10)
 
-        // Chama o serviço para buscar os usuários e os converte para o DTO DadosNome
-        var page = usuarioService.buscarUsuario(paginacao).map(DadosNome::new);
+        // Chama o serviço para buscar os usuários, já projetados no DTO DadosNome
+        var page = usuarioService.buscarUsuario(paginacao);
         return ResponseEntity.ok(page); // Retorna a página de usuários com status 200 (OK)
     }
 
+    /**
+     * Lista os usuários cadastrados no fórum sem calcular o total de registros (`?total=false`).
+     *
+     * @param paginacao informações de paginação.
+     * @return ResponseEntity contendo a fatia de usuários, que indica apenas se existe uma próxima página.
+     */
+    @GetMapping(params = "total=false")
+    @SecurityRequirement(name = "bearer-key") // Exige autenticação por token Bearer
+    @Operation(summary = "Listar Usuários sem Total", description = "Lista os usuários cadastrados no fórum sem o total de registros e de páginas.")
+    public ResponseEntity<Slice<DadosNome>> buscarUsuarioSemTotal(@PageableDefault(size = 10) Pageable paginacao) {
+        return ResponseEntity.ok(usuarioService.buscarFatiaDeUsuarios(paginacao));
+    }
+
     /**
      * Lista todos os tópicos postados pelo usuário logado.
      *
@@ -116,8 +131,48 @@ public class UsuarioController {
     public ResponseEntity<Page<DadosTopicoResponse>> listarTopicos(
             @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.ASC) Pageable paginacao) { // Paginação com ordenação por data de criação
 
-        // Chama o serviço para buscar os tópicos do usuário logado e os converte para o DTO DadosTopicoResponse
-        var page = usuarioService.buscarTopicos(paginacao).map(DadosTopicoResponse::new);
+        // Chama o serviço para buscar os tópicos do usuário logado, já projetados no DTO DadosTopicoResponse
+        var page = usuarioService.buscarTopicos(paginacao);
         return ResponseEntity.ok(page); // Retorna a página de tópicos com status 200 (OK)
     }
+
+    /**
+     * Lista os tópicos postados pelo usuário logado sem calcular o total de registros (`?total=false`).
+     *
+     * @param paginacao informações de paginação e ordenação.
+     * @return ResponseEntity contendo a fatia de tópicos, que indica apenas se existe uma próxima página.
+     */
+    @GetMapping(value = "/topicos", params = "total=false")
+    @SecurityRequirement(name = "bearer-key") // Exige autenticação por token Bearer
+    @Operation(
+            summary = "Listar Tópicos do Usuário sem Total",
+            description = "Lista os tópicos postados pelo usuário logado sem o total de registros e de páginas."
+    )
+    public ResponseEntity<Slice<DadosTopicoResponse>> listarTopicosSemTotal(
+            @PageableDefault(size = 10, sort = "dataCriacao", direction = Sort.Direction.ASC) Pageable paginacao) {
+
+        return ResponseEntity.ok(usuarioService.buscarFatiaDeTopicos(paginacao));
+    }
+
+    /**
+     * Lista os tópicos do usuário logado em ordem de criação paginados por cursor, sem o total de registros.
+     *
+     * @param after cursor para avançar, recebido em `proximo`.
+     * @param before cursor para voltar, recebido em `anterior`.
+     * @param tamanho quantidade de tópicos por página.
+     * @return ResponseEntity com a página de tópicos e os cursores das páginas vizinhas.
+     */
+    @GetMapping("/topicos/cursor")
+    @SecurityRequirement(name = "bearer-key") // Exige autenticação por token Bearer
+    @Operation(
+            summary = "Listar Tópicos do Usuário por Cursor",
+            description = "Lista os tópicos publicados pelo usuário logado em ordem de criação, paginados por cursor. Envie o cursor 'proximo' no parâmetro 'after' ou o cursor 'anterior' no parâmetro 'before'."
+    )
+    public ResponseEntity<DadosPaginaCursor<DadosTopicoResponse>> listarTopicosPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "10") int tamanho) {
+
+        return ResponseEntity.ok(usuarioService.listarTopicosPorCursor(after, before, tamanho));
+    }
 }
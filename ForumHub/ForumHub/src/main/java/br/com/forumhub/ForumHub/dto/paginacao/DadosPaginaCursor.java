@@ -0,0 +1,16 @@
+package br.com.forumhub.ForumHub.dto.paginacao;
+
+import java.util.List;
+
+/**
+ * Classe imutável que representa uma página de uma listagem paginada por cursor.
+ * Diferente de {@code Page}, não informa o total de registros, evitando um {@code count} a cada página.
+ *
+ * @param <T> o tipo dos itens da página
+ */
+public record DadosPaginaCursor<T>(
+        List<T> conteudo,   // Itens da página
+        String proximo,     // Cursor da próxima página (parâmetro after), ou null se esta for a última
+        String anterior     // Cursor da página anterior (parâmetro before), ou null se esta for a primeira
+) {
+}
@@ -0,0 +1,7 @@
+package br.com.forumhub.ForumHub.dto.resposta;
+
+/**
+ * Mensagem de uma resposta e o tópico a que pertence, indexadas junto com o tópico na busca textual.
+ */
+public record DadosMensagemResposta(Long topicoId, String mensagem) {
+}
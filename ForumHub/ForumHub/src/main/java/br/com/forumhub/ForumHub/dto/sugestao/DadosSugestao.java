@@ -0,0 +1,11 @@
+package br.com.forumhub.ForumHub.dto.sugestao;
+
+/**
+ * Curso ou tópico sugerido pelo autocompletar.
+ *
+ * @param id           o ID do curso ou do tópico
+ * @param texto        o nome do curso ou o título do tópico, como cadastrado
+ * @param popularidade a quantidade de tópicos do curso ou de respostas do tópico, usada na ordenação
+ */
+public record DadosSugestao(Long id, String texto, Long popularidade) {
+}
@@ -0,0 +1,8 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+/**
+ * Título e mensagem de um tópico, usados no preenchimento do hash de conteúdo dos tópicos antigos
+ * e na carga do índice de similaridade.
+ */
+public record DadosConteudoTopico(Long id, String titulo, String mensagem) {
+}
@@ -0,0 +1,15 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+
+import java.util.List;
+
+/**
+ * Filtros da listagem de tópicos; os filtros nulos não restringem a listagem.
+ *
+ * @param cursoIds os IDs dos cursos aceitos, já resolvidos a partir do nome ou da categoria
+ * @param status   o status do tópico
+ * @param autorId  o ID do autor do tópico
+ */
+public record DadosFiltroTopicos(List<Long> cursoIds, StatusTopico status, Long autorId) {
+}
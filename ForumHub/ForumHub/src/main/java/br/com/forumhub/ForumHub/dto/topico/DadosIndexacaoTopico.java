@@ -0,0 +1,13 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados de um tópico indexados para a busca textual, obtidos sem carregar as entidades.
+ */
+public record DadosIndexacaoTopico(Long id, String titulo, String mensagem, String nomeCurso,
+                                   Categoria categoria, StatusTopico status, LocalDateTime dataCriacao) {
+}
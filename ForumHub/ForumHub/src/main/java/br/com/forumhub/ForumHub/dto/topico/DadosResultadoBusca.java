@@ -0,0 +1,14 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tópico encontrado pela busca textual, montado apenas com os campos guardados no índice.
+ *
+ * @param pontuacao relevância do tópico para a busca (BM25), usada na ordenação dos resultados
+ */
+public record DadosResultadoBusca(Long id, String titulo, String nomeCurso, StatusTopico status,
+                                  LocalDateTime dataCriacao, float pontuacao) {
+}
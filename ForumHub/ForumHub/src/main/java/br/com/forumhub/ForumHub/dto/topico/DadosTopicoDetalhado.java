@@ -1,5 +1,6 @@
 package br.com.forumhub.ForumHub.dto.topico;
 
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
 import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse;
 import br.com.forumhub.ForumHub.model.entities.Topico;
 import br.com.forumhub.ForumHub.model.enums.StatusTopico;
@@ -17,24 +18,26 @@ public record DadosTopicoDetalhado(
         String mensagem,               // Mensagem/conteúdo do tópico
         String nomeAutor,              // Nome do autor do tópico
         StatusTopico status,           // Status atual do tópico (e.g., NÃO_RESPONDIDO, SOLUCIONADO)
-        List<DadosRespostaResponse> respostas // Lista de respostas associadas ao tópico
+        List<DadosRespostaResponse> respostas, // Primeira página das respostas associadas ao tópico
+        String proximasRespostas       // Cursor para continuar em /topicos/{id}/respostas, ou null se não houver mais
 ) {
 
     /**
-     * Construtor auxiliar que recebe uma entidade `Topico` e mapeia seus dados para este record.
+     * Construtor auxiliar que recebe a entidade `Topico` e a primeira página de respostas já projetadas em DTOs,
+     * evitando percorrer a coleção de respostas da entidade.
      *
-     * Converte a entidade do tipo `Topico` em um DTO `DadosTopicoDetalhado` e suas respostas em DTOs.
-     *
-     * @param topico A entidade `Topico` a ser convertida
+     * @param topico A entidade `Topico`, com o autor já carregado
+     * @param respostas A primeira página das respostas do tópico
      */
-    public DadosTopicoDetalhado(Topico topico) {
+    public DadosTopicoDetalhado(Topico topico, DadosPaginaCursor<DadosRespostaResponse> respostas) {
         this(
-                topico.getId(), // ID do tópico
-                topico.getTitulo(), // Título do tópico
-                topico.getMensagem(), // Mensagem do tópico
-                topico.getAutor() != null ? topico.getAutor().getNome() : null, // Nome do autor do tópico (se presente)
-                topico.getStatus(), // Status do tópico
-                topico.getRespostas() // Usando o método getRespostas() diretamente para obter as respostas como DTOs
+                topico.getId(),
+                topico.getTitulo(),
+                topico.getMensagem(),
+                topico.getAutor() != null ? topico.getAutor().getNome() : null,
+                topico.getStatus(),
+                respostas.conteudo(),
+                respostas.proximo()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+/**
+ * Detalhes de um tópico com a versão lida na mesma consulta, para que o ETag enviado corresponda ao conteúdo.
+ *
+ * @param detalhe os detalhes do tópico
+ * @param versao  a versão do tópico
+ */
+public record DadosTopicoDetalhadoVersionado(DadosTopicoDetalhado detalhe, DadosVersaoTopico versao) {
+}
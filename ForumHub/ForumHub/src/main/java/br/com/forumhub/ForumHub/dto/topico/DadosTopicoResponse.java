@@ -14,7 +14,9 @@ public record DadosTopicoResponse(
         Long id,                 // Identificador único do tópico
         String titulo,           // Título do tópico
         String mensagem,         // Mensagem/conteúdo do tópico
-        LocalDateTime dataCriacao // Data e hora de criação do tópico
+        LocalDateTime dataCriacao, // Data e hora de criação do tópico
+        Integer respostasCount,   // Quantidade de respostas do tópico
+        LocalDateTime ultimaAtividade // Data e hora da resposta mais recente (ou da criação, se não houver)
 ) {
 
     /**
@@ -28,7 +30,9 @@ public record DadosTopicoResponse(
                 topico.getId(),          // ID do tópico
                 topico.getTitulo(),      // Título do tópico
                 topico.getMensagem(),    // Mensagem do tópico
-                topico.getDataCriacao()  // Data de criação do tópico
+                topico.getDataCriacao(), // Data de criação do tópico
+                topico.getRespostasCount(), // Quantidade de respostas
+                topico.getUltimaAtividade() // Última atividade
         );
     }
 
@@ -0,0 +1,13 @@
+package br.com.forumhub.ForumHub.dto.topico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versão de um tópico, usada no ETag e no Last-Modified do seu detalhe.
+ *
+ * @param id              o ID do tópico
+ * @param versao          a versão, incrementada a cada alteração do tópico ou de suas respostas
+ * @param dataAtualizacao a data e hora em UTC do último incremento da versão
+ */
+public record DadosVersaoTopico(Long id, Long versao, LocalDateTime dataAtualizacao) {
+}
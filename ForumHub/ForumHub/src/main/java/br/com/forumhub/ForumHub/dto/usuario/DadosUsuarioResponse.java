@@ -18,6 +18,18 @@ public class DadosUsuarioResponse {
         this.email = usuario.getEmail();
     }
 
+    /**
+     * Construtor para criar um DTO a partir dos dados já conhecidos, sem precisar da entidade.
+     * @param id ID do usuário.
+     * @param nome Nome do usuário.
+     * @param email Email do usuário.
+     */
+    public DadosUsuarioResponse(Long id, String nome, String email) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+    }
+
     // Getters para os campos (ou use Lombok para gerar automaticamente)
     public Long getId() {
         return id;
@@ -0,0 +1,104 @@
+package br.com.forumhub.ForumHub.infra.agendamento;
+
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tarefa que preenche o hash de conteúdo dos tópicos criados antes da existência da coluna,
+ * percorrendo-os em lotes pelo ID, cada lote em sua própria transação.
+ *
+ * Tópicos antigos cujo conteúdo normalizado repete o de outro tópico ficam sem hash, já que
+ * a coluna tem índice único; eles são registrados no log para correção manual uma única vez e,
+ * enquanto a instância estiver em execução, ignorados pelas execuções seguintes. A quantidade
+ * conhecida é publicada na métrica "topicos.hash.duplicados". Um duplicado cujo outro tópico
+ * foi removido ou editado só é preenchido depois de um reinício.
+ */
+@Component
+public class PreenchimentoDeHashDeConteudo {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreenchimentoDeHashDeConteudo.class);
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    private final TransactionTemplate transacao;
+
+    private final int tamanhoDoLote;
+
+    // IDs dos tópicos que ficaram sem hash por repetirem o conteúdo de outro tópico
+    private final Set<Long> duplicadosConhecidos = ConcurrentHashMap.newKeySet();
+
+    public PreenchimentoDeHashDeConteudo(PlatformTransactionManager transactionManager,
+                                         @Value("${api.topicos.hash-conteudo.lote:500}") int tamanhoDoLote,
+                                         MeterRegistry meterRegistry) {
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoDoLote = tamanhoDoLote;
+
+        Gauge.builder("topicos.hash.duplicados", duplicadosConhecidos, Set::size)
+                .description("Tópicos antigos sem hash de conteúdo por repetirem o conteúdo de outro tópico")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Preenche o hash dos tópicos que ainda não o têm. Após o preenchimento inicial, cada execução
+     * apenas confirma pelo índice que os únicos tópicos pendentes são os duplicados já conhecidos.
+     *
+     * @return a quantidade de tópicos preenchidos
+     */
+    @Scheduled(initialDelayString = "${api.topicos.hash-conteudo.atraso-inicial:PT10S}",
+            fixedDelayString = "${api.topicos.hash-conteudo.intervalo:PT1H}")
+    public int preencher() {
+        long ultimoId = 0;
+        int preenchidos = 0;
+        int duplicados = 0;
+
+        while (true) {
+            var lote = topicoRepository.listarSemHashConteudo(ultimoId, Limit.of(tamanhoDoLote));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            var resultado = transacao.execute(status -> {
+                int[] contagem = new int[2];
+                for (var topico : lote) {
+                    if (duplicadosConhecidos.contains(topico.id())) {
+                        continue;
+                    }
+                    var hash = Topico.calcularHashConteudo(topico.titulo(), topico.mensagem());
+
+                    if (topicoRepository.existsByHashConteudo(hash)) {
+                        duplicadosConhecidos.add(topico.id());
+                        logger.warn("Tópico {} tem o mesmo conteúdo de outro tópico e ficou sem hash", topico.id());
+                        contagem[1]++;
+                    } else {
+                        contagem[0] += topicoRepository.preencherHashConteudo(topico.id(), hash);
+                    }
+                }
+                return contagem;
+            });
+
+            preenchidos += resultado[0];
+            duplicados += resultado[1];
+            ultimoId = lote.get(lote.size() - 1).id();
+        }
+
+        if (preenchidos > 0 || duplicados > 0) {
+            logger.info("Hash de conteúdo preenchido em {} tópico(s), {} duplicado(s) ignorado(s)", preenchidos, duplicados);
+        }
+        return preenchidos;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.forumhub.ForumHub.infra.agendamento;
+
+import br.com.forumhub.ForumHub.infra.cache.RespostaHttpCache;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tarefa periódica que confere os contadores de respostas e a última atividade dos tópicos
+ * com as respostas existentes, corrigindo os tópicos divergentes.
+ *
+ * Os contadores são mantidos por incrementos atômicos a cada resposta criada ou removida pela API;
+ * esta verificação cobre apenas os tópicos alterados na janela configurada, sem percorrer todos os
+ * tópicos e respostas; os anteriores à criação das colunas são preenchidos uma única vez pela migração.
+ * Os tópicos conferidos ficam bloqueados até o fim da transação, para que a contagem não desfaça um
+ * incremento feito durante a verificação.
+ */
+@Component
+public class ReconciliacaoDeContadores {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliacaoDeContadores.class);
+
+    // Quantidade de IDs por comando de correção
+    private static final int LOTE = 1_000;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaHttpCache respostaHttpCache;
+
+    // Tópicos alterados neste período são conferidos; maior que o intervalo, para que as execuções se sobreponham
+    @Value("${api.contadores.reconciliacao.janela:PT2H}")
+    private Duration janela;
+
+    /**
+     * Recalcula os contadores divergentes. O intervalo é configurado por {@code api.contadores.reconciliacao.intervalo}.
+     *
+     * @return a quantidade de tópicos corrigidos
+     */
+    @Scheduled(initialDelayString = "${api.contadores.reconciliacao.atraso-inicial:PT1M}",
+            fixedDelayString = "${api.contadores.reconciliacao.intervalo:PT1H}")
+    @Transactional
+    public int reconciliar() {
+        var ids = topicoRepository.bloquearParaReconciliacao(Topico.agoraEmUtc().minus(janela));
+        var corrigidos = 0;
+        for (int inicio = 0; inicio < ids.size(); inicio += LOTE) {
+            corrigidos += topicoRepository.reconciliarContadores(ids.subList(inicio, Math.min(ids.size(), inicio + LOTE)));
+        }
+
+        if (corrigidos > 0) {
+            logger.warn("Contadores de respostas corrigidos em {} tópico(s)", corrigidos);
+            respostaHttpCache.invalidarTudo(); // As listagens em cache ainda exibem os contadores antigos
+        }
+        return corrigidos;
+    }
+}
@@ -0,0 +1,422 @@
+package br.com.forumhub.ForumHub.infra.busca;
+
+import br.com.forumhub.ForumHub.dto.resposta.DadosMensagemResposta;
+import br.com.forumhub.ForumHub.dto.topico.DadosIndexacaoTopico;
+import br.com.forumhub.ForumHub.dto.topico.DadosResultadoBusca;
+import br.com.forumhub.ForumHub.infra.cache.AposOCommit;
+import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.RespostaRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.br.BrazilianAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido (Lucene) dos tópicos e de suas respostas, usado pela busca textual.
+ *
+ * Cada tópico é um documento com o título, a mensagem e as mensagens das respostas, analisados com
+ * o {@link BrazilianAnalyzer} (minúsculas, sem stopwords e com radicalização para o português), e com
+ * o curso, a categoria e o status como filtros exatos. Os resultados são ordenados por BM25, com peso
+ * maior para o título, e montados apenas com os campos guardados no índice, sem consultar o banco.
+ *
+ * As escritas confirmadas em {@code TopicoService} e {@code RespostaService} apenas marcam o tópico;
+ * uma tarefa periódica reindexa os tópicos marcados, agrupando as respostas seguidas de um mesmo tópico,
+ * grava os segmentos em disco e publica as alterações para as buscas. Ao reiniciar, o índice gravado é
+ * reaproveitado: só os tópicos alterados desde o último commit são reindexados, e a reconstrução completa
+ * acontece apenas se, depois disso, a quantidade de documentos divergir da de tópicos, como após remoções.
+ * A data de alteração é gravada pela aplicação antes do commit da transação; por isso a retomada recua
+ * {@code api.busca.margem} antes do checkpoint, para alcançar as transações confirmadas depois dele.
+ *
+ * Se o diretório já estiver em uso por outro processo, o índice é mantido só em memória nesta instância e
+ * reconstruído a cada início; a situação é registrada como erro e na métrica "busca.indice.memoria".
+ */
+@Component
+public class IndiceDeBusca {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDeBusca.class);
+
+    // Dados gravados junto com cada commit do índice; o checkpoint está em UTC, como a data de alteração dos tópicos.
+    // Índices gravados com o nome anterior, em horário local, são reconstruídos
+    private static final String CHECKPOINT = "checkpoint-utc";
+
+    // Quantidade de tópicos consultados no banco por vez durante a indexação
+    private static final int LOTE = 500;
+
+    // Maior posição alcançável pela paginação, limitando o custo de páginas muito distantes
+    private static final int POSICAO_MAXIMA = 10_000;
+
+    // Pesos dos campos na pontuação
+    private static final Map<String, Float> PESOS = Map.of("titulo", 3f, "mensagem", 1f, "respostas", 0.5f);
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Diretório dos segmentos do índice; vazio para manter o índice apenas em memória
+    @Value("${api.busca.diretorio:dados/indice-busca}")
+    private String diretorio;
+
+    // Recuo do checkpoint na retomada, maior que a duração das transações que alteram tópicos
+    @Value("${api.busca.margem:PT5M}")
+    private Duration margem;
+
+    private final Analyzer analisador = new BrazilianAnalyzer();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private Timer tempoDeBusca;
+    private volatile boolean diretorioEmUso;
+
+    @PostConstruct
+    void abrir() throws IOException {
+        directory = diretorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(diretorio));
+        try {
+            writer = new IndexWriter(directory, configuracao());
+        } catch (LockObtainFailedException e) {
+            // Outro processo já usa o diretório; o índice passa a ser mantido só em memória nesta instância
+            logger.error("Índice de busca em {} em uso por outro processo; esta instância usará um índice só em memória, "
+                    + "reconstruído a cada início. Configure um api.busca.diretorio próprio para cada instância", diretorio, e);
+            diretorioEmUso = true;
+            directory.close();
+            directory = new ByteBuffersDirectory();
+            writer = new IndexWriter(directory, configuracao());
+        }
+
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader anterior) {
+                var searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+
+        tempoDeBusca = Timer.builder("busca.topicos")
+                .description("Tempo das buscas textuais de tópicos")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("busca.indice.memoria", this, indice -> indice.diretorioEmUso ? 1 : 0)
+                .description("1 se o diretório do índice de busca estava em uso por outro processo e o índice é mantido só em memória")
+                .register(meterRegistry);
+    }
+
+    private IndexWriterConfig configuracao() {
+        return new IndexWriterConfig(analisador)
+                .setSimilarity(new BM25Similarity())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+    }
+
+    @PreDestroy
+    void fechar() throws IOException {
+        searcherManager.close();
+        writer.close(); // Grava os documentos ainda não confirmados
+        directory.close();
+    }
+
+    /**
+     * Confere o índice gravado com o banco quando a aplicação fica pronta: reindexa os tópicos alterados
+     * desde o último commit, descontada a margem, e reconstrói o índice se, ainda assim, a quantidade de
+     * documentos divergir da de tópicos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void sincronizar() {
+        var inicio = System.nanoTime();
+        var checkpoint = ultimoCheckpoint();
+
+        if (checkpoint != null) {
+            var novoCheckpoint = Topico.agoraEmUtc();
+            var ids = topicoRepository.listarIdsAlteradosDesde(checkpoint.minus(margem));
+            indexar(ids);
+            confirmar(novoCheckpoint);
+
+            // Os tópicos removidos desde o checkpoint não são encontrados pela data de alteração
+            var documentos = writer.getDocStats().numDocs;
+            if (documentos == topicoRepository.count()) {
+                logger.info("Índice de busca reaproveitado com {} tópico(s); {} reindexado(s) em {} ms",
+                        documentos, ids.size(), (System.nanoTime() - inicio) / 1_000_000);
+                return;
+            }
+        }
+
+        reconstruir();
+        logger.info("Índice de busca reconstruído com {} tópico(s) em {} ms",
+                writer.getDocStats().numDocs, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Marca um tópico para ser reindexado pela próxima atualização. Se houver uma transação em andamento,
+     * a marcação só é feita após o commit, para que o índice não leia dados ainda não confirmados.
+     *
+     * @param topicoId o ID do tópico criado, alterado, removido ou cujas respostas mudaram
+     */
+    public void agendar(Long topicoId) {
+        AposOCommit.executar(() -> pendentes.add(topicoId));
+    }
+
+    /**
+     * Reindexa os tópicos marcados, grava o índice em disco e publica as alterações para as buscas.
+     * O intervalo é configurado por {@code api.busca.intervalo}.
+     *
+     * @return a quantidade de tópicos reindexados
+     */
+    @Scheduled(initialDelayString = "${api.busca.intervalo:PT1S}", fixedDelayString = "${api.busca.intervalo:PT1S}")
+    public synchronized int atualizar() {
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        // Marcações feitas depois deste instante ficam para a próxima atualização ou, após uma queda, para o checkpoint
+        var checkpoint = Topico.agoraEmUtc();
+        var ids = new ArrayList<Long>(pendentes);
+        pendentes.removeAll(ids);
+
+        indexar(ids);
+        confirmar(checkpoint);
+        return ids.size();
+    }
+
+    /**
+     * Busca os tópicos que contêm os termos informados no título, na mensagem ou nas respostas.
+     * O texto aceita a sintaxe simples do Lucene: aspas para frases, {@code -} para excluir um termo,
+     * {@code |} para alternativas e {@code *} no fim de um prefixo. Todos os termos são obrigatórios por padrão.
+     *
+     * @param texto     o texto da busca
+     * @param curso     o nome do curso, ou null para todos
+     * @param categoria a categoria do curso, ou null para todas
+     * @param status    o status do tópico, ou null para todos
+     * @param paginacao a página desejada; a ordenação é sempre pela relevância
+     * @return a página de resultados; o total é exato até 1000 resultados e, acima disso, um limite inferior
+     * @throws ValidacaoException se o texto estiver vazio ou a página estiver além do limite
+     */
+    public Page<DadosResultadoBusca> buscar(String texto, String curso, Categoria categoria, StatusTopico status, Pageable paginacao) {
+        if (texto == null || texto.isBlank()) {
+            throw new ValidacaoException("Informe o texto da busca.");
+        }
+        if (paginacao.getOffset() + paginacao.getPageSize() > POSICAO_MAXIMA) {
+            throw new ValidacaoException("A busca permite consultar apenas os primeiros " + POSICAO_MAXIMA + " resultados.");
+        }
+
+        var parser = new SimpleQueryParser(analisador, PESOS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+
+        var consulta = new BooleanQuery.Builder().add(parser.parse(texto), BooleanClause.Occur.MUST);
+        if (curso != null && !curso.isBlank()) {
+            consulta.add(new TermQuery(new Term("curso", curso.strip().toLowerCase(Locale.ROOT))), BooleanClause.Occur.FILTER);
+        }
+        if (categoria != null) {
+            consulta.add(new TermQuery(new Term("categoria", categoria.name())), BooleanClause.Occur.FILTER);
+        }
+        if (status != null) {
+            consulta.add(new TermQuery(new Term("status", status.name())), BooleanClause.Occur.FILTER);
+        }
+
+        return tempoDeBusca.record(() -> executar(consulta.build(), paginacao));
+    }
+
+    private Page<DadosResultadoBusca> executar(Query consulta, Pageable paginacao) {
+        try {
+            var searcher = searcherManager.acquire();
+            try {
+                var inicio = (int) paginacao.getOffset();
+                var encontrados = searcher.search(consulta, inicio + paginacao.getPageSize());
+                var campos = searcher.storedFields();
+
+                var resultados = new ArrayList<DadosResultadoBusca>();
+                for (int i = inicio; i < encontrados.scoreDocs.length; i++) {
+                    var documento = campos.document(encontrados.scoreDocs[i].doc);
+                    resultados.add(new DadosResultadoBusca(
+                            Long.valueOf(documento.get("id")),
+                            documento.get("titulo"),
+                            documento.get("nomeCurso"),
+                            StatusTopico.valueOf(documento.get("status")),
+                            LocalDateTime.parse(documento.get("dataCriacao")),
+                            encontrados.scoreDocs[i].score));
+                }
+                return new PageImpl<>(resultados, paginacao, encontrados.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return a quantidade de tópicos no índice, considerando apenas as alterações já publicadas
+     */
+    public int tamanho() {
+        try {
+            var searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reconstruir() {
+        var checkpoint = Topico.agoraEmUtc();
+        try {
+            writer.deleteAll();
+
+            long ultimoId = 0;
+            while (true) {
+                var lote = topicoRepository.listarParaIndexacao(ultimoId, Limit.of(LOTE));
+                if (lote.isEmpty()) {
+                    break;
+                }
+
+                var respostas = respostasDos(lote.stream().map(DadosIndexacaoTopico::id).toList());
+                for (var topico : lote) {
+                    writer.addDocument(documento(topico, respostas.getOrDefault(topico.id(), List.of())));
+                }
+                ultimoId = lote.get(lote.size() - 1).id();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        confirmar(checkpoint);
+    }
+
+    private void indexar(Collection<Long> ids) {
+        var todos = new ArrayList<>(ids);
+        try {
+            for (int i = 0; i < todos.size(); i += LOTE) {
+                var lote = todos.subList(i, Math.min(i + LOTE, todos.size()));
+                var topicos = topicoRepository.listarParaIndexacao(lote);
+                var respostas = respostasDos(lote);
+
+                var removidos = new HashSet<>(lote);
+                for (var topico : topicos) {
+                    removidos.remove(topico.id());
+                    writer.updateDocument(new Term("id", topico.id().toString()),
+                            documento(topico, respostas.getOrDefault(topico.id(), List.of())));
+                }
+                for (var id : removidos) {
+                    writer.deleteDocuments(new Term("id", id.toString()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<Long, List<String>> respostasDos(List<Long> topicoIds) {
+        return respostaRepository.listarMensagensDosTopicos(topicoIds).stream()
+                .collect(Collectors.groupingBy(DadosMensagemResposta::topicoId,
+                        Collectors.mapping(DadosMensagemResposta::mensagem, Collectors.toList())));
+    }
+
+    private Document documento(DadosIndexacaoTopico topico, List<String> respostas) {
+        var documento = new Document();
+        documento.add(new StringField("id", topico.id().toString(), Field.Store.YES));
+        documento.add(new TextField("titulo", topico.titulo(), Field.Store.YES));
+        documento.add(new TextField("mensagem", topico.mensagem(), Field.Store.NO));
+        for (var resposta : respostas) {
+            if (resposta != null) {
+                documento.add(new TextField("respostas", resposta, Field.Store.NO));
+            }
+        }
+
+        if (topico.nomeCurso() != null) {
+            documento.add(new StringField("curso", topico.nomeCurso().strip().toLowerCase(Locale.ROOT), Field.Store.NO));
+            documento.add(new StoredField("nomeCurso", topico.nomeCurso()));
+        }
+        if (topico.categoria() != null) {
+            documento.add(new StringField("categoria", topico.categoria().name(), Field.Store.NO));
+        }
+        documento.add(new StringField("status", topico.status().name(), Field.Store.YES));
+        documento.add(new StoredField("dataCriacao", topico.dataCriacao().toString()));
+        return documento;
+    }
+
+    // Grava os segmentos com o checkpoint e publica as alterações para as próximas buscas
+    private void confirmar(LocalDateTime checkpoint) {
+        try {
+            writer.setLiveCommitData(Map.of(CHECKPOINT, checkpoint.toString()).entrySet());
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LocalDateTime ultimoCheckpoint() {
+        var dados = writer.getLiveCommitData();
+        if (dados == null) {
+            return null;
+        }
+        for (var dado : dados) {
+            if (CHECKPOINT.equals(dado.getKey())) {
+                return LocalDateTime.parse(dado.getValue());
+            }
+        }
+        return null;
+    }
+}
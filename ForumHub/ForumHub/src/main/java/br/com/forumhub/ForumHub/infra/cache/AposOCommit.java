@@ -0,0 +1,47 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia as alterações de estruturas em memória (caches e índices) para depois do commit da transação em
+ * andamento, para que um rollback não as deixe refletindo dados que nunca foram confirmados, e para que
+ * uma leitura concorrente não volte a guardar o estado anterior ao commit.
+ */
+public final class AposOCommit {
+
+    private AposOCommit() {
+    }
+
+    /**
+     * Executa a ação após o commit, se houver uma transação em andamento, ou imediatamente, se não houver.
+     * Se a transação for desfeita, a ação não é executada.
+     *
+     * @param acao a alteração a aplicar
+     */
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    /**
+     * Executa a invalidação imediatamente e a repete após o commit, se houver uma transação em andamento,
+     * para que uma leitura concorrente feita antes do commit não recoloque no cache o estado anterior.
+     *
+     * @param invalidacao a remoção das entradas alteradas
+     */
+    public static void repetir(Runnable invalidacao) {
+        invalidacao.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            executar(invalidacao);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import br.com.forumhub.ForumHub.infra.similaridade.AssinaturaSimHash;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Publica para as demais instâncias da aplicação, pelo NOTIFY do Postgres, as entidades alteradas,
+ * para que removam dos seus caches o que esta instância já removeu dos próprios. As notificações são
+ * recebidas pelo {@link OuvinteDeInvalidacao}.
+ *
+ * As alterações de uma transação são agrupadas em uma única notificação, enviada na própria transação:
+ * o Postgres só a entrega após o commit, e não a entrega se houver rollback. Cada notificação leva a
+ * origem, para que a instância que a enviou a ignore.
+ *
+ * Os índices em memória de similaridade e de sugestões não são recarregados do banco a cada alteração:
+ * as criações, edições e remoções de tópicos levam o conteúdo anterior e o novo, que as demais instâncias
+ * aplicam como esta aplicou.
+ */
+@Component
+public class BarramentoDeInvalidacao {
+
+    // Tamanho máximo de uma notificação do Postgres, com folga; acima dele, as demais instâncias descartam todos os caches
+    private static final int TAMANHO_MAXIMO = 7900;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Canal do LISTEN/NOTIFY, compartilhado por todas as instâncias
+    @Value("${api.cache.invalidacao.canal:forumhub_invalidacao}")
+    private String canal;
+
+    private final String origem = UUID.randomUUID().toString();
+
+    /**
+     * Entidades alteradas, enviadas em uma notificação.
+     *
+     * @param origem            a instância que enviou a notificação
+     * @param topicos           os tópicos editados ou cujas respostas mudaram
+     * @param topicosCriados    os tópicos criados ou removidos, que mudam também as listagens e os totais
+     * @param usuarios          os usuários cadastrados, alterados ou desativados
+     * @param autoresRenomeados os usuários cujo nome mudou, exibido nas respostas dos tópicos de que participaram
+     * @param conteudos         as alterações de conteúdo dos tópicos, na ordem em que foram feitas
+     * @param tudo              se todos os caches devem ser descartados
+     */
+    public record Invalidacoes(String origem, Set<Long> topicos, Set<Long> topicosCriados, Set<Long> usuarios,
+                               Set<Long> autoresRenomeados, List<AlteracaoDeConteudo> conteudos, boolean tudo) {
+
+        boolean vazia() {
+            return !tudo && topicos.isEmpty() && topicosCriados.isEmpty() && usuarios.isEmpty()
+                    && autoresRenomeados.isEmpty() && conteudos.isEmpty();
+        }
+    }
+
+    /**
+     * Conteúdo de um tópico registrado nos índices de similaridade e de sugestões.
+     *
+     * @param titulo     o título do tópico
+     * @param assinatura a assinatura SimHash do título e da mensagem
+     * @param cursoId    o ID do curso do tópico
+     * @param nomeCurso  o nome do curso do tópico
+     * @param respostas  a quantidade de respostas do tópico
+     */
+    public record ConteudoDoTopico(String titulo, long assinatura, Long cursoId, String nomeCurso, long respostas) {
+
+        public static ConteudoDoTopico de(Topico topico) {
+            return new ConteudoDoTopico(topico.getTitulo(), AssinaturaSimHash.calcular(topico.getTitulo(), topico.getMensagem()),
+                    topico.getCurso().getId(), topico.getCurso().getNome(), topico.getRespostasCount());
+        }
+    }
+
+    /**
+     * Alteração do conteúdo de um tópico.
+     *
+     * @param id       o ID do tópico
+     * @param anterior o conteúdo antes da alteração, ou null se o tópico foi criado
+     * @param novo     o conteúdo após a alteração, ou null se o tópico foi removido
+     */
+    public record AlteracaoDeConteudo(Long id, ConteudoDoTopico anterior, ConteudoDoTopico novo) {
+    }
+
+    /**
+     * @return o identificador desta instância nas notificações
+     */
+    public String origem() {
+        return origem;
+    }
+
+    /**
+     * @return o canal do LISTEN/NOTIFY
+     */
+    public String canal() {
+        return canal;
+    }
+
+    /**
+     * Notifica a edição de um tópico ou a criação, edição ou remoção de uma de suas respostas.
+     *
+     * @param topicoId o ID do tópico alterado
+     */
+    public void topicoAlterado(Long topicoId) {
+        registrar(lote -> lote.topicos().add(topicoId));
+    }
+
+    /**
+     * Notifica a criação ou a remoção de um tópico.
+     *
+     * @param topicoId o ID do tópico criado ou removido
+     */
+    public void topicoCriadoOuRemovido(Long topicoId) {
+        registrar(lote -> lote.topicosCriados().add(topicoId));
+    }
+
+    /**
+     * Notifica a criação, a edição ou a remoção de um tópico, com o conteúdo a aplicar nos índices em memória.
+     *
+     * @param topicoId o ID do tópico
+     * @param anterior o conteúdo antes da alteração, ou null se o tópico foi criado
+     * @param novo     o conteúdo após a alteração, ou null se o tópico foi removido
+     */
+    public void conteudoAlterado(Long topicoId, ConteudoDoTopico anterior, ConteudoDoTopico novo) {
+        registrar(lote -> lote.conteudos().add(new AlteracaoDeConteudo(topicoId, anterior, novo)));
+    }
+
+    /**
+     * Notifica o cadastro, a alteração ou a desativação de um usuário.
+     *
+     * @param usuarioId o ID do usuário alterado
+     */
+    public void usuarioAlterado(Long usuarioId) {
+        registrar(lote -> lote.usuarios().add(usuarioId));
+    }
+
+    /**
+     * Notifica a alteração do nome de um usuário, exibido como autor nas respostas HTTP em cache.
+     *
+     * @param usuarioId o ID do usuário renomeado
+     */
+    public void autorRenomeado(Long usuarioId) {
+        registrar(lote -> lote.autoresRenomeados().add(usuarioId));
+    }
+
+    // Acrescenta a alteração às da transação em andamento, enviadas antes do commit; sem transação, envia imediatamente
+    private void registrar(Consumer<Invalidacoes> alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            var lote = novoLote();
+            alteracao.accept(lote);
+            enviar(lote);
+            return;
+        }
+
+        var lote = (Invalidacoes) TransactionSynchronizationManager.getResource(this);
+        if (lote == null) {
+            var novo = novoLote();
+            TransactionSynchronizationManager.bindResource(this, novo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    enviar(novo);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BarramentoDeInvalidacao.this);
+                }
+            });
+            lote = novo;
+        }
+        alteracao.accept(lote);
+    }
+
+    private Invalidacoes novoLote() {
+        return new Invalidacoes(origem, new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new ArrayList<>(), false);
+    }
+
+    private void enviar(Invalidacoes lote) {
+        if (lote.vazia()) {
+            return;
+        }
+
+        var mensagem = json(lote);
+        if (mensagem.getBytes(StandardCharsets.UTF_8).length > TAMANHO_MAXIMO) {
+            mensagem = json(new Invalidacoes(origem, Set.of(), Set.of(), Set.of(), Set.of(), List.of(), true));
+        }
+        jdbcTemplate.queryForList("select pg_notify(?, ?)", canal, mensagem);
+    }
+
+    private String json(Invalidacoes lote) {
+        try {
+            return objectMapper.writeValueAsString(lote);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar as invalidações", e);
+        }
+    }
+}
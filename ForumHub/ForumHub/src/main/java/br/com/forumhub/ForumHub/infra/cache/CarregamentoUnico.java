@@ -0,0 +1,132 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa as leituras idênticas simultâneas em uma única carga: a primeira requisição de uma chave executa
+ * a consulta e as que chegam enquanto ela está em andamento aguardam e recebem o mesmo resultado, ou a
+ * mesma exceção. Evita que um tópico muito acessado, fora dos caches, leve centenas de consultas iguais ao banco.
+ *
+ * A carga é removida assim que termina, com sucesso ou não, e nada é guardado depois disso. Quem espera além
+ * do tempo máximo executa a própria carga. Dentro de uma transação a carga não é compartilhada, pois poderia
+ * ver alterações ainda não confirmadas. As métricas são publicadas como "cache.carregamentos", por resultado.
+ */
+@Component
+public class CarregamentoUnico {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tempo máximo de espera pela carga de outra requisição
+    @Value("${api.cache.carregamento-unico.espera-maxima:PT5S}")
+    private Duration esperaMaxima;
+
+    private final Map<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    private Counter executados;
+    private Counter compartilhados;
+    private Counter esgotados;
+
+    @PostConstruct
+    void inicializar() {
+        this.executados = contador("executado", "Cargas executadas no banco");
+        this.compartilhados = contador("compartilhado", "Leituras atendidas pela carga de outra requisição");
+        this.esgotados = contador("esgotado", "Leituras que desistiram de esperar e executaram a própria carga");
+    }
+
+    private Counter contador(String resultado, String descricao) {
+        return Counter.builder("cache.carregamentos")
+                .tag("resultado", resultado)
+                .description(descricao)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param topicoId o ID do tópico
+     * @return a chave da carga dos detalhes do tópico
+     */
+    public static String detalheDoTopico(Long topicoId) {
+        return "topico:" + topicoId;
+    }
+
+    /**
+     * Executa a carga, ou aguarda a carga da mesma chave já em andamento e retorna o seu resultado.
+     *
+     * @param chave a chave da leitura
+     * @param carga a consulta ao banco
+     * @return o resultado da carga, que pode ser null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T carregar(String chave, Supplier<T> carga) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            executados.increment();
+            return carga.get();
+        }
+
+        var nova = new CompletableFuture<Object>();
+        var existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            return (T) aguardar(existente, carga);
+        }
+
+        executados.increment();
+        try {
+            T resultado = carga.get();
+            nova.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    /**
+     * Descarta a carga em andamento da chave, para que as próximas leituras consultem o banco de novo,
+     * como depois de uma alteração. Quem já aguarda continua recebendo o resultado dela.
+     *
+     * @param chave a chave da leitura
+     */
+    public void esquecer(String chave) {
+        emAndamento.remove(chave);
+    }
+
+    private Object aguardar(CompletableFuture<Object> existente, Supplier<?> carga) {
+        try {
+            var resultado = existente.get(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+            compartilhados.increment();
+            return resultado;
+        } catch (TimeoutException e) {
+            esgotados.increment();
+            return carga.get();
+        } catch (ExecutionException e) {
+            compartilhados.increment();
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava a carga de outra requisição", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache dos totais das listagens paginadas, uma entrada por formato de consulta
+ * (todos os tópicos, tópicos de um autor, usuários ativos).
+ *
+ * Evita o {@code count} a cada página: o total é contado no banco uma vez e, enquanto estiver em cache,
+ * é ajustado a cada criação ou remoção confirmada. O tempo de vida é contado a partir da contagem
+ * (os ajustes não o renovam), limitando a divergência causada por alterações feitas em outras instâncias.
+ * As métricas são publicadas com o nome "contagens".
+ */
+@Component
+public class ContagemCache {
+
+    public static final String TOPICOS = "topicos";
+    public static final String USUARIOS_ATIVOS = "usuarios:ativos";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Quantidade máxima de totais mantidos em cache
+    @Value("${api.cache.contagens.tamanho-maximo:10000}")
+    private long tamanhoMaximo;
+
+    // Tempo de vida de cada total, a partir da contagem no banco
+    @Value("${api.cache.contagens.duracao:PT1M}")
+    private Duration duracao;
+
+    private Cache<String, AtomicLong> contagens;
+
+    @PostConstruct
+    void inicializar() {
+        this.contagens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(duracao)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, contagens, "contagens");
+    }
+
+    /**
+     * @param autorId o ID do autor
+     * @return a chave do total de tópicos do autor
+     */
+    public static String topicosDoAutor(Long autorId) {
+        return TOPICOS + ":autor:" + autorId;
+    }
+
+    /**
+     * Retorna o total em cache ou, se não houver, executa a contagem no banco e guarda o resultado.
+     *
+     * @param chave a chave do formato de consulta
+     * @param contagem a consulta de contagem
+     * @return o total de registros
+     */
+    public long contar(String chave, LongSupplier contagem) {
+        return contagens.get(chave, c -> new AtomicLong(contagem.getAsLong())).get();
+    }
+
+    /**
+     * Soma a variação ao total em cache, se houver. Se houver uma transação em andamento,
+     * o ajuste só é aplicado após o commit, para que um rollback não deixe o total incorreto.
+     *
+     * @param chave a chave do formato de consulta
+     * @param variacao a quantidade de registros criados (positiva) ou removidos (negativa)
+     */
+    public void ajustar(String chave, long variacao) {
+        AposOCommit.executar(() -> aplicar(chave, variacao));
+    }
+
+    /**
+     * Remove todos os totais, que serão contados de novo no banco, como depois de uma criação ou remoção
+     * feita em outra instância, cujo ajuste não é conhecido aqui.
+     */
+    public void invalidarTudo() {
+        contagens.invalidateAll();
+    }
+
+    private void aplicar(String chave, long variacao) {
+        var total = contagens.getIfPresent(chave);
+        if (total != null) {
+            total.addAndGet(variacao);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Define o ETag fraco das listagens de tópicos, calculado sobre o corpo da resposta. As listagens não têm
+ * uma versão própria, como os detalhes de um tópico; o ETag só evita o envio de uma página que o cliente
+ * já tem, sem poupar a consulta ao banco.
+ */
+@Configuration
+public class EtagDasListagensConfiguration {
+
+    /**
+     * Filtro do ETag das listagens, executado antes da cadeia de segurança para que as respostas
+     * vindas do {@link RespostaHttpCache} também o recebam.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagDasListagens() {
+        var filtro = new ShallowEtagHeaderFilter();
+        filtro.setWriteWeakETag(true);
+
+        var registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/topicos", "/topicos/cursor", "/topicos/filtrados");
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registro;
+    }
+}
@@ -0,0 +1,338 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import br.com.forumhub.ForumHub.infra.busca.IndiceDeBusca;
+import br.com.forumhub.ForumHub.infra.similaridade.IndiceDeSimilaridade;
+import br.com.forumhub.ForumHub.infra.sugestao.IndiceDeSugestoes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Recebe, pelo LISTEN do Postgres, as entidades alteradas pelas demais instâncias da aplicação e as remove
+ * dos caches desta: as respostas HTTP, os usuários e os totais das listagens. Os tópicos alterados também são
+ * reindexados pela busca, e as criações, edições e remoções de tópicos são aplicadas nos índices de similaridade
+ * e de sugestões.
+ *
+ * Usa uma conexão própria, fora do pool, em uma thread dedicada. As notificações que chegam juntas são
+ * agrupadas por {@code api.cache.invalidacao.agrupamento} e aplicadas de uma vez. Sem conexão, as notificações
+ * se perdem: por isso todos os caches são descartados a cada conexão, inclusive nas reconexões, feitas a cada
+ * {@code api.cache.invalidacao.reconexao}, e a cada reconexão os índices também são recarregados do banco.
+ * Na primeira conexão não: ela é feita antes de os índices serem carregados. As métricas são publicadas como
+ * "cache.invalidacoes", por tipo.
+ */
+@Component
+public class OuvinteDeInvalidacao {
+
+    private static final Logger logger = LoggerFactory.getLogger(OuvinteDeInvalidacao.class);
+
+    // Nome da conexão no Postgres (application_name), que a identifica em pg_stat_activity
+    public static final String NOME_DA_CONEXAO = "forumhub-invalidacao";
+
+    // O canal entra no comando LISTEN como identificador, e não como parâmetro
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    // Tempo sem notificações após o qual a conexão é testada, para perceber uma queda silenciosa
+    private static final int VERIFICACAO_MS = 10_000;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BarramentoDeInvalidacao barramento;
+
+    @Autowired
+    private RespostaHttpCache respostaHttpCache;
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private ContagemCache contagemCache;
+
+    @Autowired
+    private IndiceDeBusca indiceDeBusca;
+
+    @Autowired
+    private IndiceDeSimilaridade indiceDeSimilaridade;
+
+    @Autowired
+    private IndiceDeSugestoes indiceDeSugestoes;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tempo durante o qual as notificações seguintes à primeira são agrupadas com ela
+    @Value("${api.cache.invalidacao.agrupamento:PT0.1S}")
+    private Duration agrupamento;
+
+    // Espera antes de uma nova tentativa de conexão
+    @Value("${api.cache.invalidacao.reconexao:PT5S}")
+    private Duration reconexao;
+
+    private volatile boolean ativo;
+    private volatile Connection conexao;
+    private Thread ouvinte;
+    private Counter notificacoes;
+    private Counter ressincronizacoes;
+
+    /**
+     * Inicia a thread que escuta as notificações, quando a aplicação fica pronta e antes da carga dos índices,
+     * para que nenhuma alteração feita durante a carga se perca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void iniciar() {
+        if (!CANAL_VALIDO.matcher(barramento.canal()).matches()) {
+            throw new IllegalStateException("Canal de invalidação inválido: " + barramento.canal());
+        }
+
+        notificacoes = contador("notificacao", "Notificações de invalidação recebidas de outras instâncias");
+        ressincronizacoes = contador("ressincronizacao", "Descartes de todos os caches a cada conexão ao canal de invalidação");
+
+        // A primeira conexão é feita antes de a aplicação atender requisições, para não descartar caches já em uso
+        ativo = true;
+        try {
+            conexao = escutar(false);
+        } catch (SQLException e) {
+            logger.warn("Não foi possível escutar o canal de invalidação de caches; nova tentativa em {}", reconexao, e);
+        }
+        ouvinte = new Thread(this::ouvir, "invalidacao-de-caches");
+        ouvinte.setDaemon(true);
+        ouvinte.start();
+    }
+
+    private Counter contador(String tipo, String descricao) {
+        return Counter.builder("cache.invalidacoes")
+                .tag("tipo", tipo)
+                .description(descricao)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    synchronized void parar() throws InterruptedException {
+        ativo = false;
+        if (ouvinte != null) {
+            fecharConexao(); // Desbloqueia a espera por notificações
+            ouvinte.interrupt();
+            ouvinte.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void ouvir() {
+        while (ativo) {
+            try {
+                var atual = conexao;
+                if (atual == null) {
+                    atual = escutar(true);
+                    conexao = atual;
+                }
+
+                var notificacoesDoPostgres = atual.unwrap(PGConnection.class);
+                while (ativo) {
+                    receber(atual, notificacoesDoPostgres);
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                fecharConexao();
+                if (ativo) {
+                    logger.warn("Conexão ao canal de invalidação de caches perdida; nova tentativa em {}", reconexao, e);
+                    aguardar(reconexao);
+                }
+            }
+        }
+        fecharConexao();
+    }
+
+    // Conecta, passa a escutar o canal e descarta os caches, que podem ter perdido notificações sem a conexão
+    private Connection escutar(boolean recarregarIndices) throws SQLException {
+        var nova = conectar();
+        try (var comando = nova.createStatement()) {
+            comando.execute("listen " + barramento.canal());
+        } catch (SQLException e) {
+            nova.close();
+            throw e;
+        }
+        ressincronizar(recarregarIndices);
+        return nova;
+    }
+
+    private Connection conectar() throws SQLException {
+        var propriedades = new Properties();
+        propriedades.setProperty("user", dataSourceProperties.determineUsername());
+        propriedades.setProperty("password", dataSourceProperties.determinePassword());
+        propriedades.setProperty("ApplicationName", NOME_DA_CONEXAO);
+        var nova = DriverManager.getConnection(dataSourceProperties.determineUrl(), propriedades);
+        nova.setAutoCommit(true);
+        return nova;
+    }
+
+    // Aguarda a primeira notificação e as que chegam logo em seguida, e as aplica de uma vez
+    private void receber(Connection atual, PGConnection notificacoesDoPostgres) throws SQLException, IOException {
+        var recebidas = notificacoesDoPostgres.getNotifications(VERIFICACAO_MS);
+        if (recebidas == null || recebidas.length == 0) {
+            try (var comando = atual.createStatement()) {
+                comando.execute("select 1");
+            }
+            return;
+        }
+
+        var lote = new Lote();
+        lote.juntar(recebidas);
+        var limite = System.nanoTime() + agrupamento.toNanos();
+        long restante;
+        while ((restante = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime())) > 0) {
+            var seguintes = notificacoesDoPostgres.getNotifications((int) restante);
+            if (seguintes == null || seguintes.length == 0) {
+                break;
+            }
+            lote.juntar(seguintes);
+        }
+        lote.aplicar();
+    }
+
+    // Descarta todos os caches desta instância e, se pedido, recarrega os índices em memória e atualiza o de busca
+    private void ressincronizar(boolean recarregarIndices) {
+        respostaHttpCache.invalidarTudo();
+        usuarioCache.invalidarTudo();
+        contagemCache.invalidarTudo();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        if (recarregarIndices) {
+            indiceDeSimilaridade.carregar();
+            indiceDeSugestoes.montar();
+            indiceDeBusca.sincronizar();
+        }
+        ressincronizacoes.increment();
+    }
+
+    private void fecharConexao() {
+        var atual = conexao;
+        conexao = null;
+        if (atual != null) {
+            try {
+                atual.close();
+            } catch (SQLException e) {
+                logger.debug("Erro ao fechar a conexão ao canal de invalidação", e);
+            }
+        }
+    }
+
+    private void aguardar(Duration espera) {
+        try {
+            Thread.sleep(espera.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ativo = false;
+        }
+    }
+
+    /**
+     * Entidades recebidas em um grupo de notificações, sem repetições.
+     */
+    private class Lote {
+
+        private final Set<Long> topicos = new HashSet<>();
+        private final Set<Long> topicosCriados = new HashSet<>();
+        private final Set<Long> usuarios = new HashSet<>();
+        private final List<BarramentoDeInvalidacao.AlteracaoDeConteudo> conteudos = new ArrayList<>();
+        private boolean autorRenomeado;
+        private boolean tudo;
+
+        void juntar(PGNotification[] recebidas) throws IOException {
+            for (var notificacao : recebidas) {
+                var invalidacoes = objectMapper.readValue(notificacao.getParameter(), BarramentoDeInvalidacao.Invalidacoes.class);
+                if (barramento.origem().equals(invalidacoes.origem())) {
+                    continue; // Esta instância já removeu dos seus caches o que alterou
+                }
+
+                notificacoes.increment();
+                topicos.addAll(invalidacoes.topicos());
+                topicosCriados.addAll(invalidacoes.topicosCriados());
+                usuarios.addAll(invalidacoes.usuarios());
+                // Ausentes nas notificações de versões anteriores
+                if (invalidacoes.conteudos() != null) {
+                    conteudos.addAll(invalidacoes.conteudos());
+                }
+                autorRenomeado |= invalidacoes.autoresRenomeados() != null && !invalidacoes.autoresRenomeados().isEmpty();
+                tudo |= invalidacoes.tudo();
+            }
+        }
+
+        void aplicar() {
+            if (tudo) {
+                ressincronizar(true);
+                return;
+            }
+
+            // Na ordem em que as alterações foram feitas, como a instância de origem as aplicou
+            for (var alteracao : conteudos) {
+                var anterior = alteracao.anterior();
+                var novo = alteracao.novo();
+                if (anterior == null) {
+                    indiceDeSimilaridade.incluir(alteracao.id(), novo.assinatura());
+                    indiceDeSugestoes.incluirTopico(alteracao.id(), novo.titulo(), novo.cursoId(), novo.nomeCurso());
+                } else if (novo == null) {
+                    indiceDeSimilaridade.excluir(alteracao.id(), anterior.assinatura());
+                    indiceDeSugestoes.excluirTopico(alteracao.id(), anterior.titulo(), anterior.cursoId(), anterior.nomeCurso());
+                } else {
+                    indiceDeSimilaridade.substituir(alteracao.id(), anterior.assinatura(), novo.assinatura());
+                    indiceDeSugestoes.substituirTitulo(alteracao.id(), anterior.titulo(), novo.titulo(), novo.respostas());
+                }
+            }
+
+            for (var id : topicosCriados) {
+                respostaHttpCache.invalidarTopicoEListagens(id);
+                indiceDeBusca.agendar(id);
+            }
+            for (var id : topicos) {
+                respostaHttpCache.invalidarTopico(id);
+                indiceDeBusca.agendar(id);
+            }
+            for (var id : usuarios) {
+                usuarioCache.invalidarPorId(id);
+            }
+
+            // O nome do autor aparece nos detalhes e nas respostas de todos os tópicos de que participou
+            if (autorRenomeado) {
+                respostaHttpCache.invalidarTudo();
+            }
+
+            // Os totais criados ou removidos em outra instância não são conhecidos aqui para o ajuste
+            if (!topicosCriados.isEmpty() || !usuarios.isEmpty()) {
+                contagemCache.invalidarTudo();
+            }
+        }
+    }
+}
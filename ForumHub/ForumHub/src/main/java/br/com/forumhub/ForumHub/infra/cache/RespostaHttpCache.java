@@ -0,0 +1,200 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache das respostas HTTP das leituras anônimas de tópicos, já serializadas em JSON e também
+ * comprimidas com gzip, preenchido pelo {@link br.com.forumhub.ForumHub.infra.security.RespostaHttpCacheFilter}.
+ * O tamanho é limitado pela soma dos bytes guardados, e não pela quantidade de entradas.
+ *
+ * Cada entrada registra os tópicos que contém. A edição de um tópico ou de uma de suas respostas remove
+ * apenas as entradas desse tópico; a criação e a remoção de tópicos removem também todas as listagens,
+ * cujas páginas e totais mudam, e a alteração do nome de um usuário remove todas as entradas, já que o nome
+ * aparece nos detalhes e nas respostas de cada tópico de que ele participou. Só são guardadas listagens
+ * ordenadas por colunas fixas desde a criação do tópico, cujas páginas não mudam com as demais escritas.
+ * Toda invalidação de um tópico também descarta a carga dos seus detalhes em andamento no
+ * {@link CarregamentoUnico}. O tempo de vida limita por quanto tempo uma alteração feita diretamente no banco
+ * fica invisível. As métricas são publicadas com o nome "respostas-http".
+ */
+@Component
+public class RespostaHttpCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CarregamentoUnico carregamentoUnico;
+
+    // Soma máxima dos bytes guardados, nas duas versões de cada resposta
+    @Value("${api.cache.respostas-http.tamanho-maximo:32MB}")
+    private DataSize tamanhoMaximo;
+
+    // Tempo de vida de cada resposta, a partir da consulta ao banco
+    @Value("${api.cache.respostas-http.duracao:PT5M}")
+    private Duration duracao;
+
+    /**
+     * Resposta guardada no cache.
+     *
+     * @param tipo              o Content-Type da resposta
+     * @param cacheControl      o Cache-Control da resposta, ou null
+     * @param etag              o ETag da resposta, ou null
+     * @param ultimaModificacao o Last-Modified da resposta em milissegundos, ou -1
+     * @param json              o corpo da resposta
+     * @param gzip              o corpo comprimido com gzip, ou null se a compressão não o reduzir
+     * @param topicos           os IDs dos tópicos contidos na resposta
+     * @param listagem          se a resposta é uma listagem, afetada pela criação e pela remoção de qualquer tópico
+     */
+    public record Entrada(String tipo, String cacheControl, String etag, long ultimaModificacao,
+                          byte[] json, byte[] gzip, Set<Long> topicos, boolean listagem) {
+
+        int peso() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private Cache<String, Entrada> respostas;
+
+    // Chaves das entradas de cada tópico e das listagens, mantidas junto com o cache
+    private final Map<Long, Set<String>> chavesPorTopico = new ConcurrentHashMap<>();
+    private final Set<String> chavesDeListagens = ConcurrentHashMap.newKeySet();
+
+    // Incrementada a cada invalidação; uma resposta consultada antes dela não é guardada. Protegida por this,
+    // assim como as gravações no cache
+    private long geracao;
+
+    @PostConstruct
+    void inicializar() {
+        this.respostas = Caffeine.newBuilder()
+                .maximumWeight(tamanhoMaximo.toBytes())
+                .weigher((String chave, Entrada entrada) -> chave.length() + entrada.peso())
+                .expireAfterWrite(duracao)
+                .executor(Runnable::run)
+                .removalListener((String chave, Entrada entrada, RemovalCause causa) -> desindexar(chave, entrada))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, respostas, "respostas-http");
+    }
+
+    /**
+     * @param chave a chave da requisição
+     * @return a resposta guardada, ou null se não houver
+     */
+    public Entrada buscar(String chave) {
+        return respostas.getIfPresent(chave);
+    }
+
+    /**
+     * Retorna a geração atual, que deve ser lida antes de consultar o banco e informada em
+     * {@link #guardar(String, long, Entrada)}.
+     *
+     * @return a quantidade de invalidações feitas até agora
+     */
+    public synchronized long geracao() {
+        return geracao;
+    }
+
+    /**
+     * Guarda a resposta, a menos que alguma invalidação tenha ocorrido depois da geração informada:
+     * a consulta pode ter lido o banco antes da alteração que a invalidou.
+     *
+     * @param chave   a chave da requisição
+     * @param geracao a geração lida antes da consulta
+     * @param entrada a resposta a guardar
+     */
+    public synchronized void guardar(String chave, long geracao, Entrada entrada) {
+        if (geracao != this.geracao) {
+            return;
+        }
+
+        respostas.put(chave, entrada);
+        if (respostas.getIfPresent(chave) == entrada) {
+            entrada.topicos().forEach(id -> chavesPorTopico.compute(id, (k, chaves) -> {
+                var atualizadas = chaves != null ? chaves : ConcurrentHashMap.<String>newKeySet();
+                atualizadas.add(chave);
+                return atualizadas;
+            }));
+            if (entrada.listagem()) {
+                chavesDeListagens.add(chave);
+            }
+        }
+    }
+
+    /**
+     * Remove, após o commit, as respostas que contêm o tópico, como depois da edição do tópico
+     * ou da criação, edição ou remoção de uma de suas respostas.
+     *
+     * @param topicoId o ID do tópico alterado
+     */
+    public void invalidarTopico(Long topicoId) {
+        AposOCommit.repetir(() -> invalidar(topicoId, false));
+    }
+
+    /**
+     * Remove, após o commit, as respostas que contêm o tópico e todas as listagens, como depois
+     * da criação ou da remoção do tópico.
+     *
+     * @param topicoId o ID do tópico criado ou removido
+     */
+    public void invalidarTopicoEListagens(Long topicoId) {
+        AposOCommit.repetir(() -> invalidar(topicoId, true));
+    }
+
+    /**
+     * Remove todas as respostas, como depois de uma correção feita diretamente no banco.
+     */
+    public void invalidarTudo() {
+        AposOCommit.repetir(() -> {
+            synchronized (this) {
+                geracao++;
+                respostas.invalidateAll();
+            }
+        });
+    }
+
+    private synchronized void invalidar(Long topicoId, boolean listagens) {
+        geracao++;
+        carregamentoUnico.esquecer(CarregamentoUnico.detalheDoTopico(topicoId));
+        var chaves = new HashSet<>(chavesPorTopico.getOrDefault(topicoId, Set.of()));
+        if (listagens) {
+            chaves.addAll(chavesDeListagens);
+        }
+        respostas.invalidateAll(chaves);
+    }
+
+    // Chamado na thread da remoção, às vezes durante a manutenção interna do cache; por isso não usa o lock de this.
+    // Se a chave já tem outra entrada (substituição), mantém os registros que valem também para ela
+    private void desindexar(String chave, Entrada entrada) {
+        if (entrada == null) {
+            return;
+        }
+        var atual = respostas.policy().getIfPresentQuietly(chave);
+        for (var id : entrada.topicos()) {
+            if (atual == null || !atual.topicos().contains(id)) {
+                chavesPorTopico.computeIfPresent(id, (k, chaves) -> {
+                    chaves.remove(chave);
+                    return chaves.isEmpty() ? null : chaves;
+                });
+            }
+        }
+        if (atual == null || !atual.listagem()) {
+            chavesDeListagens.remove(chave);
+        }
+    }
+}
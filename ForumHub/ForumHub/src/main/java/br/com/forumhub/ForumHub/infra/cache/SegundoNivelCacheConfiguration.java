@@ -0,0 +1,86 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Define as regiões do cache de segundo nível do Hibernate, mantidas em memória pelo Caffeine (via JCache),
+ * cada uma com o seu tamanho máximo e tempo de vida. As regiões são criadas aqui, e uma região usada
+ * pelo mapeamento sem estar definida impede a inicialização.
+ *
+ * Só os cursos, que quase não mudam, ficam neste cache. Os tópicos não: cada resposta e cada mudança de status
+ * são comandos em lote sobre Topico, que removeriam a região inteira, e as leituras dos tópicos já são atendidas
+ * pelo {@link RespostaHttpCache} e pelo {@link CarregamentoUnico}. As métricas de cada região são publicadas
+ * pelo Hibernate como "hibernate.second.level.cache.*", e as do cache de IDs naturais e de consultas,
+ * como "hibernate.cache.*".
+ */
+@Configuration
+public class SegundoNivelCacheConfiguration {
+
+    // Regiões referenciadas pelo mapeamento de Curso e pela busca de cursos pelo nome
+    public static final String CURSOS = "cursos";
+    public static final String CURSOS_POR_NOME = "cursos-por-nome";
+    public static final String CONSULTAS_DE_CURSOS = "cursos-consultas";
+
+    // Regiões padrão do cache de consultas: os resultados sem região própria e os instantes da última alteração de cada tabela
+    private static final String CONSULTAS = "default-query-results-region";
+    private static final String ALTERACOES = "default-update-timestamps-region";
+
+    @Value("${api.cache.segundo-nivel.cursos.tamanho-maximo:1000}")
+    private long tamanhoCursos;
+
+    @Value("${api.cache.segundo-nivel.cursos.duracao:PT1H}")
+    private Duration duracaoCursos;
+
+    @Value("${api.cache.segundo-nivel.consultas.tamanho-maximo:1000}")
+    private long tamanhoConsultas;
+
+    @Value("${api.cache.segundo-nivel.consultas.duracao:PT10M}")
+    private Duration duracaoConsultas;
+
+    /**
+     * Gerenciador das regiões, exclusivo desta aplicação: cada contexto do Spring cria o seu, para que dois
+     * contextos na mesma JVM (como nos testes) não compartilhem as regiões.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager segundoNivelCacheManager() {
+        var provedor = new CaffeineCachingProvider();
+        var cacheManager = provedor.getCacheManager(URI.create("forumhub:segundo-nivel:" + UUID.randomUUID()), provedor.getDefaultClassLoader());
+
+        cacheManager.createCache(CURSOS, regiao(tamanhoCursos, duracaoCursos));
+        cacheManager.createCache(CURSOS_POR_NOME, regiao(tamanhoCursos, duracaoCursos));
+        cacheManager.createCache(CONSULTAS_DE_CURSOS, regiao(tamanhoConsultas, duracaoConsultas));
+        cacheManager.createCache(CONSULTAS, regiao(tamanhoConsultas, duracaoConsultas));
+
+        // Sem limite nem expiração: uma alteração esquecida faria o cache de consultas devolver resultados antigos
+        cacheManager.createCache(ALTERACOES, new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    /**
+     * Entrega ao Hibernate o gerenciador das regiões.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer segundoNivelCache(CacheManager segundoNivelCacheManager) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, segundoNivelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(long tamanhoMaximo, Duration duracao) {
+        var configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        configuracao.setExpireAfterWrite(OptionalLong.of(duracao.toNanos()));
+        configuracao.setStoreByValue(false);
+        return configuracao;
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.forumhub.ForumHub.infra.cache;
+
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
+import br.com.forumhub.ForumHub.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache limitado, com tempo de vida, dos dados de usuários consultados pelo email.
+ * Atende o filtro de segurança, que de outra forma consultaria a tabela de usuários a cada
+ * requisição. As métricas de acertos, faltas e remoções são publicadas com o nome "usuarios".
+ *
+ * Guarda apenas o ID, o nome, o email e o estado, sem o hash da senha: o login, que precisa dele,
+ * consulta o banco, cujo custo é pequeno diante do BCrypt.
+ */
+@Component
+public class UsuarioCache {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Quantidade máxima de usuários mantidos em cache
+    @Value("${api.cache.usuarios.tamanho-maximo:10000}")
+    private long tamanhoMaximo;
+
+    // Tempo de vida de cada entrada; limita por quanto tempo uma alteração feita fora desta instância fica invisível
+    @Value("${api.cache.usuarios.duracao:PT5M}")
+    private Duration duracao;
+
+    private LoadingCache<String, UsuarioAutenticado> usuarios;
+
+    @PostConstruct
+    void inicializar() {
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(duracao)
+                .recordStats()
+                .build(email -> usuarioRepository.findByEmail(email)
+                        .map(UsuarioAutenticado::new)
+                        .orElse(null));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuarios");
+    }
+
+    /**
+     * Busca o usuário pelo email, consultando o banco de dados apenas quando não estiver em cache.
+     *
+     * @param email o email do usuário
+     * @return os dados do usuário, ou vazio se não existir
+     */
+    public Optional<UsuarioAutenticado> buscar(String email) {
+        return Optional.ofNullable(usuarios.get(email));
+    }
+
+    /**
+     * Remove o usuário do cache. Se houver uma transação em andamento, a remoção é repetida
+     * após o commit, para que uma leitura concorrente não recoloque no cache o estado anterior.
+     *
+     * @param email o email do usuário alterado
+     */
+    public void invalidar(String email) {
+        AposOCommit.repetir(() -> usuarios.invalidate(email));
+    }
+
+    /**
+     * Remove o usuário do cache pelo ID, como depois de uma alteração feita em outra instância,
+     * que informa apenas o ID. Percorre as entradas, o que é aceitável para alterações pouco frequentes.
+     *
+     * @param id o ID do usuário alterado
+     */
+    public void invalidarPorId(Long id) {
+        usuarios.asMap().values().removeIf(usuario -> usuario.id().equals(id));
+    }
+
+    /**
+     * Remove todos os usuários do cache.
+     */
+    public void invalidarTudo() {
+        usuarios.invalidateAll();
+    }
+}
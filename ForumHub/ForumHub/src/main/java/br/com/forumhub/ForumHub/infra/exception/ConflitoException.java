@@ -0,0 +1,17 @@
+package br.com.forumhub.ForumHub.infra.exception;
+
+/**
+ * Exceção lançada quando uma operação não pode ser concluída porque o recurso
+ * foi alterado ao mesmo tempo por outra requisição.
+ */
+public class ConflitoException extends RuntimeException {
+
+    /**
+     * Construtor que inicializa a exceção com uma mensagem específica.
+     *
+     * @param message mensagem descritiva do conflito.
+     */
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.forumhub.ForumHub.infra.exception;
+
+import java.time.Duration;
+
+/**
+ * Exceção lançada quando um cliente excede o limite de requisições permitido.
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final Duration aguardar;
+
+    /**
+     * Construtor que inicializa a exceção com uma mensagem e o tempo de espera sugerido.
+     *
+     * @param message mensagem descritiva do erro.
+     * @param aguardar tempo até que uma nova requisição seja permitida.
+     */
+    public LimiteExcedidoException(String message, Duration aguardar) {
+        super(message);
+        this.aguardar = aguardar;
+    }
+
+    /**
+     * @return o tempo de espera em segundos, arredondado para cima, para o cabeçalho Retry-After.
+     */
+    public long getSegundosParaNovaTentativa() {
+        return Math.max(1, (aguardar.toMillis() + 999) / 1000);
+    }
+}
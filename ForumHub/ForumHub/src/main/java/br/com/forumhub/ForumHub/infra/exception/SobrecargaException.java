@@ -0,0 +1,17 @@
+package br.com.forumhub.ForumHub.infra.exception;
+
+/**
+ * Exceção lançada quando um recurso limitado da aplicação está saturado e a operação
+ * é recusada de imediato, em vez de aguardar indefinidamente.
+ */
+public class SobrecargaException extends RuntimeException {
+
+    /**
+     * Construtor que inicializa a exceção com uma mensagem específica.
+     *
+     * @param message mensagem descritiva da sobrecarga.
+     */
+    public SobrecargaException(String message) {
+        super(message);
+    }
+}
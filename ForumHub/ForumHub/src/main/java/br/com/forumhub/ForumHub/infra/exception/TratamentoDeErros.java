@@ -1,12 +1,19 @@
 package br.com.forumhub.ForumHub.infra.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLException;
+
 /**
  * Esta classe centraliza o tratamento de exceções na aplicação.
  * Ela usa a anotação `@RestControllerAdvice`, o que significa que ela
@@ -15,6 +22,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class TratamentoDeErros {
 
+    // SQLState padrão para a violação de uma restrição de unicidade
+    private static final String VIOLACAO_DE_UNICIDADE = "23505";
+
     /**
      * Método que trata exceções do tipo `EntityNotFoundException`.
      * Esse tipo de erro é geralmente lançado quando tentamos acessar
@@ -63,6 +73,74 @@ public class TratamentoDeErros {
                 .body(new DadosValidacaoException(ex));
     }
 
+    /**
+     * Método que trata exceções do tipo `SobrecargaException`.
+     * Essa exceção é lançada quando um recurso limitado (como o pool de cálculo de senhas)
+     * está saturado, e a requisição é recusada de imediato em vez de ocupar uma thread esperando.
+     *
+     * @param ex Exceção contendo a mensagem de erro.
+     * @return Resposta HTTP 503 (Service Unavailable) com o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<?> tratarErro503(SobrecargaException ex) {
+        // Retorna uma resposta 503 sugerindo ao cliente que tente novamente em 1 segundo
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new DadosValidacaoException(ex.getMessage()));
+    }
+
+    /**
+     * Método que trata conflitos de concorrência: a `ConflitoException`, lançada quando uma transição
+     * de status esgota as tentativas, e as falhas de bloqueio otimista, lançadas quando um tópico
+     * é editado a partir de uma versão que já foi alterada por outra requisição.
+     *
+     * @param ex Exceção contendo a mensagem de erro.
+     * @return Resposta HTTP 409 (Conflict) com a mensagem de erro.
+     */
+    @ExceptionHandler({ConflitoException.class, OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<?> tratarErro409(RuntimeException ex) {
+        var mensagem = ex instanceof ConflitoException
+                ? ex.getMessage()
+                : "O recurso foi alterado por outra requisição. Recarregue e tente novamente.";
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new DadosValidacaoException(mensagem));
+    }
+
+    /**
+     * Método que trata violações de restrições do banco. A violação de um índice único, como o do conteúdo
+     * dos tópicos quando duas requisições simultâneas criam o mesmo tópico e ambas passam pelas validações,
+     * é um conflito; as demais (como um valor maior que a coluna) são dados inválidos.
+     *
+     * @param ex Exceção contendo o erro original do banco.
+     * @return Resposta HTTP 409 (Conflict) para registros duplicados, ou 400 (Bad Request) nos demais casos.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> tratarErroDeIntegridade(DataIntegrityViolationException ex) {
+        if (ex.getMostSpecificCause() instanceof SQLException erro && VIOLACAO_DE_UNICIDADE.equals(erro.getSQLState())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new DadosValidacaoException("Já existe um registro com os mesmos dados."));
+        }
+
+        return ResponseEntity.badRequest()
+                .body(new DadosValidacaoException("Os dados informados não são aceitos pelo banco de dados."));
+    }
+
+    /**
+     * Método que trata exceções do tipo `LimiteExcedidoException`.
+     * Essa exceção é lançada quando um cliente excede o limite de requisições permitido,
+     * como várias tentativas de login para o mesmo email em pouco tempo.
+     *
+     * @param ex Exceção contendo a mensagem de erro e o tempo de espera.
+     * @return Resposta HTTP 429 (Too Many Requests) com o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<?> tratarErro429(LimiteExcedidoException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()))
+                .body(new DadosValidacaoException(ex.getMessage()));
+    }
+
     /**
      * Classe interna para encapsular os detalhes de um erro de validação de campo.
      * Ela ajuda a formatar a resposta de erro de maneira compreensível para o cliente.
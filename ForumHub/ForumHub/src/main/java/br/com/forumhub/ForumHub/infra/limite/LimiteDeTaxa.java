@@ -0,0 +1,77 @@
+package br.com.forumhub.ForumHub.infra.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de taxa no modelo de balde de fichas, aplicado separadamente a cada chave (IP, email ou usuário).
+ *
+ * Cada balde é representado por um único {@link AtomicLong} com o "instante teórico de chegada" do
+ * algoritmo GCRA, equivalente ao balde de fichas: o consumo é feito com compare-and-set, sem locks.
+ * Os baldes ficam em um cache limitado, que remove as chaves inativas por mais de um período
+ * (quando o balde já estaria cheio de novo), mantendo a memória sob controle.
+ */
+public class LimiteDeTaxa {
+
+    private final String nome;
+    private final long intervalo;   // nanossegundos para repor uma ficha
+    private final long tolerancia;  // rajada permitida além do ritmo constante, em nanossegundos
+    private final Cache<String, AtomicLong> baldes;
+    private final Counter rejeicoes;
+
+    /**
+     * @param nome          nome do limite, usado nas métricas
+     * @param capacidade    quantidade de requisições permitidas por período (tamanho da rajada)
+     * @param periodo       período em que a capacidade é reposta por completo
+     * @param tamanhoMaximo quantidade máxima de chaves acompanhadas ao mesmo tempo
+     * @param registry      registro de métricas
+     */
+    public LimiteDeTaxa(String nome, int capacidade, Duration periodo, long tamanhoMaximo, MeterRegistry registry) {
+        this.nome = nome;
+        this.intervalo = periodo.toNanos() / capacidade;
+        this.tolerancia = intervalo * (capacidade - 1);
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterAccess(periodo)
+                .build();
+        this.rejeicoes = Counter.builder("limite.rejeicoes")
+                .tag("limite", nome)
+                .description("Requisições recusadas pelo limite de taxa")
+                .register(registry);
+    }
+
+    /**
+     * Tenta consumir uma ficha do balde da chave informada.
+     *
+     * @param chave a chave do balde (IP, email ou ID do usuário)
+     * @return {@link Duration#ZERO} se a requisição foi permitida, ou o tempo até a próxima ficha disponível
+     */
+    public Duration consumir(String chave) {
+        var balde = baldes.get(chave, c -> new AtomicLong(Long.MIN_VALUE));
+        var agora = System.nanoTime();
+
+        while (true) {
+            var chegadaTeorica = balde.get();
+            var base = chegadaTeorica == Long.MIN_VALUE ? agora : Math.max(chegadaTeorica, agora);
+            var excesso = base - agora - tolerancia;
+
+            if (excesso > 0) {
+                rejeicoes.increment();
+                return Duration.ofNanos(excesso);
+            }
+
+            if (balde.compareAndSet(chegadaTeorica, base + intervalo)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
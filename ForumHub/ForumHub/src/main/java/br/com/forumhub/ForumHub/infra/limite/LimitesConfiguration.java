@@ -0,0 +1,49 @@
+package br.com.forumhub.ForumHub.infra.limite;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Define os limites de taxa aplicados ao login e às operações de escrita.
+ */
+@Configuration
+public class LimitesConfiguration {
+
+    // Quantidade máxima de chaves acompanhadas por limite
+    @Value("${api.limite.chaves.tamanho-maximo:100000}")
+    private long tamanhoMaximo;
+
+    /**
+     * Limite de tentativas de login por endereço IP.
+     */
+    @Bean
+    public LimiteDeTaxa limiteLoginPorIp(@Value("${api.limite.login-ip.capacidade:20}") int capacidade,
+                                         @Value("${api.limite.login-ip.periodo:PT1M}") Duration periodo,
+                                         MeterRegistry registry) {
+        return new LimiteDeTaxa("login-ip", capacidade, periodo, tamanhoMaximo, registry);
+    }
+
+    /**
+     * Limite de tentativas de login por email, contra ataques de força bruta distribuídos entre IPs.
+     */
+    @Bean
+    public LimiteDeTaxa limiteLoginPorEmail(@Value("${api.limite.login-email.capacidade:5}") int capacidade,
+                                            @Value("${api.limite.login-email.periodo:PT1M}") Duration periodo,
+                                            MeterRegistry registry) {
+        return new LimiteDeTaxa("login-email", capacidade, periodo, tamanhoMaximo, registry);
+    }
+
+    /**
+     * Limite de operações de escrita (POST, PUT e DELETE) por usuário autenticado, ou por IP no cadastro.
+     */
+    @Bean
+    public LimiteDeTaxa limiteEscrita(@Value("${api.limite.escrita.capacidade:30}") int capacidade,
+                                      @Value("${api.limite.escrita.periodo:PT1M}") Duration periodo,
+                                      MeterRegistry registry) {
+        return new LimiteDeTaxa("escrita", capacidade, periodo, tamanhoMaximo, registry);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.forumhub.ForumHub.infra.paginacao;
+
+import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de um registro em uma listagem ordenada por {@code (dataCriacao, id)}, usada na paginação por chave.
+ * É enviada ao cliente como um texto opaco em Base64, que deve ser devolvido para obter a página seguinte.
+ */
+public record Cursor(
+        LocalDateTime dataCriacao,  // Data de criação do último registro da página
+        Long id                     // ID do último registro, que desempata registros com a mesma data
+) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Codifica o cursor em um texto opaco e seguro para URLs.
+     *
+     * @return o cursor codificado
+     */
+    public String codificar() {
+        var texto = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente.
+     *
+     * @param cursor o cursor codificado, ou {@code null} para a primeira página
+     * @return o cursor decodificado, ou {@code null} se nenhum cursor foi informado
+     * @throws ValidacaoException se o cursor não tiver sido gerado pela API
+     */
+    public static Cursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var posicao = texto.lastIndexOf(SEPARADOR);
+            return new Cursor(LocalDateTime.parse(texto.substring(0, posicao)), Long.valueOf(texto.substring(posicao + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidacaoException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.forumhub.ForumHub.infra.paginacao;
+
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
+import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Monta páginas de listagens ordenadas por {@code (dataCriacao, id)} usando paginação por chave.
+ *
+ * Cada página busca um item a mais do que o tamanho pedido para saber se existe continuação,
+ * dispensando o {@code count}. A página anterior é obtida percorrendo o índice em ordem decrescente
+ * a partir do primeiro item da página atual, de forma que navegar em qualquer direção custa o mesmo
+ * que a primeira página.
+ */
+public final class PaginacaoPorCursor {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private PaginacaoPorCursor() {
+    }
+
+    /**
+     * Busca e monta a página solicitada.
+     *
+     * @param after     cursor a partir do qual avançar, ou null
+     * @param before    cursor a partir do qual voltar, ou null
+     * @param tamanho   quantidade de itens por página
+     * @param primeiros consulta da primeira página, em ordem crescente
+     * @param apos      consulta dos itens posteriores a um cursor, em ordem crescente
+     * @param antes     consulta dos itens anteriores a um cursor, em ordem decrescente
+     * @param posicao   extrai a posição de um item
+     * @param <T>       o tipo dos itens
+     * @return a página, com os cursores da próxima página e da anterior
+     * @throws ValidacaoException se os parâmetros forem inválidos
+     */
+    public static <T> DadosPaginaCursor<T> paginar(String after, String before, int tamanho,
+                                                   Function<Limit, List<T>> primeiros,
+                                                   BiFunction<Cursor, Limit, List<T>> apos,
+                                                   BiFunction<Cursor, Limit, List<T>> antes,
+                                                   Function<T, Cursor> posicao) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new ValidacaoException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        if (after != null && before != null) {
+            throw new ValidacaoException("Informe apenas um dos cursores: after ou before");
+        }
+
+        // Um item a mais indica se há continuação na direção percorrida
+        var limite = Limit.of(tamanho + 1);
+
+        if (before != null) {
+            return voltar(antes.apply(Cursor.decodificar(before), limite), tamanho, posicao);
+        }
+        if (after != null) {
+            return avancar(apos.apply(Cursor.decodificar(after), limite), tamanho, true, posicao);
+        }
+        return avancar(primeiros.apply(limite), tamanho, false, posicao);
+    }
+
+    private static <T> DadosPaginaCursor<T> avancar(List<T> itens, int tamanho, boolean temAnterior,
+                                                    Function<T, Cursor> posicao) {
+        var temProxima = itens.size() > tamanho;
+        var conteudo = temProxima ? itens.subList(0, tamanho) : itens;
+
+        return new DadosPaginaCursor<>(
+                conteudo,
+                temProxima ? codificar(conteudo.get(conteudo.size() - 1), posicao) : null,
+                temAnterior && !conteudo.isEmpty() ? codificar(conteudo.get(0), posicao) : null
+        );
+    }
+
+    private static <T> DadosPaginaCursor<T> voltar(List<T> itensDecrescentes, int tamanho, Function<T, Cursor> posicao) {
+        var temAnterior = itensDecrescentes.size() > tamanho;
+        var conteudo = new ArrayList<>(temAnterior ? itensDecrescentes.subList(0, tamanho) : itensDecrescentes);
+        Collections.reverse(conteudo);
+
+        return new DadosPaginaCursor<>(
+                conteudo,
+                !conteudo.isEmpty() ? codificar(conteudo.get(conteudo.size() - 1), posicao) : null,
+                temAnterior ? codificar(conteudo.get(0), posicao) : null
+        );
+    }
+
+    private static <T> String codificar(T item, Function<T, Cursor> posicao) {
+        return posicao.apply(item).codificar();
+    }
+}
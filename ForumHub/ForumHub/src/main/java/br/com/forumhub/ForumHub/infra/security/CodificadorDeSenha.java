@@ -0,0 +1,164 @@
+package br.com.forumhub.ForumHub.infra.security;
+
+import br.com.forumhub.ForumHub.infra.exception.SobrecargaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Codificador de senhas BCrypt que executa o cálculo dos hashes em um pool de threads dedicado e limitado.
+ *
+ * Sem isso, uma rajada de logins ocupa todas as threads do Tomcat com trabalho de CPU. Aqui, no máximo
+ * {@code threads} hashes são calculados ao mesmo tempo e no máximo {@code capacidadeFila} aguardam na fila;
+ * além disso, a operação é recusada imediatamente com {@link SobrecargaException} (HTTP 503). A thread da
+ * requisição aguarda o resultado por até {@code tempoMaximo}; para que ela não fique parada esse tempo todo
+ * só para receber o 503, a operação também é recusada de imediato quando já há fila e ela, pelo tempo médio
+ * dos hashes já calculados, não seria atendida dentro dele.
+ */
+public class CodificadorDeSenha implements PasswordEncoder, AutoCloseable {
+
+    // Formato do hash BCrypt: $2a$<custo>$<sal e hash>
+    private static final Pattern HASH_BCRYPT = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int custo;
+    private final int threads;
+    private final Duration tempoMaximo;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer esperaNaFila;
+    private final Timer tempoCodificacao;
+    private final Timer tempoComparacao;
+    private final Counter rejeicoes;
+
+    /**
+     * @param custo          fator de custo (log2 das rodadas) usado nos novos hashes
+     * @param threads        quantidade de hashes calculados simultaneamente
+     * @param capacidadeFila quantidade máxima de operações aguardando uma thread livre
+     * @param tempoMaximo    tempo máximo que a requisição aguarda pelo resultado
+     * @param registry       registro onde as métricas são publicadas
+     */
+    public CodificadorDeSenha(int custo, int threads, int capacidadeFila, Duration tempoMaximo, MeterRegistry registry) {
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+        this.custo = custo;
+        this.threads = threads;
+        this.tempoMaximo = tempoMaximo;
+
+        var contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    var thread = new Thread(tarefa, "senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.esperaNaFila = Timer.builder("senha.fila.espera")
+                .description("Tempo que a operação de senha aguardou na fila")
+                .register(registry);
+        this.tempoCodificacao = Timer.builder("senha.hash")
+                .tag("operacao", "codificar")
+                .description("Tempo de cálculo do hash BCrypt")
+                .register(registry);
+        this.tempoComparacao = Timer.builder("senha.hash")
+                .tag("operacao", "comparar")
+                .description("Tempo de cálculo do hash BCrypt")
+                .register(registry);
+        this.rejeicoes = Counter.builder("senha.rejeicoes")
+                .description("Operações de senha recusadas por falta de capacidade")
+                .register(registry);
+        Gauge.builder("senha.fila.tamanho", executor, e -> e.getQueue().size())
+                .description("Operações de senha aguardando na fila")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(tempoCodificacao, () -> bcrypt.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        return executar(tempoComparacao, () -> bcrypt.matches(senha, hash));
+    }
+
+    /**
+     * Indica que o hash deve ser recalculado quando foi gerado com um custo diferente do configurado,
+     * permitindo ajustar o custo sem exigir a troca de senha de todos os usuários.
+     * O recálculo é feito no próximo login bem-sucedido.
+     */
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        if (hash == null) {
+            return false;
+        }
+
+        var matcher = HASH_BCRYPT.matcher(hash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != custo;
+    }
+
+    private <T> T executar(Timer timer, Supplier<T> operacao) {
+        if (esperaEstimada(timer) > tempoMaximo.toNanos()) {
+            rejeicoes.increment();
+            throw new SobrecargaException("Servidor ocupado, tente novamente em instantes");
+        }
+
+        var enfileiradoEm = System.nanoTime();
+        Future<T> futuro;
+
+        try {
+            futuro = executor.submit(() -> {
+                esperaNaFila.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return timer.record(operacao);
+            });
+        } catch (RejectedExecutionException e) {
+            rejeicoes.increment();
+            throw new SobrecargaException("Servidor ocupado, tente novamente em instantes");
+        }
+
+        try {
+            return futuro.get(tempoMaximo.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rejeicoes.increment();
+            throw new SobrecargaException("Servidor ocupado, tente novamente em instantes");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Erro ao processar senha", e.getCause());
+        }
+    }
+
+    // Tempo até a operação terminar, se entrasse agora na fila: as rodadas da fila à frente dela e o seu próprio hash.
+    // Sem fila, a operação começa assim que uma thread fica livre e não é recusada pela estimativa
+    private long esperaEstimada(Timer timer) {
+        var naFila = executor.getQueue().size();
+        if (naFila == 0) {
+            return 0;
+        }
+        return (long) ((naFila / threads + 1) * timer.mean(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Encerra o pool de threads quando o contexto da aplicação é finalizado.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
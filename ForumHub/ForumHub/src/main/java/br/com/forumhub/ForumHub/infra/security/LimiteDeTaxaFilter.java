@@ -0,0 +1,100 @@
+package br.com.forumhub.ForumHub.infra.security;
+
+import br.com.forumhub.ForumHub.infra.limite.LimiteDeTaxa;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Filtro que aplica os limites de taxa, executado logo após o {@link SecurityFilter}.
+ * Limita as tentativas de login por IP e as operações de escrita em tópicos, respostas e
+ * usuários por usuário autenticado (ou por IP, quando não há usuário, como no cadastro).
+ * Requisições acima do limite são recusadas com 429 antes de chegar aos controllers.
+ *
+ * O IP é o do cliente: atrás de um proxy reverso, o Tomcat já o substituiu pelo informado no
+ * X-Forwarded-For (ver {@code server.forward-headers-strategy}), para que os clientes não dividam
+ * o balde do proxy.
+ */
+@Component
+public class LimiteDeTaxaFilter extends OncePerRequestFilter {
+
+    @Autowired
+    @Qualifier("limiteLoginPorIp")
+    private LimiteDeTaxa limiteLoginPorIp;
+
+    @Autowired
+    @Qualifier("limiteEscrita")
+    private LimiteDeTaxa limiteEscrita;
+
+    /**
+     * Consome uma ficha do limite aplicável à requisição, se houver, e recusa a requisição
+     * quando o balde estiver vazio.
+     *
+     * @param request     a requisição HTTP.
+     * @param response    a resposta HTTP.
+     * @param filterChain a cadeia de filtros que será continuada após este filtro.
+     * @throws ServletException em caso de erro de processamento da requisição.
+     * @throws IOException      em caso de erro de entrada/saída.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var aguardar = consumir(request);
+
+        if (!aguardar.isZero()) {
+            recusar(response, aguardar);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Duration consumir(HttpServletRequest request) {
+        var caminho = request.getRequestURI().substring(request.getContextPath().length());
+        var metodo = request.getMethod();
+
+        if (caminho.equals("/login") && metodo.equals("POST")) {
+            return limiteLoginPorIp.consumir(request.getRemoteAddr());
+        }
+
+        if (ehEscrita(metodo) && ehRecursoLimitado(caminho)) {
+            var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+            if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+                return limiteEscrita.consumir("usuario:" + usuario.id());
+            }
+            return limiteEscrita.consumir("ip:" + request.getRemoteAddr());
+        }
+
+        return Duration.ZERO;
+    }
+
+    private static boolean ehEscrita(String metodo) {
+        return metodo.equals("POST") || metodo.equals("PUT") || metodo.equals("DELETE");
+    }
+
+    private static boolean ehRecursoLimitado(String caminho) {
+        return caminho.startsWith("/topicos") || caminho.startsWith("/respostas") || caminho.startsWith("/usuarios");
+    }
+
+    private static void recusar(HttpServletResponse response, Duration aguardar) throws IOException {
+        var segundos = Math.max(1, (aguardar.toMillis() + 999) / 1000);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"mensagem\":\"Limite de requisições excedido. Tente novamente em " + segundos + " segundo(s).\"}");
+    }
+}
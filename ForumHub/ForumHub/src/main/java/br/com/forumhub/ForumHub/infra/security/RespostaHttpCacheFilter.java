@@ -0,0 +1,229 @@
+package br.com.forumhub.ForumHub.infra.security;
+
+import br.com.forumhub.ForumHub.infra.cache.RespostaHttpCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Filtro que atende as leituras anônimas de tópicos pelo {@link RespostaHttpCache}, sem passar pelos
+ * controllers nem pelo banco: a listagem paginada ({@code /topicos}), a listagem por cursor
+ * ({@code /topicos/cursor}), os detalhes de um tópico ({@code /topicos/{id}}) e as suas respostas
+ * ({@code /topicos/{id}/respostas}). A chave é o caminho com os parâmetros em ordem alfabética.
+ *
+ * Só passam pelo cache as requisições com os parâmetros que o endpoint lê, cada um com um único valor,
+ * para que parâmetros inventados não criem entradas novas a cada requisição; listagens vazias também não
+ * são guardadas. A listagem paginada só é guardada quando ordenada por colunas que não mudam depois da
+ * criação do tópico (a padrão, pela data de criação, ou pelo ID): nas demais ordenações, uma resposta ou
+ * uma mudança de status levaria o tópico a uma página guardada que não o contém e não seria removida.
+ *
+ * Requisições com o cabeçalho Authorization não usam o cache. Quando o cliente aceita gzip, o corpo
+ * é enviado já comprimido. O Cache-Control, o ETag e o Last-Modified da resposta original são guardados
+ * com ela, e as requisições condicionais que correspondem a eles recebem 304.
+ */
+@Component
+public class RespostaHttpCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CAMINHO_CACHEAVEL = Pattern.compile("/topicos(/cursor|/(\\d+)(/respostas)?)?");
+
+    // Parâmetros lidos pela listagem paginada e pelas páginas por cursor; os detalhes não leem nenhum
+    private static final Set<String> PARAMETROS_DA_LISTAGEM = Set.of("page", "size", "sort", "total");
+    private static final Set<String> PARAMETROS_DO_CURSOR = Set.of("after", "before", "tamanho");
+
+    // Propriedades de ordenação que não mudam depois da criação do tópico
+    private static final Set<String> ORDENACOES_ESTAVEIS = Set.of("id", "dataCriacao");
+
+    @Autowired
+    private RespostaHttpCache cache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!request.getMethod().equals("GET") || request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            return true;
+        }
+        var caminho = CAMINHO_CACHEAVEL.matcher(caminho(request));
+        return !caminho.matches() || !parametrosCacheaveis(request, caminho);
+    }
+
+    private static boolean parametrosCacheaveis(HttpServletRequest request, Matcher caminho) {
+        Set<String> permitidos;
+        if (caminho.group(1) == null) {
+            permitidos = PARAMETROS_DA_LISTAGEM;
+        } else if (caminho.group(2) != null && caminho.group(3) == null) {
+            permitidos = Set.of();
+        } else {
+            permitidos = PARAMETROS_DO_CURSOR;
+        }
+
+        for (var parametro : request.getParameterMap().entrySet()) {
+            if (!permitidos.contains(parametro.getKey()) || parametro.getValue().length != 1) {
+                return false;
+            }
+        }
+        var ordenacao = request.getParameter("sort");
+        return ordenacao == null || ordenacaoEstavel(ordenacao);
+    }
+
+    // Formato do Spring Data: "propriedade,direcao" ou "propriedade1,propriedade2,direcao"
+    private static boolean ordenacaoEstavel(String ordenacao) {
+        for (var parte : ordenacao.split(",")) {
+            var termo = parte.strip();
+            if (!termo.equalsIgnoreCase("asc") && !termo.equalsIgnoreCase("desc") && !ORDENACOES_ESTAVEIS.contains(termo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Envia a resposta guardada ou, se não houver, executa a requisição e guarda a resposta
+     * quando ela for um JSON com status 200.
+     *
+     * @param request     a requisição HTTP.
+     * @param response    a resposta HTTP.
+     * @param filterChain a cadeia de filtros que será continuada após este filtro.
+     * @throws ServletException em caso de erro de processamento da requisição.
+     * @throws IOException      em caso de erro de entrada/saída.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var chave = chave(request);
+        var entrada = cache.buscar(chave);
+        if (entrada != null) {
+            if (!naoModificada(request, response, entrada)) {
+                enviar(request, response, entrada);
+            }
+            return;
+        }
+
+        var geracao = cache.geracao();
+        var conteudo = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, conteudo);
+
+        var tipo = conteudo.getContentType();
+        if (conteudo.getStatus() != HttpStatus.OK.value() || tipo == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(tipo))) {
+            conteudo.copyBodyToResponse();
+            return;
+        }
+
+        entrada = criarEntrada(caminho(request), conteudo, tipo);
+        // Páginas vazias, como as além da última, não são guardadas
+        if (!entrada.listagem() || !entrada.topicos().isEmpty()) {
+            cache.guardar(chave, geracao, entrada);
+        }
+        conteudo.resetBuffer();
+        enviar(request, response, entrada);
+    }
+
+    private RespostaHttpCache.Entrada criarEntrada(String caminho, ContentCachingResponseWrapper conteudo, String tipo) throws IOException {
+        var json = conteudo.getContentAsByteArray();
+        var caminhoDoTopico = CAMINHO_CACHEAVEL.matcher(caminho);
+        caminhoDoTopico.matches();
+
+        // Os detalhes e as respostas pertencem ao tópico do caminho; as listagens, aos tópicos da página
+        Set<Long> topicos;
+        var listagem = caminhoDoTopico.group(2) == null;
+        if (listagem) {
+            topicos = idsDaPagina(objectMapper.readTree(json));
+        } else {
+            topicos = Set.of(Long.valueOf(caminhoDoTopico.group(2)));
+        }
+
+        var gzip = comprimir(json);
+        var validadores = new HttpHeaders();
+        var ultimaModificacao = conteudo.getHeader(HttpHeaders.LAST_MODIFIED);
+        if (ultimaModificacao != null) {
+            validadores.set(HttpHeaders.LAST_MODIFIED, ultimaModificacao);
+        }
+        return new RespostaHttpCache.Entrada(tipo, conteudo.getHeader(HttpHeaders.CACHE_CONTROL), conteudo.getHeader(HttpHeaders.ETAG),
+                validadores.getLastModified(), json, gzip.length < json.length ? gzip : null, topicos, listagem);
+    }
+
+    // As páginas (Page, Slice) têm os itens em "content"; as páginas por cursor, em "conteudo"
+    private static Set<Long> idsDaPagina(JsonNode pagina) {
+        var ids = new HashSet<Long>();
+        for (var campo : new String[]{"content", "conteudo"}) {
+            for (var item : pagina.path(campo)) {
+                if (item.hasNonNull("id")) {
+                    ids.add(item.get("id").asLong());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] comprimir(byte[] json) throws IOException {
+        var saida = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (var gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        }
+        return saida.toByteArray();
+    }
+
+    // Avalia If-None-Match e If-Modified-Since; a resposta recebe os validadores guardados, com status 304 se corresponderem
+    private static boolean naoModificada(HttpServletRequest request, HttpServletResponse response, RespostaHttpCache.Entrada entrada) {
+        if (entrada.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, entrada.cacheControl());
+        }
+        if (entrada.etag() == null && entrada.ultimaModificacao() < 0) {
+            return false;
+        }
+        return new ServletWebRequest(request, response).checkNotModified(entrada.etag(), entrada.ultimaModificacao());
+    }
+
+    private static void enviar(HttpServletRequest request, HttpServletResponse response, RespostaHttpCache.Entrada entrada) throws IOException {
+        var corpo = entrada.json();
+        var aceitaGzip = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (entrada.gzip() != null && aceitaGzip != null && aceitaGzip.contains("gzip")) {
+            corpo = entrada.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(entrada.tipo());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static String chave(HttpServletRequest request) {
+        var parametros = new TreeMap<String, String[]>(request.getParameterMap());
+        var chave = new StringBuilder(caminho(request));
+        var separador = '?';
+        for (Map.Entry<String, String[]> parametro : parametros.entrySet()) {
+            chave.append(separador).append(parametro.getKey()).append('=').append(Arrays.toString(parametro.getValue()));
+            separador = '&';
+        }
+        return chave.toString();
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
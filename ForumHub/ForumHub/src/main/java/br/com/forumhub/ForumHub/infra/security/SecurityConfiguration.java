@@ -1,6 +1,8 @@
 package br.com.forumhub.ForumHub.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,12 +10,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityConfiguration {
 
@@ -21,6 +24,14 @@ public class SecurityConfiguration {
     @Autowired
     private SecurityFilter securityFilter;
 
+    // Filtro de limite de taxa, executado logo após a autenticação do token.
+    @Autowired
+    private LimiteDeTaxaFilter limiteDeTaxaFilter;
+
+    // Cache das leituras anônimas de tópicos, executado depois dos limites de taxa.
+    @Autowired
+    private RespostaHttpCacheFilter respostaHttpCacheFilter;
+
     /**
      * Configura a cadeia de filtros de segurança (SecurityFilterChain).
      *
@@ -39,7 +50,8 @@ public class SecurityConfiguration {
 
                 // Configura permissões de acesso para diferentes endpoints.
                 .authorizeHttpRequests(req -> {
-                    req.requestMatchers(HttpMethod.GET, "/topicos", "/topicos/*").permitAll(); // Permite GET em /topicos.
+                    req.requestMatchers(HttpMethod.GET, "/topicos", "/topicos/*", "/topicos/*/respostas").permitAll(); // Permite GET em /topicos e nas respostas de um tópico.
+                    req.requestMatchers(HttpMethod.GET, "/cursos/sugestoes").permitAll(); // Permite o autocompletar de cursos.
                     req.requestMatchers("/login").permitAll(); // Permite acesso ao login.
                     req.requestMatchers(HttpMethod.POST, "/usuarios").permitAll(); // Permite cadastro de usuários.
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll(); // Permite acesso à documentação da API.
@@ -48,6 +60,12 @@ public class SecurityConfiguration {
 
                 // Adiciona o filtro de segurança personalizado antes do filtro padrão de autenticação.
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Adiciona o filtro de limite de taxa depois do filtro de segurança, quando o usuário já é conhecido.
+                .addFilterAfter(limiteDeTaxaFilter, SecurityFilter.class)
+
+                // Adiciona o cache das leituras anônimas, que responde sem chegar aos controllers quando já tem a resposta.
+                .addFilterAfter(respostaHttpCacheFilter, LimiteDeTaxaFilter.class)
                 .build();
     }
 
@@ -64,12 +82,22 @@ public class SecurityConfiguration {
     }
 
     /**
-     * Define e retorna um codificador de senhas baseado no algoritmo BCrypt.
+     * Define e retorna um codificador de senhas baseado no algoritmo BCrypt, executado em um
+     * pool de threads dedicado e limitado para não ocupar as threads das requisições.
      *
+     * @param custo fator de custo do BCrypt usado nos novos hashes.
+     * @param threads quantidade de hashes calculados simultaneamente.
+     * @param capacidadeFila quantidade máxima de operações aguardando na fila.
+     * @param tempoMaximo tempo máximo de espera pelo resultado.
+     * @param registry registro de métricas.
      * @return instância de `PasswordEncoder` utilizando BCrypt.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${api.security.senha.custo:10}") int custo,
+                                           @Value("${api.security.senha.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                                           @Value("${api.security.senha.fila:64}") int capacidadeFila,
+                                           @Value("${api.security.senha.tempo-maximo:PT5S}") Duration tempoMaximo,
+                                           MeterRegistry registry) {
+        return new CodificadorDeSenha(custo, threads, capacidadeFila, tempoMaximo, registry);
     }
 }
\ No newline at end of file
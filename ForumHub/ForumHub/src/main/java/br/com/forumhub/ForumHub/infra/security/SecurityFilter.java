@@ -1,7 +1,7 @@
 package br.com.forumhub.ForumHub.infra.security;
 
 
-import br.com.forumhub.ForumHub.repository.UsuarioRepository;
+import br.com.forumhub.ForumHub.infra.cache.UsuarioCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
 //import org.springframework.security.core.token.TokenService;
 import br.com.forumhub.ForumHub.service.TokenService;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,15 +20,16 @@ import java.io.IOException;
  * Filtro de segurança que é executado uma vez por requisição.
  * Realiza a validação do token JWT e autentica o usuário no contexto de segurança.
  */
+@Component
 public class SecurityFilter extends OncePerRequestFilter {
 
     // Serviço para gerenciamento de tokens JWT.
     @Autowired
     private TokenService tokenService;
 
-    // Repositório para buscar informações do usuário no banco de dados.
+    // Cache com o estado atual dos usuários, invalidado a cada alteração ou desativação.
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private UsuarioCache usuarioCache;
 
     /**
      * Método principal do filtro, executado para cada requisição.
@@ -44,13 +46,10 @@ public class SecurityFilter extends OncePerRequestFilter {
         var tokenJWT = recuperarToken(request);
 
         if (tokenJWT != null) {
-            var subject = tokenService.getSujeito(tokenJWT);
-            var usuarioOptional = usuarioRepository.findByEmail(subject);
+            var usuario = recuperarUsuario(tokenJWT);
 
-            if (usuarioOptional.isPresent()) {
-                var usuario = usuarioOptional.get();
-
-                // Cria a autenticação com o usuário recuperado e suas autoridades
+            if (usuario != null) {
+                // Cria a autenticação com o principal leve montado a partir do token
                 var autenticacao = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(autenticacao);
             }
@@ -59,6 +58,33 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Monta o usuário autenticado a partir das claims do token.
+     * O estado do usuário é conferido no cache de usuários, para que uma desativação tenha efeito
+     * imediato mesmo sobre tokens já emitidos. Tokens emitidos no formato antigo, que carregam
+     * apenas o email, usam os dados do cache para montar o principal.
+     *
+     * @param tokenJWT o token JWT da requisição.
+     * @return o usuário autenticado, ou {@code null} se o token for inválido ou o usuário estiver inativo.
+     */
+    private UsuarioAutenticado recuperarUsuario(String tokenJWT) {
+        // Tokens inválidos ou expirados resultam em sujeito nulo e a requisição segue sem autenticação
+        var subject = tokenService.getSujeito(tokenJWT);
+        if (subject == null) {
+            return null;
+        }
+
+        var atual = usuarioCache.buscar(subject)
+                .filter(UsuarioAutenticado::ativo)
+                .orElse(null);
+        if (atual == null) {
+            return null;
+        }
+
+        var usuario = tokenService.getUsuarioAutenticado(tokenJWT);
+        return usuario != null ? usuario : atual;
+    }
+
     /**
      * Recupera o token JWT do cabeçalho "Authorization" da requisição.
      *
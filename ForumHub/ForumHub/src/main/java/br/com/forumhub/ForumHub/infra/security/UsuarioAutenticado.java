@@ -0,0 +1,41 @@
+package br.com.forumhub.ForumHub.infra.security;
+
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Representação leve e imutável do usuário autenticado, montada a partir das claims do token JWT.
+ * É o principal instalado no contexto de segurança, evitando carregar a entidade {@link Usuario}
+ * (com senha e coleções preguiçosas) a cada requisição.
+ */
+public record UsuarioAutenticado(
+        Long id,        // ID do usuário
+        String email,   // Email do usuário (sujeito do token)
+        String nome,    // Nome de exibição do usuário
+        boolean ativo   // Estado do usuário no momento da emissão do token
+) implements AuthenticatedPrincipal {
+
+    private static final List<GrantedAuthority> AUTORIDADES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    /**
+     * Construtor auxiliar que converte a entidade {@link Usuario} em um principal leve.
+     *
+     * @param usuario a entidade a ser convertida
+     */
+    public UsuarioAutenticado(Usuario usuario) {
+        this(usuario.getId(), usuario.getEmail(), usuario.getNome(), Boolean.TRUE.equals(usuario.getAtivo()));
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return AUTORIDADES;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.forumhub.ForumHub.infra.security;
+
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Retrato imutável dos dados de um usuário necessários para autenticação, usado como o UserDetails do login.
+ * É lido do banco por {@code AutenticacaoService.loadUserByUsername} a cada login e não é guardado
+ * em cache, desacoplado da entidade {@link Usuario} e de suas coleções preguiçosas.
+ */
+public record UsuarioCredenciais(
+        Long id,        // ID do usuário
+        String nome,    // Nome do usuário
+        String email,   // Email do usuário
+        String senha,   // Senha criptografada
+        boolean ativo   // Indica se o usuário está ativo
+) implements UserDetails {
+
+    /**
+     * Construtor auxiliar que cria o retrato a partir da entidade {@link Usuario}.
+     *
+     * @param usuario a entidade a ser convertida
+     */
+    public UsuarioCredenciais(Usuario usuario) {
+        this(usuario.getId(), usuario.getNome(), usuario.getEmail(), usuario.getSenha(), Boolean.TRUE.equals(usuario.getAtivo()));
+    }
+
+    /**
+     * Converte o retrato no principal leve usado nas requisições autenticadas.
+     *
+     * @return o usuário autenticado correspondente
+     */
+    public UsuarioAutenticado autenticado() {
+        return new UsuarioAutenticado(id, email, nome, ativo);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return autenticado().getAuthorities();
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    // Usuários desativados não conseguem mais efetuar login
+    @Override
+    public boolean isEnabled() {
+        return ativo;
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.forumhub.ForumHub.infra.similaridade;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Assinatura SimHash de 64 bits do conteúdo de um tópico.
+ *
+ * O texto é dividido em palavras (ignorando caixa, acentuação composta, pontuação e espaçamento) e cada
+ * palavra contribui, proporcionalmente à sua frequência, para cada bit da assinatura. Textos com poucas
+ * palavras diferentes produzem assinaturas que diferem em poucos bits, de modo que a semelhança entre dois
+ * tópicos pode ser estimada pela distância de Hamming entre as assinaturas.
+ */
+public final class AssinaturaSimHash {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private AssinaturaSimHash() {
+    }
+
+    /**
+     * Calcula a assinatura do título e da mensagem de um tópico.
+     *
+     * @param titulo   o título do tópico
+     * @param mensagem a mensagem do tópico
+     * @return a assinatura de 64 bits
+     */
+    public static long calcular(String titulo, String mensagem) {
+        var frequencias = new HashMap<String, Integer>();
+        contarPalavras(titulo, frequencias);
+        contarPalavras(mensagem, frequencias);
+
+        var pesos = new int[64];
+        frequencias.forEach((palavra, frequencia) -> {
+            var hash = hash64(palavra);
+            for (int bit = 0; bit < 64; bit++) {
+                pesos[bit] += ((hash >>> bit) & 1) == 1 ? frequencia : -frequencia;
+            }
+        });
+
+        long assinatura = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (pesos[bit] > 0) {
+                assinatura |= 1L << bit;
+            }
+        }
+        return assinatura;
+    }
+
+    /**
+     * @return a quantidade de bits diferentes entre as duas assinaturas
+     */
+    public static int distancia(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void contarPalavras(String texto, HashMap<String, Integer> frequencias) {
+        if (texto == null) {
+            return;
+        }
+
+        var normalizado = Normalizer.normalize(texto, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        for (var palavra : SEPARADORES.split(normalizado)) {
+            if (!palavra.isEmpty()) {
+                frequencias.merge(palavra, 1, Integer::sum);
+            }
+        }
+    }
+
+    // FNV-1a de 64 bits seguido da finalização do SplitMix64, para espalhar bem os bits de palavras parecidas
+    private static long hash64(String palavra) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : palavra.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,295 @@
+package br.com.forumhub.ForumHub.infra.similaridade;
+
+import br.com.forumhub.ForumHub.infra.cache.AposOCommit;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória das assinaturas SimHash de todos os tópicos, usado para encontrar tópicos quase duplicados.
+ *
+ * A assinatura de 64 bits é dividida em {@code distanciaMaxima + 1} faixas e cada tópico é registrado uma vez
+ * por faixa, no balde correspondente ao valor dos bits daquela faixa. Se duas assinaturas diferem em no máximo
+ * {@code distanciaMaxima} bits, ao menos uma faixa é idêntica nas duas; por isso a busca compara a assinatura
+ * procurada apenas com os tópicos dos baldes em que ela cairia, e não com todos os tópicos.
+ *
+ * Cada balde guarda pares (ID, assinatura) em um {@code long[]} substituído a cada alteração, de modo que
+ * as buscas leem sem bloqueio. O índice é carregado do banco quando a aplicação fica pronta, e recarregado
+ * quando o {@code OuvinteDeInvalidacao} pode ter perdido alterações de outras instâncias; entre as cargas, é
+ * mantido pelas criações, edições e remoções confirmadas nesta instância e recebidas das demais. Tópicos
+ * removidos por outros meios continuam no índice até serem descartados por quem os encontrar.
+ */
+@Component
+public class IndiceDeSimilaridade {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDeSimilaridade.class);
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Quantidade máxima de bits diferentes para que dois tópicos sejam considerados semelhantes
+    @Value("${api.topicos.similaridade.distancia-maxima:4}")
+    private int distanciaMaxima;
+
+    // Quantidade de tópicos lidos do banco por consulta durante a carga inicial
+    @Value("${api.topicos.similaridade.lote:5000}")
+    private int tamanhoDoLote;
+
+    private int[] inicioDasFaixas;
+    private int[] bitsDasFaixas;
+
+    // Baldes de cada faixa e a quantidade de tópicos registrados neles
+    private record Baldes(ConcurrentHashMap<Integer, long[]>[] faixas, AtomicLong tamanho) {
+    }
+
+    private volatile Baldes baldes;
+
+    // Baldes montados pela carga em andamento, ou null fora dela; protegido por this
+    private Baldes emCarga;
+
+    private final Object carga = new Object();
+
+    @PostConstruct
+    void inicializar() {
+        if (distanciaMaxima < 0 || distanciaMaxima > 15) {
+            throw new IllegalStateException("api.topicos.similaridade.distancia-maxima deve estar entre 0 e 15");
+        }
+
+        var quantidade = distanciaMaxima + 1;
+        inicioDasFaixas = new int[quantidade];
+        bitsDasFaixas = new int[quantidade];
+
+        // Distribui os 64 bits entre as faixas; as primeiras recebem um bit a mais quando a divisão não é exata
+        var inicio = 0;
+        for (int i = 0; i < quantidade; i++) {
+            bitsDasFaixas[i] = 64 / quantidade + (i < 64 % quantidade ? 1 : 0);
+            inicioDasFaixas[i] = inicio;
+            inicio += bitsDasFaixas[i];
+        }
+        baldes = novosBaldes();
+
+        Gauge.builder("topicos.similaridade.indice", this, indice -> indice.baldes.tamanho().get())
+                .description("Tópicos registrados no índice de similaridade")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Baldes novosBaldes() {
+        var faixas = new ConcurrentHashMap[inicioDasFaixas.length];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new ConcurrentHashMap<Integer, long[]>();
+        }
+        return new Baldes(faixas, new AtomicLong());
+    }
+
+    /**
+     * Carrega as assinaturas de todos os tópicos, percorrendo-os em lotes pelo ID, e as publica no lugar
+     * das atuais. As buscas feitas durante a carga usam as assinaturas anteriores, e as alterações
+     * confirmadas durante ela são aplicadas nas duas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        synchronized (carga) {
+            var inicio = System.nanoTime();
+            var novos = novosBaldes();
+            synchronized (this) {
+                emCarga = novos;
+            }
+
+            try {
+                long ultimoId = 0;
+                while (true) {
+                    var lote = topicoRepository.listarConteudo(ultimoId, Limit.of(tamanhoDoLote));
+                    if (lote.isEmpty()) {
+                        break;
+                    }
+
+                    for (var topico : lote) {
+                        adicionar(novos, topico.id(), AssinaturaSimHash.calcular(topico.titulo(), topico.mensagem()));
+                    }
+                    ultimoId = lote.get(lote.size() - 1).id();
+                }
+
+                synchronized (this) {
+                    baldes = novos;
+                }
+                logger.info("Índice de similaridade carregado com {} tópico(s) em {} ms",
+                        novos.tamanho().get(), (System.nanoTime() - inicio) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    emCarga = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tópico encontrado pela busca por semelhança.
+     *
+     * @param id         o ID do tópico
+     * @param assinatura a assinatura registrada para o tópico
+     * @param distancia  a quantidade de bits diferentes da assinatura procurada
+     */
+    public record Semelhante(long id, long assinatura, int distancia) {
+    }
+
+    /**
+     * Busca um tópico cuja assinatura difira da informada em no máximo {@code distanciaMaxima} bits.
+     *
+     * @param assinatura a assinatura procurada
+     * @return o tópico mais semelhante, se houver algum dentro da distância máxima
+     */
+    public Optional<Semelhante> buscarSemelhante(long assinatura) {
+        long melhorId = 0;
+        long melhorAssinatura = 0;
+        int melhorDistancia = Integer.MAX_VALUE;
+
+        var faixas = baldes.faixas();
+        for (int i = 0; i < faixas.length; i++) {
+            var balde = faixas[i].get(valorDaFaixa(assinatura, i));
+            if (balde == null) {
+                continue;
+            }
+
+            for (int j = 0; j < balde.length; j += 2) {
+                var distancia = AssinaturaSimHash.distancia(assinatura, balde[j + 1]);
+                if (distancia < melhorDistancia) {
+                    melhorDistancia = distancia;
+                    melhorId = balde[j];
+                    melhorAssinatura = balde[j + 1];
+                }
+            }
+        }
+
+        return melhorDistancia <= distanciaMaxima
+                ? Optional.of(new Semelhante(melhorId, melhorAssinatura, melhorDistancia))
+                : Optional.empty();
+    }
+
+    /**
+     * Registra a assinatura de um tópico. Se houver uma transação em andamento, o registro
+     * só é feito após o commit, para que um rollback não deixe no índice um tópico inexistente.
+     *
+     * @param id         o ID do tópico
+     * @param assinatura a assinatura do conteúdo do tópico
+     */
+    public void incluir(Long id, long assinatura) {
+        aposCommit(alvo -> adicionar(alvo, id, assinatura));
+    }
+
+    /**
+     * Remove a assinatura de um tópico, após o commit se houver uma transação em andamento.
+     *
+     * @param id         o ID do tópico
+     * @param assinatura a assinatura registrada para o tópico
+     */
+    public void excluir(Long id, long assinatura) {
+        aposCommit(alvo -> remover(alvo, id, assinatura));
+    }
+
+    /**
+     * Substitui a assinatura de um tópico editado, após o commit se houver uma transação em andamento.
+     *
+     * @param id       o ID do tópico
+     * @param anterior a assinatura registrada para o tópico
+     * @param nova     a assinatura do novo conteúdo
+     */
+    public void substituir(Long id, long anterior, long nova) {
+        if (anterior != nova) {
+            aposCommit(alvo -> {
+                remover(alvo, id, anterior);
+                adicionar(alvo, id, nova);
+            });
+        }
+    }
+
+    // Aplica a alteração nos baldes publicados e nos da carga em andamento, que não podem ser trocados no meio dela
+    private void aposCommit(Consumer<Baldes> alteracao) {
+        AposOCommit.executar(() -> {
+            synchronized (this) {
+                alteracao.accept(baldes);
+                if (emCarga != null) {
+                    alteracao.accept(emCarga);
+                }
+            }
+        });
+    }
+
+    private void adicionar(Baldes alvo, long id, long assinatura) {
+        var faixas = alvo.faixas();
+        for (int i = 0; i < faixas.length; i++) {
+            var faixa = i;
+            faixas[i].compute(valorDaFaixa(assinatura, i), (chave, balde) -> {
+                if (balde == null) {
+                    contarSeForAPrimeiraFaixa(alvo, faixa, 1);
+                    return new long[]{id, assinatura};
+                }
+
+                // Um tópico criado durante uma carga pode ser registrado duas vezes
+                for (int j = 0; j < balde.length; j += 2) {
+                    if (balde[j] == id) {
+                        return balde;
+                    }
+                }
+
+                contarSeForAPrimeiraFaixa(alvo, faixa, 1);
+                var novo = Arrays.copyOf(balde, balde.length + 2);
+                novo[balde.length] = id;
+                novo[balde.length + 1] = assinatura;
+                return novo;
+            });
+        }
+    }
+
+    private void remover(Baldes alvo, long id, long assinatura) {
+        var faixas = alvo.faixas();
+        for (int i = 0; i < faixas.length; i++) {
+            var faixa = i;
+            faixas[i].computeIfPresent(valorDaFaixa(assinatura, i), (chave, balde) -> {
+                for (int j = 0; j < balde.length; j += 2) {
+                    if (balde[j] == id) {
+                        contarSeForAPrimeiraFaixa(alvo, faixa, -1);
+                        if (balde.length == 2) {
+                            return null;
+                        }
+
+                        var novo = new long[balde.length - 2];
+                        System.arraycopy(balde, 0, novo, 0, j);
+                        System.arraycopy(balde, j + 2, novo, j, balde.length - j - 2);
+                        return novo;
+                    }
+                }
+                return balde;
+            });
+        }
+    }
+
+    // Cada tópico aparece uma vez em cada faixa; o tamanho é acompanhado apenas pela primeira
+    private void contarSeForAPrimeiraFaixa(Baldes alvo, int faixa, int variacao) {
+        if (faixa == 0) {
+            alvo.tamanho().addAndGet(variacao);
+        }
+    }
+
+    private int valorDaFaixa(long assinatura, int faixa) {
+        return (int) ((assinatura >>> inicioDasFaixas[faixa]) & ((1L << bitsDasFaixas[faixa]) - 1));
+    }
+}
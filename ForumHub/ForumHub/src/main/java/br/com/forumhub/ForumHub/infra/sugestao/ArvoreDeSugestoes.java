@@ -0,0 +1,342 @@
+package br.com.forumhub.ForumHub.infra.sugestao;
+
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Árvore de prefixos compactada (radix tree) usada para completar nomes e títulos enquanto o usuário digita.
+ *
+ * Os textos são guardados normalizados (sem acentos, em minúsculas e com os espaços colapsados), e cada
+ * aresta guarda um trecho inteiro do texto, de modo que a árvore tem no máximo dois nós por texto. Cada nó
+ * guarda as sugestões mais populares de toda a sua subárvore; a busca apenas desce pelo prefixo e devolve
+ * essa lista já ordenada, sem percorrer os textos que começam com ele.
+ *
+ * Os nós são imutáveis: uma alteração recria apenas o caminho da raiz até o texto alterado e publica a nova
+ * raiz, de modo que as buscas leem sem bloqueio uma versão consistente da árvore. As alterações são serializadas.
+ */
+public class ArvoreDeSugestoes {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    // Mais populares primeiro; em caso de empate, ordem alfabética
+    private static final Comparator<DadosSugestao> ORDEM = Comparator.comparing(DadosSugestao::popularidade).reversed()
+            .thenComparing(DadosSugestao::texto)
+            .thenComparing(DadosSugestao::id);
+
+    private static final char[] SEM_LETRAS = new char[0];
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final DadosSugestao[] SEM_SUGESTOES = new DadosSugestao[0];
+
+    /**
+     * Nó da árvore. {@code letras[i]} é o primeiro caractere do rótulo de {@code filhos[i]}, em ordem crescente;
+     * {@code terminais} são as sugestões cujo texto termina neste nó e {@code melhores}, as mais populares da subárvore.
+     */
+    private record No(String rotulo, char[] letras, No[] filhos, DadosSugestao[] terminais, DadosSugestao[] melhores) {
+    }
+
+    private final int melhoresPorNo;
+    private final AtomicInteger tamanho = new AtomicInteger();
+    private volatile No raiz = new No("", SEM_LETRAS, SEM_FILHOS, SEM_SUGESTOES, SEM_SUGESTOES);
+
+    /**
+     * @param melhoresPorNo quantidade de sugestões guardadas em cada nó, que é também o maior limite aceito pela busca
+     */
+    public ArvoreDeSugestoes(int melhoresPorNo) {
+        this.melhoresPorNo = melhoresPorNo;
+    }
+
+    /**
+     * Monta uma árvore de uma só vez, ordenando os textos e criando cada nó uma única vez, o que é
+     * bem mais rápido do que incluir as sugestões uma a uma.
+     *
+     * @param melhoresPorNo quantidade de sugestões guardadas em cada nó
+     * @param sugestoes     as sugestões, com IDs distintos
+     * @return a árvore com todas as sugestões
+     */
+    public static ArvoreDeSugestoes construir(int melhoresPorNo, List<DadosSugestao> sugestoes) {
+        var chaves = new String[sugestoes.size()];
+        var ordem = new Integer[sugestoes.size()];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = normalizar(sugestoes.get(i).texto());
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, Comparator.comparing(i -> chaves[i]));
+
+        var chavesOrdenadas = new String[chaves.length];
+        var sugestoesOrdenadas = new DadosSugestao[chaves.length];
+        for (int i = 0; i < ordem.length; i++) {
+            chavesOrdenadas[i] = chaves[ordem[i]];
+            sugestoesOrdenadas[i] = sugestoes.get(ordem[i]);
+        }
+
+        var arvore = new ArvoreDeSugestoes(melhoresPorNo);
+        arvore.raiz = arvore.construir("", chavesOrdenadas, sugestoesOrdenadas, 0, chaves.length, 0);
+        arvore.tamanho.set(chaves.length);
+        return arvore;
+    }
+
+    /**
+     * Normaliza um texto para comparação: remove os acentos, converte para minúsculas e colapsa os espaços.
+     *
+     * @param texto o texto original
+     * @return o texto normalizado, sem espaços nas pontas
+     */
+    public static String normalizar(String texto) {
+        var semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFKD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Busca as sugestões mais populares cujo texto normalizado começa com o prefixo informado.
+     * Um espaço no fim do prefixo é mantido, para que "java " não sugira "javascript".
+     *
+     * @param prefixo o texto digitado até o momento
+     * @param limite  a quantidade máxima de sugestões, limitada a {@code melhoresPorNo}
+     * @return as sugestões, das mais populares para as menos populares
+     */
+    public List<DadosSugestao> buscar(String prefixo, int limite) {
+        var chave = normalizar(prefixo);
+        if (!chave.isEmpty() && Character.isWhitespace(prefixo.charAt(prefixo.length() - 1))) {
+            chave += " ";
+        }
+
+        var no = raiz;
+        var posicao = 0;
+        while (posicao < chave.length()) {
+            var indice = Arrays.binarySearch(no.letras(), chave.charAt(posicao));
+            if (indice < 0) {
+                return List.of();
+            }
+
+            var filho = no.filhos()[indice];
+            var restante = chave.length() - posicao;
+            var comparados = Math.min(restante, filho.rotulo().length());
+            if (!filho.rotulo().regionMatches(0, chave, posicao, comparados)) {
+                return List.of();
+            }
+
+            // O prefixo pode terminar no meio da aresta; todos os textos abaixo dela começam com ele
+            no = filho;
+            posicao += comparados;
+        }
+
+        var melhores = no.melhores();
+        return List.of(Arrays.copyOf(melhores, Math.min(limite, melhores.length)));
+    }
+
+    /**
+     * Inclui uma sugestão ou, se o texto já tiver uma sugestão com o mesmo ID, substitui a sua popularidade.
+     *
+     * @param sugestao a sugestão a incluir
+     */
+    public synchronized void incluir(DadosSugestao sugestao) {
+        var chave = normalizar(sugestao.texto());
+        raiz = incluir(raiz, chave, 0, sugestao);
+    }
+
+    /**
+     * Remove a sugestão com o ID informado, se existir para o texto.
+     *
+     * @param id    o ID do curso ou do tópico
+     * @param texto o texto registrado para a sugestão
+     */
+    public synchronized void remover(Long id, String texto) {
+        var nova = remover(raiz, normalizar(texto), 0, id);
+        raiz = nova != null ? nova : new No("", SEM_LETRAS, SEM_FILHOS, SEM_SUGESTOES, SEM_SUGESTOES);
+    }
+
+    /**
+     * Soma uma variação à popularidade da sugestão com o ID informado, se existir para o texto.
+     *
+     * @param id       o ID do curso ou do tópico
+     * @param texto    o texto registrado para a sugestão
+     * @param variacao o valor somado à popularidade
+     * @return se a sugestão foi encontrada
+     */
+    public synchronized boolean ajustar(Long id, String texto, long variacao) {
+        var chave = normalizar(texto);
+        var no = raiz;
+        var posicao = 0;
+        while (no != null && posicao < chave.length()) {
+            var indice = Arrays.binarySearch(no.letras(), chave.charAt(posicao));
+            var filho = indice < 0 ? null : no.filhos()[indice];
+            no = filho != null && chave.startsWith(filho.rotulo(), posicao) ? filho : null;
+            posicao += filho != null ? filho.rotulo().length() : 0;
+        }
+        if (no == null) {
+            return false;
+        }
+
+        for (var sugestao : no.terminais()) {
+            if (sugestao.id().equals(id)) {
+                var popularidade = Math.max(0, sugestao.popularidade() + variacao);
+                raiz = incluir(raiz, chave, 0, new DadosSugestao(id, sugestao.texto(), popularidade));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a quantidade de sugestões na árvore
+     */
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    // Monta o nó cujas chaves, no intervalo [inicio, fim) do array ordenado, compartilham os primeiros caracteres até a profundidade
+    private No construir(String rotulo, String[] chaves, DadosSugestao[] sugestoes, int inicio, int fim, int profundidade) {
+        // Na ordem alfabética, as chaves que terminam neste nó vêm antes das que continuam
+        var terminaisAte = inicio;
+        while (terminaisAte < fim && chaves[terminaisAte].length() == profundidade) {
+            terminaisAte++;
+        }
+
+        var filhos = new ArrayList<No>();
+        for (int grupo = terminaisAte; grupo < fim; ) {
+            var letra = chaves[grupo].charAt(profundidade);
+            var fimDoGrupo = grupo + 1;
+            while (fimDoGrupo < fim && chaves[fimDoGrupo].charAt(profundidade) == letra) {
+                fimDoGrupo++;
+            }
+
+            // O trecho comum a todas as chaves do grupo é o comum à primeira e à última
+            var comum = prefixoComum(chaves[grupo], chaves[fimDoGrupo - 1], 0);
+            filhos.add(construir(chaves[grupo].substring(profundidade, comum), chaves, sugestoes, grupo, fimDoGrupo, comum));
+            grupo = fimDoGrupo;
+        }
+
+        return novoNo(rotulo, filhos.toArray(SEM_FILHOS), Arrays.copyOfRange(sugestoes, inicio, terminaisAte));
+    }
+
+    private No incluir(No no, String chave, int posicao, DadosSugestao sugestao) {
+        if (posicao == chave.length()) {
+            return novoNo(no.rotulo(), no.filhos(), comSugestao(no.terminais(), sugestao));
+        }
+
+        var indice = Arrays.binarySearch(no.letras(), chave.charAt(posicao));
+        if (indice < 0) {
+            var folha = novoNo(chave.substring(posicao), SEM_FILHOS, comSugestao(SEM_SUGESTOES, sugestao));
+            return novoNo(no.rotulo(), inserir(no.filhos(), -indice - 1, folha), no.terminais());
+        }
+
+        var filho = no.filhos()[indice];
+        var comum = prefixoComum(filho.rotulo(), chave, posicao);
+        if (comum < filho.rotulo().length()) {
+            // Divide a aresta: o trecho comum passa a ser um nó intermediário acima do filho atual
+            var restoDoFilho = new No(filho.rotulo().substring(comum), filho.letras(), filho.filhos(), filho.terminais(), filho.melhores());
+            filho = novoNo(filho.rotulo().substring(0, comum), new No[]{restoDoFilho}, SEM_SUGESTOES);
+        }
+
+        var filhos = no.filhos().clone();
+        filhos[indice] = incluir(filho, chave, posicao + comum, sugestao);
+        return novoNo(no.rotulo(), filhos, no.terminais());
+    }
+
+    // Devolve null quando o nó fica sem sugestões e sem filhos
+    private No remover(No no, String chave, int posicao, Long id) {
+        if (posicao == chave.length()) {
+            var terminais = semSugestao(no.terminais(), id);
+            return terminais == no.terminais() ? no : compactar(no.rotulo(), no.filhos(), terminais);
+        }
+
+        var indice = Arrays.binarySearch(no.letras(), chave.charAt(posicao));
+        if (indice < 0 || !chave.startsWith(no.filhos()[indice].rotulo(), posicao)) {
+            return no;
+        }
+
+        var filho = no.filhos()[indice];
+        var novoFilho = remover(filho, chave, posicao + filho.rotulo().length(), id);
+        if (novoFilho == filho) {
+            return no;
+        }
+
+        No[] filhos;
+        if (novoFilho == null) {
+            filhos = new No[no.filhos().length - 1];
+            System.arraycopy(no.filhos(), 0, filhos, 0, indice);
+            System.arraycopy(no.filhos(), indice + 1, filhos, indice, filhos.length - indice);
+        } else {
+            filhos = no.filhos().clone();
+            filhos[indice] = novoFilho;
+        }
+        return compactar(no.rotulo(), filhos, no.terminais());
+    }
+
+    // Descarta nós vazios e junta ao filho um nó intermediário que ficou com um único filho, exceto a raiz
+    private No compactar(String rotulo, No[] filhos, DadosSugestao[] terminais) {
+        if (rotulo.isEmpty() || terminais.length > 0 || filhos.length > 1) {
+            return novoNo(rotulo, filhos, terminais);
+        }
+        if (filhos.length == 0) {
+            return null;
+        }
+
+        var filho = filhos[0];
+        return new No(rotulo + filho.rotulo(), filho.letras(), filho.filhos(), filho.terminais(), filho.melhores());
+    }
+
+    private No novoNo(String rotulo, No[] filhos, DadosSugestao[] terminais) {
+        var letras = new char[filhos.length];
+        var candidatas = new ArrayList<DadosSugestao>(terminais.length + filhos.length * melhoresPorNo);
+        candidatas.addAll(Arrays.asList(terminais));
+        for (int i = 0; i < filhos.length; i++) {
+            letras[i] = filhos[i].rotulo().charAt(0);
+            candidatas.addAll(Arrays.asList(filhos[i].melhores()));
+        }
+
+        candidatas.sort(ORDEM);
+        var melhores = candidatas.subList(0, Math.min(melhoresPorNo, candidatas.size())).toArray(SEM_SUGESTOES);
+        return new No(rotulo, letras, filhos, terminais, melhores);
+    }
+
+    private DadosSugestao[] comSugestao(DadosSugestao[] terminais, DadosSugestao sugestao) {
+        // Uma sugestão com o mesmo ID é substituída; semSugestao já desconta a anterior do tamanho
+        var sem = semSugestao(terminais, sugestao.id());
+        tamanho.incrementAndGet();
+
+        var com = Arrays.copyOf(sem, sem.length + 1);
+        com[sem.length] = sugestao;
+        return com;
+    }
+
+    // Devolve o próprio array quando não há sugestão com o ID
+    private DadosSugestao[] semSugestao(DadosSugestao[] terminais, Long id) {
+        for (int i = 0; i < terminais.length; i++) {
+            if (terminais[i].id().equals(id)) {
+                var sem = new DadosSugestao[terminais.length - 1];
+                System.arraycopy(terminais, 0, sem, 0, i);
+                System.arraycopy(terminais, i + 1, sem, i, sem.length - i);
+                tamanho.decrementAndGet();
+                return sem;
+            }
+        }
+        return terminais;
+    }
+
+    private static No[] inserir(No[] filhos, int indice, No filho) {
+        var novos = new No[filhos.length + 1];
+        System.arraycopy(filhos, 0, novos, 0, indice);
+        novos[indice] = filho;
+        System.arraycopy(filhos, indice, novos, indice + 1, filhos.length - indice);
+        return novos;
+    }
+
+    private static int prefixoComum(String rotulo, String chave, int posicao) {
+        var comum = 0;
+        var maximo = Math.min(rotulo.length(), chave.length() - posicao);
+        while (comum < maximo && rotulo.charAt(comum) == chave.charAt(posicao + comum)) {
+            comum++;
+        }
+        return comum;
+    }
+}
@@ -0,0 +1,218 @@
+package br.com.forumhub.ForumHub.infra.sugestao;
+
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.infra.cache.AposOCommit;
+import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.repository.CursoRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sugestões do autocompletar para nomes de cursos e títulos de tópicos, mantidas em memória em
+ * duas {@link ArvoreDeSugestoes}. Os cursos são ordenados pela quantidade de tópicos e os tópicos,
+ * pela quantidade de respostas.
+ *
+ * As árvores são montadas do banco quando a aplicação fica pronta e remontadas periodicamente
+ * ({@code api.sugestoes.intervalo}), o que atualiza as popularidades. Entre as remontagens, as criações,
+ * edições e remoções de tópicos confirmadas nesta instância são aplicadas na hora; as alterações
+ * feitas durante uma remontagem são reaplicadas na árvore nova antes de ela ser publicada (se a montagem já
+ * as tiver lido do banco, a contagem de tópicos do curso fica adiantada até a remontagem seguinte).
+ */
+@Component
+public class IndiceDeSugestoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDeSugestoes.class);
+
+    // Quantidade de sugestões guardadas em cada nó das árvores, que é também o maior limite aceito
+    public static final int LIMITE_MAXIMO = 10;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Quantidade de tópicos lidos do banco por consulta durante a montagem
+    @Value("${api.sugestoes.lote:5000}")
+    private int tamanhoDoLote;
+
+    private record Arvores(ArvoreDeSugestoes cursos, ArvoreDeSugestoes topicos) {
+    }
+
+    private volatile Arvores arvores = new Arvores(new ArvoreDeSugestoes(LIMITE_MAXIMO), new ArvoreDeSugestoes(LIMITE_MAXIMO));
+
+    // Alterações aplicadas durante a montagem em andamento, ou null fora dela; protegida por this
+    private List<Consumer<Arvores>> alteracoesDuranteAMontagem;
+
+    private final Object montagem = new Object();
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("sugestoes.indice", this, indice -> indice.arvores.cursos().tamanho())
+                .tag("tipo", "cursos")
+                .description("Sugestões registradas no autocompletar")
+                .register(meterRegistry);
+        Gauge.builder("sugestoes.indice", this, indice -> indice.arvores.topicos().tamanho())
+                .tag("tipo", "topicos")
+                .description("Sugestões registradas no autocompletar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Monta as árvores com todos os cursos e tópicos do banco e as publica no lugar das atuais.
+     * As buscas feitas durante a montagem usam as árvores anteriores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${api.sugestoes.intervalo:PT15M}", fixedDelayString = "${api.sugestoes.intervalo:PT15M}")
+    public void montar() {
+        synchronized (montagem) {
+            var inicio = System.nanoTime();
+            synchronized (this) {
+                alteracoesDuranteAMontagem = new ArrayList<>();
+            }
+
+            try {
+                var cursos = ArvoreDeSugestoes.construir(LIMITE_MAXIMO, cursoRepository.listarParaSugestao());
+
+                var titulos = new ArrayList<DadosSugestao>();
+                long ultimoId = 0;
+                while (true) {
+                    var lote = topicoRepository.listarParaSugestao(ultimoId, Limit.of(tamanhoDoLote));
+                    if (lote.isEmpty()) {
+                        break;
+                    }
+                    titulos.addAll(lote);
+                    ultimoId = lote.get(lote.size() - 1).id();
+                }
+                var topicos = ArvoreDeSugestoes.construir(LIMITE_MAXIMO, titulos);
+
+                synchronized (this) {
+                    var novas = new Arvores(cursos, topicos);
+                    alteracoesDuranteAMontagem.forEach(alteracao -> alteracao.accept(novas));
+                    arvores = novas;
+                }
+                logger.info("Sugestões montadas com {} curso(s) e {} tópico(s) em {} ms",
+                        cursos.tamanho(), topicos.tamanho(), (System.nanoTime() - inicio) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    alteracoesDuranteAMontagem = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sugere nomes de cursos que começam com o texto digitado, ignorando acentos e maiúsculas.
+     *
+     * @param prefixo o texto digitado
+     * @param limite  a quantidade máxima de sugestões, de 1 a {@value #LIMITE_MAXIMO}
+     * @return os cursos com mais tópicos primeiro
+     */
+    public List<DadosSugestao> sugerirCursos(String prefixo, int limite) {
+        validar(prefixo, limite);
+        return arvores.cursos().buscar(prefixo, limite);
+    }
+
+    /**
+     * Sugere títulos de tópicos que começam com o texto digitado, ignorando acentos e maiúsculas.
+     *
+     * @param prefixo o texto digitado
+     * @param limite  a quantidade máxima de sugestões, de 1 a {@value #LIMITE_MAXIMO}
+     * @return os tópicos com mais respostas primeiro
+     */
+    public List<DadosSugestao> sugerirTopicos(String prefixo, int limite) {
+        validar(prefixo, limite);
+        return arvores.topicos().buscar(prefixo, limite);
+    }
+
+    /**
+     * Registra um tópico criado e conta mais um tópico para o seu curso, após o commit. Um curso cadastrado
+     * depois da última montagem passa a ser sugerido a partir do seu primeiro tópico.
+     *
+     * @param id        o ID do tópico
+     * @param titulo    o título do tópico
+     * @param cursoId   o ID do curso do tópico
+     * @param nomeCurso o nome do curso do tópico
+     */
+    public void incluirTopico(Long id, String titulo, Long cursoId, String nomeCurso) {
+        alterar(arvores -> {
+            arvores.topicos().incluir(new DadosSugestao(id, titulo, 0L));
+            if (!arvores.cursos().ajustar(cursoId, nomeCurso, 1)) {
+                arvores.cursos().incluir(new DadosSugestao(cursoId, nomeCurso, 1L));
+            }
+        });
+    }
+
+    /**
+     * Troca o título registrado para um tópico editado, após o commit.
+     *
+     * @param id           o ID do tópico
+     * @param anterior     o título registrado
+     * @param novo         o novo título
+     * @param popularidade a quantidade de respostas do tópico
+     */
+    public void substituirTitulo(Long id, String anterior, String novo, long popularidade) {
+        if (!anterior.equals(novo)) {
+            alterar(arvores -> {
+                arvores.topicos().remover(id, anterior);
+                arvores.topicos().incluir(new DadosSugestao(id, novo, popularidade));
+            });
+        }
+    }
+
+    /**
+     * Remove um tópico e conta um tópico a menos para o seu curso, após o commit.
+     *
+     * @param id        o ID do tópico
+     * @param titulo    o título registrado
+     * @param cursoId   o ID do curso do tópico
+     * @param nomeCurso o nome do curso do tópico
+     */
+    public void excluirTopico(Long id, String titulo, Long cursoId, String nomeCurso) {
+        alterar(arvores -> {
+            arvores.topicos().remover(id, titulo);
+            if (nomeCurso != null) {
+                arvores.cursos().ajustar(cursoId, nomeCurso, -1);
+            }
+        });
+    }
+
+    private void validar(String prefixo, int limite) {
+        if (prefixo == null || prefixo.isBlank()) {
+            throw new ValidacaoException("Informe o início do texto a completar.");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidacaoException("O limite de sugestões deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+    }
+
+    // Aplica a alteração após o commit, para que um rollback não deixe sugestões de tópicos inexistentes
+    private void alterar(Consumer<Arvores> alteracao) {
+        AposOCommit.executar(() -> {
+            synchronized (this) {
+                alteracao.accept(arvores);
+                if (alteracoesDuranteAMontagem != null) {
+                    alteracoesDuranteAMontagem.add(alteracao);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao;
+
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+
+import java.util.function.Supplier;
+
+/**
+ * Contexto compartilhado pelas validações de atualização de tópico e pelo serviço.
+ * O tópico é buscado no banco apenas na primeira vez em que é solicitado e reaproveitado
+ * pelas validações seguintes e pela própria atualização.
+ */
+public class ContextoAtualizacaoTopico {
+
+    private final Long id;
+    private final DadosTopicoAtualizacao dados;
+    private final UsuarioAutenticado usuario;
+    private final Supplier<Topico> buscaTopico;
+
+    private Topico topico;
+    private boolean topicoCarregado;
+
+    /**
+     * @param id          o ID do tópico a ser atualizado
+     * @param dados       os novos dados do tópico
+     * @param usuario     o usuário autenticado que está atualizando o tópico
+     * @param buscaTopico a consulta do tópico, executada no máximo uma vez
+     */
+    public ContextoAtualizacaoTopico(Long id, DadosTopicoAtualizacao dados, UsuarioAutenticado usuario, Supplier<Topico> buscaTopico) {
+        this.id = id;
+        this.dados = dados;
+        this.usuario = usuario;
+        this.buscaTopico = buscaTopico;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public DadosTopicoAtualizacao getDados() {
+        return dados;
+    }
+
+    public UsuarioAutenticado getUsuario() {
+        return usuario;
+    }
+
+    /**
+     * @return o tópico a ser atualizado, ou null se não existir
+     */
+    public Topico getTopico() {
+        if (!topicoCarregado) {
+            topico = buscaTopico.get();
+            topicoCarregado = true;
+        }
+        return topico;
+    }
+}
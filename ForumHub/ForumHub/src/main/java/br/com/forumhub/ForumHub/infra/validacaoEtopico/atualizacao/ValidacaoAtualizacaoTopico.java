@@ -1,7 +1,10 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao;
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
-
+/**
+ * Validação executada antes da atualização de um tópico. As implementações são executadas na
+ * ordem definida por {@link org.springframework.core.annotation.Order}, das mais baratas às
+ * que consultam o banco, e compartilham o tópico carregado através do contexto.
+ */
 public interface ValidacaoAtualizacaoTopico {
-    void validar(Long id, DadosTopicoAtualizacao dados);
+    void validar(ContextoAtualizacaoTopico contexto);
 }
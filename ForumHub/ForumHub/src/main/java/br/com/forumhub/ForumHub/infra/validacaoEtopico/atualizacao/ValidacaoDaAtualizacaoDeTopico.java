@@ -1,13 +1,18 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao;
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.model.entities.Topico;
 import br.com.forumhub.ForumHub.repository.TopicoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
 /**
  * Validação para verificar se já existe um tópico com o mesmo título e mensagem.
+ * A comparação é feita pelo hash do conteúdo normalizado, consultando o índice único da coluna.
  */
+@Component
+@Order(4)
 public class ValidacaoDaAtualizacaoDeTopico implements ValidacaoAtualizacaoTopico {
 
     @Autowired
@@ -16,15 +21,20 @@ public class ValidacaoDaAtualizacaoDeTopico implements ValidacaoAtualizacaoTopic
     /**
      * Valida se já existe um tópico com o mesmo título e mensagem, lançando uma exceção caso positivo.
      *
-     * @param id    ID do tópico a ser atualizado.
-     * @param dados Dados da atualização do tópico.
+     * @param contexto Contexto com o ID e os dados da atualização do tópico.
      */
     @Override
-    public void validar(Long id, DadosTopicoAtualizacao dados) {
-        var topico = topicoRepository.findByTituloAndMensagemIgnoreCase(dados.titulo(), dados.mensagem());
+    public void validar(ContextoAtualizacaoTopico contexto) {
+        var dados = contexto.getDados();
+        var topico = contexto.getTopico();
 
-        if (topico != null) {
+        // Considera o conteúdo resultante da atualização, já que apenas um dos campos pode ter sido informado
+        var titulo = dados.titulo() != null ? dados.titulo() : topico.getTitulo();
+        var mensagem = dados.mensagem() != null ? dados.mensagem() : topico.getMensagem();
+        var hash = Topico.calcularHashConteudo(titulo, mensagem);
+
+        if (topicoRepository.existsByHashConteudoAndIdNot(hash, contexto.getId())) {
             throw new ValidacaoException("Já existe um tópico com o mesmo título e mensagem.");
         }
     }
-}
\ No newline at end of file
+}
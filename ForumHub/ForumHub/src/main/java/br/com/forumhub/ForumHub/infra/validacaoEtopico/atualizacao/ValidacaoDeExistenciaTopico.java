@@ -1,29 +1,24 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao;
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
-import br.com.forumhub.ForumHub.repository.TopicoRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
 /**
  * Validação para verificar se o tópico informado existe.
  */
+@Component
+@Order(2)
 public class ValidacaoDeExistenciaTopico implements ValidacaoAtualizacaoTopico {
 
-    @Autowired
-    private TopicoRepository topicoRepository;
-
     /**
      * Valida se o tópico existe no repositório, lançando uma exceção caso contrário.
      *
-     * @param id    ID do tópico a ser validado.
-     * @param dados Dados da atualização do tópico.
+     * @param contexto Contexto com o ID e os dados da atualização do tópico.
      */
     @Override
-    public void validar(Long id, DadosTopicoAtualizacao dados) {
-        var topico = topicoRepository.findById(id);
-
-        if (topico.isEmpty()) {
+    public void validar(ContextoAtualizacaoTopico contexto) {
+        if (contexto.getTopico() == null) {
             throw new ValidacaoException("Informe um ID de tópico válido.");
         }
     }
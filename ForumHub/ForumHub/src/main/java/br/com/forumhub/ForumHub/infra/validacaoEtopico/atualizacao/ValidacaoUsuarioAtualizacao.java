@@ -1,37 +1,33 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao;
 
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
 import br.com.forumhub.ForumHub.model.entities.Topico;
-import br.com.forumhub.ForumHub.repository.TopicoRepository;
-import br.com.forumhub.ForumHub.service.UsuarioService;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
 
 /**
  * Validação para verificar se o usuário atual tem permissão para atualizar o tópico.
  */
+@Component
+@Order(3)
 public class ValidacaoUsuarioAtualizacao implements ValidacaoAtualizacaoTopico {
 
-    @Autowired
-    private TopicoRepository topicoRepository;
-
-    @Autowired
-    private UsuarioService usuarioService;
-
     /**
      * Valida se o usuário atual é o autor do tópico a ser atualizado.
      *
-     * @param id    ID do tópico a ser validado.
-     * @param dados Dados da atualização do tópico.
+     * @param contexto Contexto com o ID e os dados da atualização do tópico.
      */
     @Override
-    public void validar(Long id, DadosTopicoAtualizacao dados) {
-        Topico topico = topicoRepository.findById(id).orElseThrow(() ->
+    public void validar(ContextoAtualizacaoTopico contexto) {
+        Topico topico = Optional.ofNullable(contexto.getTopico()).orElseThrow(() ->
                 new ValidacaoException("Tópico não encontrado para o ID informado.")
         );
 
-        if (!topico.getAutor().equals(usuarioService.usuarioAtual())) {
+        // Compara pelos IDs para não inicializar o proxy do autor com uma nova consulta
+        if (!topico.getAutor().getId().equals(contexto.getUsuario().id())) {
             throw new ValidacaoException("Usuário não autorizado para atualizar o tópico.");
         }
     }
@@ -0,0 +1,52 @@
+package br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao;
+
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+
+import java.util.function.Supplier;
+
+/**
+ * Contexto compartilhado pelas validações de criação de tópico e pelo serviço.
+ * O curso é buscado no banco apenas na primeira vez em que é solicitado e reaproveitado
+ * pelas validações seguintes e pela própria criação do tópico.
+ */
+public class ContextoCriacaoTopico {
+
+    private final DadosTopicoCadastro dados;
+    private final UsuarioAutenticado usuario;
+    private final Supplier<Curso> buscaCurso;
+
+    private Curso curso;
+    private boolean cursoCarregado;
+
+    /**
+     * @param dados      os dados do tópico a ser criado
+     * @param usuario    o usuário autenticado que está criando o tópico
+     * @param buscaCurso a consulta do curso informado, executada no máximo uma vez
+     */
+    public ContextoCriacaoTopico(DadosTopicoCadastro dados, UsuarioAutenticado usuario, Supplier<Curso> buscaCurso) {
+        this.dados = dados;
+        this.usuario = usuario;
+        this.buscaCurso = buscaCurso;
+    }
+
+    public DadosTopicoCadastro getDados() {
+        return dados;
+    }
+
+    public UsuarioAutenticado getUsuario() {
+        return usuario;
+    }
+
+    /**
+     * @return o curso informado no cadastro, ou null se não existir
+     */
+    public Curso getCurso() {
+        if (!cursoCarregado) {
+            curso = buscaCurso.get();
+            cursoCarregado = true;
+        }
+        return curso;
+    }
+}
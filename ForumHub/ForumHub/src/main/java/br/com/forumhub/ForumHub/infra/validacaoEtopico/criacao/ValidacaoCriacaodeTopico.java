@@ -1,8 +1,11 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao;
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
-
+/**
+ * Validação executada antes da criação de um tópico. As implementações são executadas na
+ * ordem definida por {@link org.springframework.core.annotation.Order}, das mais baratas às
+ * que consultam o banco, e compartilham as entidades carregadas através do contexto.
+ */
 public interface ValidacaoCriacaodeTopico {
 
-    void validar(DadosTopicoCadastro dados);
+    void validar(ContextoCriacaoTopico contexto);
 }
@@ -0,0 +1,78 @@
+package br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao;
+
+import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.infra.similaridade.AssinaturaSimHash;
+import br.com.forumhub.ForumHub.infra.similaridade.IndiceDeSimilaridade;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validação para verificar se já existe um tópico quase igual ao informado, como uma repostagem com
+ * poucas palavras alteradas. A busca é feita no índice de similaridade em memória, sem consultar o banco.
+ *
+ * O modo é configurado por {@code api.topicos.similaridade.modo}: {@code AVISAR} apenas registra o
+ * tópico semelhante no log e nas métricas, {@code REJEITAR} recusa a criação e {@code DESATIVADO} ignora a verificação.
+ */
+@Component
+@Order(3)
+public class ValidacaoDeSimilaridade implements ValidacaoCriacaodeTopico {
+
+    public enum Modo { AVISAR, REJEITAR, DESATIVADO }
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidacaoDeSimilaridade.class);
+
+    @Autowired
+    private IndiceDeSimilaridade indice;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    private final Modo modo;
+    private final Counter semelhantes;
+
+    public ValidacaoDeSimilaridade(@Value("${api.topicos.similaridade.modo:AVISAR}") Modo modo, MeterRegistry registry) {
+        this.modo = modo;
+        this.semelhantes = Counter.builder("topicos.similares")
+                .tag("modo", modo.name())
+                .description("Tópicos criados com conteúdo semelhante ao de um tópico existente")
+                .register(registry);
+    }
+
+    /**
+     * Procura um tópico semelhante ao informado, avisando ou lançando uma exceção conforme o modo configurado.
+     *
+     * @param contexto Contexto com os dados do cadastro do tópico.
+     */
+    @Override
+    public void validar(ContextoCriacaoTopico contexto) {
+        if (modo == Modo.DESATIVADO) {
+            return;
+        }
+
+        var dados = contexto.getDados();
+        var semelhante = indice.buscarSemelhante(AssinaturaSimHash.calcular(dados.titulo(), dados.mensagem()))
+                .orElse(null);
+        if (semelhante == null) {
+            return;
+        }
+
+        // Confirma no banco apenas quando há um candidato, descartando tópicos removidos sem passar pela API
+        if (!topicoRepository.existsById(semelhante.id())) {
+            indice.excluir(semelhante.id(), semelhante.assinatura());
+            return;
+        }
+
+        semelhantes.increment();
+        if (modo == Modo.REJEITAR) {
+            throw new ValidacaoException("Já existe um tópico semelhante: " + semelhante.id());
+        }
+        logger.warn("Tópico \"{}\" é semelhante ao tópico {} (distância {})", dados.titulo(), semelhante.id(), semelhante.distancia());
+    }
+}
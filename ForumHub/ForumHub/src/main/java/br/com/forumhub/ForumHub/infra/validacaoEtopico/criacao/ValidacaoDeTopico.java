@@ -1,15 +1,18 @@
 package br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao;
 
-import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.model.entities.Topico;
 import br.com.forumhub.ForumHub.repository.TopicoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 /**
  * Validação para verificar se já existe um tópico com o mesmo título e mensagem.
+ * A comparação é feita pelo hash do conteúdo normalizado, consultando o índice único da coluna.
  */
 @Component
+@Order(2)
 public class ValidacaoDeTopico implements ValidacaoCriacaodeTopico {
 
     @Autowired
@@ -18,14 +21,15 @@ public class ValidacaoDeTopico implements ValidacaoCriacaodeTopico {
     /**
      * Valida se já existe um tópico com o mesmo título e mensagem, lançando uma exceção caso positivo.
      *
-     * @param dados Dados do cadastro do tópico.
+     * @param contexto Contexto com os dados do cadastro do tópico.
      */
     @Override
-    public void validar(DadosTopicoCadastro dados) {
-        var topico = topicoRepository.findByTituloAndMensagemIgnoreCase(dados.titulo(), dados.mensagem());
+    public void validar(ContextoCriacaoTopico contexto) {
+        var dados = contexto.getDados();
+        var hash = Topico.calcularHashConteudo(dados.titulo(), dados.mensagem());
 
-        if (topico != null) {
+        if (topicoRepository.existsByHashConteudo(hash)) {
             throw new ValidacaoException("Tópico já existente: " + dados.titulo());
         }
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Table(name = "cursos")
 @Entity(name = "Curso")
@@ -14,11 +18,15 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cursos")
+@NaturalIdCache(region = "cursos-por-nome")
 public class Curso {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @NaturalId // Único no banco; a busca pelo nome exato é resolvida pelo cache de IDs naturais
     private String nome;
 
     @Enumerated(EnumType.STRING)
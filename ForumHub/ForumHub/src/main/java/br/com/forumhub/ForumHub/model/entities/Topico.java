@@ -6,15 +6,25 @@ import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
 import br.com.forumhub.ForumHub.model.enums.StatusTopico;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 //import org.springframework.data.annotation.Id;
 import jakarta.persistence.Id;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 
-@Table(name = "topicos") // Definindo o nome da tabela no banco de dados
+@Table(name = "topicos") // Definindo o nome da tabela no banco de dados; os índices ficam em db/migration
 @Entity(name = "Topico") // Entidade que será mapeada para a tabela
+@DynamicUpdate // Atualiza apenas as colunas alteradas, preservando os contadores mantidos por comandos SQL atômicos
 @EqualsAndHashCode(of = "id") // Equals e hashcode baseados apenas no 'id'
 public class Topico {
 
@@ -24,11 +34,27 @@ public class Topico {
 
     private String titulo; // Título do tópico
     private String mensagem; // Mensagem do tópico
+
+    @Column(length = 64)
+    private String hashConteudo; // SHA-256 do título e da mensagem normalizados, único entre os tópicos
     private LocalDateTime dataCriacao; // Data e hora de criação do tópico
 
     @Enumerated(EnumType.STRING) // Armazenamento do status como string no banco de dados
     private StatusTopico status;
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer respostasCount = 0; // Quantidade de respostas, mantida por incrementos atômicos no banco
+
+    private LocalDateTime ultimaAtividade; // Data e hora da criação do tópico ou da resposta mais recente
+
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long versao = 0L; // Versão do tópico, incrementada a cada edição, mudança de status ou alteração nas respostas (bloqueio otimista e ETag)
+
+    private LocalDateTime dataAtualizacao; // Data e hora em UTC do último incremento da versão (Last-Modified)
+
     @ManyToOne(fetch = FetchType.LAZY) // Associação com a entidade 'Usuario', carregada de forma preguiçosa
     @JoinColumn(name = "autor_id") // Chave estrangeira para o autor do tópico
     private Usuario autor;
@@ -44,7 +70,10 @@ public class Topico {
     public Topico(DadosTopicoCadastro cadastro, Curso curso, Usuario autor) {
         this.titulo = cadastro.titulo();
         this.mensagem = cadastro.mensagem();
+        this.hashConteudo = calcularHashConteudo(titulo, mensagem);
         this.dataCriacao = LocalDateTime.now(); // Atribui a data e hora atual
+        this.ultimaAtividade = this.dataCriacao; // A criação é a primeira atividade do tópico
+        this.dataAtualizacao = agoraEmUtc();
         this.status = StatusTopico.NAO_RESPONDIDO; // Status inicial como 'Não Respondido'
         this.curso = curso;
         this.autor = autor;
@@ -70,7 +99,10 @@ public class Topico {
         this.id = id;
         this.titulo = titulo;
         this.mensagem = mensagem;
+        this.hashConteudo = calcularHashConteudo(titulo, mensagem);
         this.dataCriacao = dataCriacao;
+        this.ultimaAtividade = dataCriacao;
+        this.dataAtualizacao = agoraEmUtc();
         this.status = status;
         this.autor = autor;
         this.curso = curso;
@@ -90,6 +122,10 @@ public class Topico {
         return mensagem;
     }
 
+    public String getHashConteudo() {
+        return hashConteudo;
+    }
+
     public LocalDateTime getDataCriacao() {
         return dataCriacao;
     }
@@ -98,6 +134,22 @@ public class Topico {
         return status;
     }
 
+    public Integer getRespostasCount() {
+        return respostasCount;
+    }
+
+    public LocalDateTime getUltimaAtividade() {
+        return ultimaAtividade;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
     public Usuario getAutor() {
         return autor;
     }
@@ -128,6 +180,41 @@ public class Topico {
         if (atualizacao.mensagem() != null) {
             this.mensagem = atualizacao.mensagem(); // Atualiza a mensagem, se fornecida
         }
+
+        this.hashConteudo = calcularHashConteudo(titulo, mensagem);
+        this.dataAtualizacao = agoraEmUtc(); // A versão é incrementada no flush
+    }
+
+    /**
+     * Calcula o hash usado na detecção de tópicos duplicados. O título e a mensagem são normalizados
+     * (forma Unicode NFKC, espaços em branco consecutivos reduzidos a um só, sem espaços nas pontas
+     * e em minúsculas) antes do cálculo, de modo que variações apenas de caixa ou de espaçamento
+     * produzam o mesmo hash.
+     *
+     * @param titulo Título do tópico.
+     * @param mensagem Mensagem do tópico.
+     * @return o SHA-256 em hexadecimal do conteúdo normalizado.
+     */
+    public static String calcularHashConteudo(String titulo, String mensagem) {
+        // O separador nulo impede que títulos e mensagens diferentes formem o mesmo texto concatenado
+        var conteudo = normalizar(titulo) + '\u0000' + normalizar(mensagem);
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return Normalizer.normalize(texto, Normalizer.Form.NFKC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -137,5 +224,16 @@ public class Topico {
      */
     public void setStatus(StatusTopico statusTopico) {
         this.status = statusTopico; // Define o novo status para o tópico
+        this.dataAtualizacao = agoraEmUtc();
+    }
+
+    /**
+     * Data e hora atual em UTC, gravada na data de atualização. Como ela é enviada no Last-Modified,
+     * não pode depender do fuso horário da instância que alterou o tópico.
+     *
+     * @return a data e hora atual em UTC.
+     */
+    public static LocalDateTime agoraEmUtc() {
+        return LocalDateTime.now(ZoneOffset.UTC);
     }
 }
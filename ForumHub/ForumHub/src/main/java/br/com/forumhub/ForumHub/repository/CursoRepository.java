@@ -1,18 +1,50 @@
 package br.com.forumhub.ForumHub.repository;
 
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.infra.cache.SegundoNivelCacheConfiguration;
 import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 /**
  * Repositório para a entidade Curso, responsável por interagir com o banco de dados.
  */
-public interface CursoRepository extends JpaRepository<Curso, Long> {
+public interface CursoRepository extends JpaRepository<Curso, Long>, CursoRepositoryPorNome {
 
     /**
      * Busca um curso pelo nome, ignorando diferenças entre maiúsculas e minúsculas.
+     * O resultado fica no cache de consultas até que algum curso seja alterado.
      *
      * @param nome o nome do curso a ser buscado.
      * @return o curso encontrado ou null caso nenhum curso corresponda.
      */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SegundoNivelCacheConfiguration.CONSULTAS_DE_CURSOS)
+    })
     Curso findByNomeIgnoreCase(String nome);
-}
\ No newline at end of file
+
+    /**
+     * Lista todos os cursos com a quantidade de tópicos de cada um, para o autocompletar.
+     *
+     * @return o ID, o nome e a quantidade de tópicos dos cursos.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao(c.id, c.nome, count(t.id)) from Curso c left join Topico t on t.curso = c where c.nome is not null group by c.id, c.nome")
+    List<DadosSugestao> listarParaSugestao();
+
+    /**
+     * Lista os IDs dos cursos de uma categoria, para filtrar os tópicos pela categoria sem juntar as tabelas.
+     *
+     * @param categoria a categoria dos cursos.
+     * @return os IDs dos cursos da categoria.
+     */
+    @Query("select c.id from Curso c where c.categoria = :categoria")
+    List<Long> listarIdsPorCategoria(@Param("categoria") Categoria categoria);
+}
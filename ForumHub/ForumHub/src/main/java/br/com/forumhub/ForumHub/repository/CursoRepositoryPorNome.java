@@ -0,0 +1,20 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.model.entities.Curso;
+
+import java.util.Optional;
+
+/**
+ * Buscas de {@link CursoRepository} pelo ID natural do curso.
+ */
+public interface CursoRepositoryPorNome {
+
+    /**
+     * Busca um curso pelo nome exato, resolvido pelo cache de IDs naturais e, em seguida, pelo cache
+     * de cursos, sem consultar o banco quando o curso já foi carregado.
+     *
+     * @param nome o nome exato do curso.
+     * @return o curso encontrado, ou vazio caso nenhum curso tenha exatamente esse nome.
+     */
+    Optional<Curso> buscarPorNomeExato(String nome);
+}
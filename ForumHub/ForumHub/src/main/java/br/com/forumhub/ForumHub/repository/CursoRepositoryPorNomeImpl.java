@@ -0,0 +1,28 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementação de {@link CursoRepositoryPorNome} com a API de IDs naturais do Hibernate, que o Spring Data
+ * não oferece.
+ */
+public class CursoRepositoryPorNomeImpl implements CursoRepositoryPorNome {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A sessão obtida do EntityManager compartilhado só permanece aberta dentro de uma transação
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Curso> buscarPorNomeExato(String nome) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Curso.class)
+                .loadOptional(nome);
+    }
+}
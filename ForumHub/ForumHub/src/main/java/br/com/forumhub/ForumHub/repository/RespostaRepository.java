@@ -1,7 +1,97 @@
 package br.com.forumhub.ForumHub.repository;
 
+import br.com.forumhub.ForumHub.dto.resposta.DadosMensagemResposta;
+import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse;
 import br.com.forumhub.ForumHub.model.entities.Resposta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface RespostaRepository extends JpaRepository<Resposta, Long> {
+
+    /**
+     * Conta as respostas de um tópico.
+     *
+     * @param topicoId o ID do tópico.
+     * @return a quantidade de respostas do tópico.
+     */
+    long countByTopicoId(Long topicoId);
+
+    /**
+     * Lista a primeira página das respostas de um tópico já projetadas em DTOs, com o nome do autor
+     * obtido por join, em uma única consulta e sem carregar as entidades.
+     *
+     * @param topicoId o ID do tópico.
+     * @param limite quantidade máxima de respostas.
+     * @return as respostas do tópico, em ordem de criação.
+     */
+    @Query("""
+            select new br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse(r.id, r.mensagem, r.solucao, a.nome, r.dataCriacao)
+            from Resposta r left join r.autor a
+            where r.topico.id = :topicoId
+            order by r.dataCriacao, r.id
+            """)
+    List<DadosRespostaResponse> listarPorTopico(@Param("topicoId") Long topicoId, Limit limite);
+
+    /**
+     * Lista as respostas de um tópico posteriores à posição informada (paginação por chave).
+     * A comparação por {@code (dataCriacao, id)} usa o índice {@code (topico_id, dataCriacao, id)},
+     * de forma que qualquer página custa o mesmo que a primeira.
+     *
+     * @param topicoId o ID do tópico.
+     * @param dataCriacao data de criação da última resposta da página anterior.
+     * @param id ID da última resposta da página anterior.
+     * @param limite quantidade máxima de respostas.
+     * @return as respostas seguintes, em ordem de criação.
+     */
+    @Query("""
+            select new br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse(r.id, r.mensagem, r.solucao, a.nome, r.dataCriacao)
+            from Resposta r left join r.autor a
+            where r.topico.id = :topicoId and (r.dataCriacao, r.id) > (:dataCriacao, :id)
+            order by r.dataCriacao, r.id
+            """)
+    List<DadosRespostaResponse> listarPorTopicoApos(@Param("topicoId") Long topicoId,
+                                                    @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                    @Param("id") Long id,
+                                                    Limit limite);
+
+    /**
+     * Lista as respostas de um tópico anteriores à posição informada, em ordem decrescente,
+     * para a navegação para a página anterior.
+     *
+     * @param topicoId o ID do tópico.
+     * @param dataCriacao data de criação da primeira resposta da página atual.
+     * @param id ID da primeira resposta da página atual.
+     * @param limite quantidade máxima de respostas.
+     * @return as respostas anteriores, da mais recente para a mais antiga.
+     */
+    @Query("""
+            select new br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse(r.id, r.mensagem, r.solucao, a.nome, r.dataCriacao)
+            from Resposta r left join r.autor a
+            where r.topico.id = :topicoId and (r.dataCriacao, r.id) < (:dataCriacao, :id)
+            order by r.dataCriacao desc, r.id desc
+            """)
+    List<DadosRespostaResponse> listarPorTopicoAntes(@Param("topicoId") Long topicoId,
+                                                     @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                     @Param("id") Long id,
+                                                     Limit limite);
+
+    /**
+     * Lista as mensagens das respostas dos tópicos informados, para a indexação da busca textual.
+     *
+     * @param topicoIds os IDs dos tópicos.
+     * @return as mensagens das respostas, com o ID do tópico de cada uma.
+     */
+    @Query("""
+            select new br.com.forumhub.ForumHub.dto.resposta.DadosMensagemResposta(r.topico.id, r.mensagem)
+            from Resposta r
+            where r.topico.id in :topicoIds
+            order by r.topico.id, r.id
+            """)
+    List<DadosMensagemResposta> listarMensagensDosTopicos(@Param("topicoIds") Collection<Long> topicoIds);
 }
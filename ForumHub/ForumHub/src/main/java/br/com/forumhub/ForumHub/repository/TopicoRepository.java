@@ -1,24 +1,62 @@
 package br.com.forumhub.ForumHub.repository;
 
 
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.dto.topico.DadosConteudoTopico;
+import br.com.forumhub.ForumHub.dto.topico.DadosIndexacaoTopico;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.dto.topico.DadosVersaoTopico;
 import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositório para a entidade Topico, responsável por realizar operações no banco de dados relacionadas aos tópicos.
  */
-public interface TopicoRepository extends JpaRepository<Topico, Long> {
+public interface TopicoRepository extends JpaRepository<Topico, Long>, TopicoRepositoryFiltrado {
+
+    // Projeção usada nas listagens paginadas por cursor, sem carregar as entidades
+    String SELECT_RESPONSE = "select new br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse(t.id, t.titulo, t.mensagem, t.dataCriacao, t.respostasCount, t.ultimaAtividade) from Topico t";
+
+    // Projeção usada na indexação da busca textual
+    String SELECT_INDEXACAO = "select new br.com.forumhub.ForumHub.dto.topico.DadosIndexacaoTopico(t.id, t.titulo, t.mensagem, c.nome, c.categoria, t.status, t.dataCriacao) from Topico t left join t.curso c";
 
     /**
-     * Busca um tópico pelo título e mensagem, ignorando diferenças entre maiúsculas e minúsculas.
+     * Busca um tópico pelo hash do título e da mensagem normalizados (consulta ao índice único).
      *
-     * @param titulo o título do tópico a ser buscado.
-     * @param mensagem a mensagem do tópico a ser buscada.
+     * @param hashConteudo o hash calculado por {@link Topico#calcularHashConteudo(String, String)}.
      * @return o tópico encontrado ou null caso nenhum tópico corresponda.
      */
-    Topico findByTituloAndMensagemIgnoreCase(String titulo, String mensagem);
+    Topico findByHashConteudo(String hashConteudo);
+
+    /**
+     * Verifica se já existe um tópico com o conteúdo informado.
+     *
+     * @param hashConteudo o hash calculado por {@link Topico#calcularHashConteudo(String, String)}.
+     * @return true se algum tópico tiver o mesmo hash.
+     */
+    boolean existsByHashConteudo(String hashConteudo);
+
+    /**
+     * Verifica se outro tópico, diferente do informado, já tem o conteúdo informado.
+     *
+     * @param hashConteudo o hash calculado por {@link Topico#calcularHashConteudo(String, String)}.
+     * @param id o ID do tópico desconsiderado na verificação.
+     * @return true se algum outro tópico tiver o mesmo hash.
+     */
+    boolean existsByHashConteudoAndIdNot(String hashConteudo, Long id);
 
     /**
      * Lista todos os tópicos paginados.
@@ -37,4 +75,331 @@ public interface TopicoRepository extends JpaRepository<Topico, Long> {
      */
     Page<Topico> findByAutorId(Long id, Pageable paginacao);
 
+    /**
+     * Lista os tópicos paginados, selecionando apenas as colunas de {@link DadosTopicoResponse}
+     * e sem carregar as entidades (nem o curso associado) no contexto de persistência.
+     * Retorna um {@link Slice}, sem o {@code count}; o total, quando necessário, vem do cache de contagens.
+     *
+     * @param paginacao informações de paginação.
+     * @return uma fatia contendo os tópicos encontrados.
+     */
+    @Query(SELECT_RESPONSE)
+    Slice<DadosTopicoResponse> listar(Pageable paginacao);
+
+    /**
+     * Lista os tópicos de um autor paginados, selecionando apenas as colunas de {@link DadosTopicoResponse}.
+     *
+     * @param autorId o ID do autor dos tópicos.
+     * @param paginacao informações de paginação.
+     * @return uma fatia contendo os tópicos do autor especificado.
+     */
+    @Query(SELECT_RESPONSE + " where t.autor.id = :autorId")
+    Slice<DadosTopicoResponse> listarDoAutor(@Param("autorId") Long autorId, Pageable paginacao);
+
+    /**
+     * Conta os tópicos de um autor.
+     *
+     * @param autorId o ID do autor.
+     * @return a quantidade de tópicos do autor.
+     */
+    long countByAutorId(Long autorId);
+
+    /**
+     * Lista a primeira página de tópicos em ordem de criação, já projetados em DTOs (paginação por chave).
+     *
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos mais antigos.
+     */
+    @Query(SELECT_RESPONSE + " order by t.dataCriacao, t.id")
+    List<DadosTopicoResponse> listarPrimeiros(Limit limite);
+
+    /**
+     * Lista os tópicos posteriores à posição informada, em ordem de criação.
+     *
+     * @param dataCriacao data de criação do último tópico da página anterior.
+     * @param id ID do último tópico da página anterior.
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos seguintes.
+     */
+    @Query(SELECT_RESPONSE + " where (t.dataCriacao, t.id) > (:dataCriacao, :id) order by t.dataCriacao, t.id")
+    List<DadosTopicoResponse> listarApos(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Limit limite);
+
+    /**
+     * Lista os tópicos anteriores à posição informada, do mais recente para o mais antigo.
+     *
+     * @param dataCriacao data de criação do primeiro tópico da página atual.
+     * @param id ID do primeiro tópico da página atual.
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos anteriores.
+     */
+    @Query(SELECT_RESPONSE + " where (t.dataCriacao, t.id) < (:dataCriacao, :id) order by t.dataCriacao desc, t.id desc")
+    List<DadosTopicoResponse> listarAntes(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Limit limite);
+
+    /**
+     * Lista a primeira página de tópicos de um autor em ordem de criação (paginação por chave).
+     *
+     * @param autorId o ID do autor.
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos mais antigos do autor.
+     */
+    @Query(SELECT_RESPONSE + " where t.autor.id = :autorId order by t.dataCriacao, t.id")
+    List<DadosTopicoResponse> listarPrimeirosDoAutor(@Param("autorId") Long autorId, Limit limite);
+
+    /**
+     * Lista os tópicos de um autor posteriores à posição informada, em ordem de criação.
+     *
+     * @param autorId o ID do autor.
+     * @param dataCriacao data de criação do último tópico da página anterior.
+     * @param id ID do último tópico da página anterior.
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos seguintes do autor.
+     */
+    @Query(SELECT_RESPONSE + " where t.autor.id = :autorId and (t.dataCriacao, t.id) > (:dataCriacao, :id) order by t.dataCriacao, t.id")
+    List<DadosTopicoResponse> listarDoAutorApos(@Param("autorId") Long autorId, @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                @Param("id") Long id, Limit limite);
+
+    /**
+     * Lista os tópicos de um autor anteriores à posição informada, do mais recente para o mais antigo.
+     *
+     * @param autorId o ID do autor.
+     * @param dataCriacao data de criação do primeiro tópico da página atual.
+     * @param id ID do primeiro tópico da página atual.
+     * @param limite quantidade máxima de tópicos.
+     * @return os tópicos anteriores do autor.
+     */
+    @Query(SELECT_RESPONSE + " where t.autor.id = :autorId and (t.dataCriacao, t.id) < (:dataCriacao, :id) order by t.dataCriacao desc, t.id desc")
+    List<DadosTopicoResponse> listarDoAutorAntes(@Param("autorId") Long autorId, @Param("dataCriacao") LocalDateTime dataCriacao,
+                                                 @Param("id") Long id, Limit limite);
+
+    /**
+     * Registra uma nova resposta no tópico, incrementando o contador, a versão e a última atividade
+     * em um único comando, sem carregar o tópico nem as respostas.
+     *
+     * @param id o ID do tópico.
+     * @param atividade data e hora da resposta.
+     * @param atualizacao data e hora da resposta em UTC.
+     * @return a quantidade de tópicos atualizados.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Topico t set
+                t.respostasCount = t.respostasCount + 1,
+                t.ultimaAtividade = :atividade,
+                t.versao = t.versao + 1,
+                t.dataAtualizacao = :atualizacao
+            where t.id = :id
+            """)
+    int registrarResposta(@Param("id") Long id, @Param("atividade") LocalDateTime atividade,
+                          @Param("atualizacao") LocalDateTime atualizacao);
+
+    /**
+     * Registra uma nova resposta e, no mesmo comando, altera o status do tópico, desde que o status
+     * ainda seja o esperado (transição condicional). A versão é incrementada junto com o status.
+     *
+     * @param id o ID do tópico.
+     * @param atividade data e hora da resposta.
+     * @param atualizacao data e hora da resposta em UTC.
+     * @param esperado o status lido antes da transição.
+     * @param novo o status após a transição.
+     * @return 1 se a transição foi aplicada, ou 0 se o status foi alterado por outra requisição.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Topico t set
+                t.respostasCount = t.respostasCount + 1,
+                t.ultimaAtividade = :atividade,
+                t.status = :novo,
+                t.versao = t.versao + 1,
+                t.dataAtualizacao = :atualizacao
+            where t.id = :id and t.status = :esperado
+            """)
+    int registrarRespostaComStatus(@Param("id") Long id, @Param("atividade") LocalDateTime atividade,
+                                   @Param("atualizacao") LocalDateTime atualizacao,
+                                   @Param("esperado") StatusTopico esperado, @Param("novo") StatusTopico novo);
+
+    /**
+     * Busca apenas o status atual do tópico.
+     *
+     * @param id o ID do tópico.
+     * @return o status do tópico, se ele existir.
+     */
+    @Query("select t.status from Topico t where t.id = :id")
+    Optional<StatusTopico> buscarStatus(@Param("id") Long id);
+
+    /**
+     * Registra a remoção de uma resposta, decrementando o contador e incrementando a versão. Se era a última
+     * resposta, o status volta para {@code NAO_RESPONDIDO} no mesmo comando (as expressões do SET usam os
+     * valores anteriores).
+     *
+     * @param id o ID do tópico.
+     * @param semRespostas o status aplicado quando o tópico fica sem respostas.
+     * @param atualizacao data e hora da remoção em UTC.
+     * @return a quantidade de tópicos atualizados.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Topico t set
+                t.status = case when t.respostasCount = 1 then :semRespostas else t.status end,
+                t.versao = t.versao + 1,
+                t.dataAtualizacao = :atualizacao,
+                t.respostasCount = t.respostasCount - 1
+            where t.id = :id and t.respostasCount > 0
+            """)
+    int registrarRemocaoDeResposta(@Param("id") Long id, @Param("semRespostas") StatusTopico semRespostas,
+                                   @Param("atualizacao") LocalDateTime atualizacao);
+
+    /**
+     * Registra a edição de uma resposta, incrementando a versão do tópico, que identifica também o conteúdo
+     * das suas respostas.
+     *
+     * @param id o ID do tópico.
+     * @param atualizacao data e hora da edição em UTC.
+     * @return a quantidade de tópicos atualizados.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Topico t set t.versao = t.versao + 1, t.dataAtualizacao = :atualizacao where t.id = :id")
+    int registrarAlteracaoDeResposta(@Param("id") Long id, @Param("atualizacao") LocalDateTime atualizacao);
+
+    /**
+     * Registra a mudança de nome de um usuário nos tópicos que exibem o nome dele: os que ele publicou e os
+     * que ele respondeu. A versão é incrementada para que o ETag e o Last-Modified desses tópicos mudem.
+     *
+     * @param autorId o ID do usuário renomeado.
+     * @param atualizacao data e hora da mudança em UTC.
+     * @return a quantidade de tópicos atualizados.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Topico t set t.versao = t.versao + 1, t.dataAtualizacao = :atualizacao
+            where t.autor.id = :autorId
+               or exists (select 1 from Resposta r where r.topico = t and r.autor.id = :autorId)
+            """)
+    int registrarAutorRenomeado(@Param("autorId") Long autorId, @Param("atualizacao") LocalDateTime atualizacao);
+
+    /**
+     * Busca apenas a versão e a data da última alteração do tópico, para responder às requisições
+     * condicionais pela chave primária, sem carregar o tópico nem as respostas.
+     *
+     * @param id o ID do tópico.
+     * @return a versão do tópico, se ele existir.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.topico.DadosVersaoTopico(t.id, t.versao, t.dataAtualizacao) from Topico t where t.id = :id")
+    Optional<DadosVersaoTopico> buscarVersao(@Param("id") Long id);
+
+    /**
+     * Bloqueia, em ordem de ID, os tópicos a conferir pela reconciliação dos contadores: os alterados a partir
+     * do instante informado, já que toda resposta criada ou removida pela API avança a data de atualização.
+     * Enquanto a transação não termina, as respostas novas desses tópicos esperam pelo bloqueio para incrementar
+     * o contador. Os tópicos gravados antes da criação das colunas são preenchidos pela migração V7.
+     *
+     * @param desde o início da janela de tópicos alterados, em UTC.
+     * @return os IDs dos tópicos bloqueados.
+     */
+    @Query(nativeQuery = true, value = """
+            select id from topicos
+            where data_atualizacao >= :desde
+            order by id
+            for update
+            """)
+    List<Long> bloquearParaReconciliacao(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Recalcula o contador de respostas e a última atividade dos tópicos informados que divergem das respostas
+     * existentes. Os tópicos devem estar bloqueados por {@link #bloquearParaReconciliacao(LocalDateTime)} em um
+     * comando anterior da mesma transação: as contagens deste comando veem então todas as respostas confirmadas
+     * até o bloqueio, e nenhum incremento concorrente é sobrescrito.
+     *
+     * @param ids os IDs dos tópicos bloqueados.
+     * @return a quantidade de tópicos corrigidos.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            update topicos t set
+                respostas_count = (select count(*) from respostas r where r.topico_id = t.id),
+                ultima_atividade = coalesce((select max(r.data_criacao) from respostas r where r.topico_id = t.id), t.data_criacao)
+            where t.id in (:ids)
+              and (t.ultima_atividade is null or t.respostas_count <> (select count(*) from respostas r where r.topico_id = t.id))
+            """)
+    int reconciliarContadores(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lista, em ordem de ID, os tópicos posteriores ao ID informado que ainda não têm o hash de conteúdo.
+     *
+     * @param id o último ID já processado.
+     * @param limite a quantidade máxima de tópicos.
+     * @return o título e a mensagem dos tópicos encontrados.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.topico.DadosConteudoTopico(t.id, t.titulo, t.mensagem) from Topico t where t.hashConteudo is null and t.id > :id order by t.id")
+    List<DadosConteudoTopico> listarSemHashConteudo(@Param("id") Long id, Limit limite);
+
+    /**
+     * Lista, em ordem de ID, o título e a mensagem dos tópicos posteriores ao ID informado.
+     *
+     * @param id o último ID já processado.
+     * @param limite a quantidade máxima de tópicos.
+     * @return o título e a mensagem dos tópicos encontrados.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.topico.DadosConteudoTopico(t.id, t.titulo, t.mensagem) from Topico t where t.id > :id order by t.id")
+    List<DadosConteudoTopico> listarConteudo(@Param("id") Long id, Limit limite);
+
+    /**
+     * Lista, em ordem de ID, o título e a quantidade de respostas dos tópicos posteriores ao ID informado,
+     * para a montagem do autocompletar em lotes.
+     *
+     * @param id o último ID já processado.
+     * @param limite a quantidade máxima de tópicos.
+     * @return o ID, o título e a quantidade de respostas dos tópicos encontrados.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao(t.id, t.titulo, cast(t.respostasCount as Long)) from Topico t where t.id > :id and t.titulo is not null order by t.id")
+    List<DadosSugestao> listarParaSugestao(@Param("id") Long id, Limit limite);
+
+    /**
+     * Lista, em ordem de ID, os dados indexados pela busca textual dos tópicos posteriores ao ID informado.
+     *
+     * @param id o último ID já processado.
+     * @param limite a quantidade máxima de tópicos.
+     * @return os dados dos tópicos encontrados.
+     */
+    @Query(SELECT_INDEXACAO + " where t.id > :id order by t.id")
+    List<DadosIndexacaoTopico> listarParaIndexacao(@Param("id") Long id, Limit limite);
+
+    /**
+     * Busca os dados indexados pela busca textual dos tópicos informados.
+     *
+     * @param ids os IDs dos tópicos.
+     * @return os dados dos tópicos que ainda existem.
+     */
+    @Query(SELECT_INDEXACAO + " where t.id in :ids")
+    List<DadosIndexacaoTopico> listarParaIndexacao(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lista os IDs dos tópicos criados ou alterados (edição, mudança de status ou alteração nas respostas)
+     * a partir do instante informado.
+     *
+     * @param desde o instante inicial, em UTC.
+     * @return os IDs dos tópicos.
+     */
+    @Query("select t.id from Topico t where t.dataAtualizacao >= :desde")
+    List<Long> listarIdsAlteradosDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Grava o hash de conteúdo de um tópico antigo, sem alterar a sua versão.
+     *
+     * @param id o ID do tópico.
+     * @param hashConteudo o hash calculado.
+     * @return a quantidade de tópicos atualizados.
+     */
+    @Modifying
+    @Query("update Topico t set t.hashConteudo = :hash where t.id = :id and t.hashConteudo is null")
+    int preencherHashConteudo(@Param("id") Long id, @Param("hash") String hashConteudo);
+
+    /**
+     * Busca um tópico com o autor e o curso carregados na mesma consulta, para a tela de detalhes.
+     *
+     * @param id o ID do tópico.
+     * @return o tópico encontrado, se existir.
+     */
+    @Query("select t from Topico t left join fetch t.autor left join fetch t.curso where t.id = :id")
+    Optional<Topico> buscarDetalhado(@Param("id") Long id);
+
 }
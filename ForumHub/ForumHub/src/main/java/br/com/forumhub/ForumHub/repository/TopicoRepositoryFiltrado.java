@@ -0,0 +1,27 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.dto.topico.DadosFiltroTopicos;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.infra.paginacao.Cursor;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+/**
+ * Consultas de {@link TopicoRepository} montadas conforme os filtros informados.
+ */
+public interface TopicoRepositoryFiltrado {
+
+    /**
+     * Lista os tópicos que atendem aos filtros, em ordem de criação, paginados por chave.
+     * A consulta inclui apenas as condições dos filtros informados, para que cada combinação
+     * use o índice composto que começa pelas colunas filtradas e termina em {@code (data_criacao, id)}.
+     *
+     * @param filtro os filtros da listagem.
+     * @param cursor a posição a partir da qual listar, ou null para a primeira página.
+     * @param decrescente se a listagem volta a partir do cursor, em ordem decrescente.
+     * @param limite a quantidade máxima de tópicos.
+     * @return os tópicos encontrados, projetados em {@link DadosTopicoResponse}.
+     */
+    List<DadosTopicoResponse> listarFiltrados(DadosFiltroTopicos filtro, Cursor cursor, boolean decrescente, Limit limite);
+}
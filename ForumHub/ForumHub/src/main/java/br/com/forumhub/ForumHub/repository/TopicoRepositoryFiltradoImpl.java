@@ -0,0 +1,58 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.dto.topico.DadosFiltroTopicos;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.infra.paginacao.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Implementação de {@link TopicoRepositoryFiltrado}, que monta a consulta JPQL apenas com as condições
+ * dos filtros informados, em vez de uma única consulta com condições do tipo {@code (:status is null or ...)},
+ * que impediriam o banco de escolher o índice adequado a cada combinação.
+ */
+public class TopicoRepositoryFiltradoImpl implements TopicoRepositoryFiltrado {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DadosTopicoResponse> listarFiltrados(DadosFiltroTopicos filtro, Cursor cursor, boolean decrescente, Limit limite) {
+        var condicoes = new ArrayList<String>();
+        var parametros = new HashMap<String, Object>();
+
+        if (filtro.cursoIds() != null) {
+            condicoes.add("t.curso.id in :cursoIds");
+            parametros.put("cursoIds", filtro.cursoIds());
+        }
+        if (filtro.status() != null) {
+            condicoes.add("t.status = :status");
+            parametros.put("status", filtro.status());
+        }
+        if (filtro.autorId() != null) {
+            condicoes.add("t.autor.id = :autorId");
+            parametros.put("autorId", filtro.autorId());
+        }
+        if (cursor != null) {
+            condicoes.add(decrescente ? "(t.dataCriacao, t.id) < (:dataCriacao, :id)" : "(t.dataCriacao, t.id) > (:dataCriacao, :id)");
+            parametros.put("dataCriacao", cursor.dataCriacao());
+            parametros.put("id", cursor.id());
+        }
+
+        var jpql = new StringBuilder(TopicoRepository.SELECT_RESPONSE);
+        if (!condicoes.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", condicoes));
+        }
+        jpql.append(decrescente ? " order by t.dataCriacao desc, t.id desc" : " order by t.dataCriacao, t.id");
+
+        var consulta = entityManager.createQuery(jpql.toString(), DadosTopicoResponse.class)
+                .setMaxResults(limite.max());
+        parametros.forEach(consulta::setParameter);
+        return consulta.getResultList();
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.forumhub.ForumHub.repository;
 
+import br.com.forumhub.ForumHub.dto.usuario.DadosNome;
 import br.com.forumhub.ForumHub.model.entities.Usuario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -13,4 +18,38 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     Page<Usuario> findByAtivoTrue(Pageable pageable);
 
+    /**
+     * Lista os nomes dos usuários ativos, selecionando apenas a coluna necessária,
+     * sem carregar as entidades (e o hash da senha) no contexto de persistência.
+     * Retorna um {@link Slice}, sem o {@code count}; o total, quando necessário, vem do cache de contagens.
+     *
+     * @param pageable informações de paginação.
+     * @return uma fatia com os nomes dos usuários ativos.
+     */
+    @Query("select new br.com.forumhub.ForumHub.dto.usuario.DadosNome(u.nome) from Usuario u where u.ativo = true")
+    Slice<DadosNome> listarNomesAtivos(Pageable pageable);
+
+    long countByAtivoTrue();
+
+    /**
+     * Atualiza nome e senha do usuário diretamente no banco, sem precisar carregá-lo.
+     * Valores nulos mantêm o dado atual.
+     *
+     * @param id o ID do usuário.
+     * @param nome o novo nome.
+     * @param senha a nova senha já criptografada.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Usuario u set u.nome = coalesce(:nome, u.nome), u.senha = coalesce(:senha, u.senha) where u.id = :id")
+    void atualizarDados(@Param("id") Long id, @Param("nome") String nome, @Param("senha") String senha);
+
+    /**
+     * Marca o usuário como inativo diretamente no banco, sem precisar carregá-lo.
+     *
+     * @param id o ID do usuário.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Usuario u set u.ativo = false where u.id = :id")
+    void desativar(@Param("id") Long id);
+
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package br.com.forumhub.ForumHub.service;
 
+import br.com.forumhub.ForumHub.infra.security.UsuarioCredenciais;
 import br.com.forumhub.ForumHub.repository.UsuarioRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Serviço que carrega os usuários para autenticação, diretamente do banco, já que o hash da senha
+ * não fica no cache de usuários. Também recebe do Spring Security o novo hash da senha quando o
+ * custo do BCrypt configurado muda, recalculado de forma transparente no login.
+ */
 @Service
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -16,6 +24,16 @@ public class AutenticacaoService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return usuarioRepository.findByEmail(username)
+                .map(UsuarioCredenciais::new)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var credenciais = (UsuarioCredenciais) user;
+        usuarioRepository.atualizarDados(credenciais.id(), null, newPassword);
+
+        return new UsuarioCredenciais(credenciais.id(), credenciais.nome(), credenciais.email(), newPassword, credenciais.ativo());
+    }
 }
@@ -1,11 +1,16 @@
 package br.com.forumhub.ForumHub.service;
 
 
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.infra.sugestao.IndiceDeSugestoes;
 import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
 import br.com.forumhub.ForumHub.repository.CursoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Serviço responsável pela lógica de negócios relacionada aos cursos.
  * Interage com o repositório de cursos para realizar operações no banco de dados.
@@ -17,6 +22,9 @@ public class CursoService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private IndiceDeSugestoes indiceDeSugestoes;
+
     /**
      * Busca um curso pelo ID.
      * Se o curso não for encontrado, retorna null.
@@ -30,11 +38,34 @@ public class CursoService {
 
     /**
      * Busca um curso pelo nome, ignorando a diferença entre maiúsculas e minúsculas.
+     * O nome exato é resolvido pelo cache de IDs naturais; outra grafia, pela consulta em cache.
      *
      * @param nome o nome do curso a ser buscado
      * @return o curso encontrado ou null se não encontrado
      */
     public Curso buscarPorNome(String nome) {
-        return cursoRepository.findByNomeIgnoreCase(nome);
+        return cursoRepository.buscarPorNomeExato(nome)
+                .orElseGet(() -> cursoRepository.findByNomeIgnoreCase(nome));
+    }
+
+    /**
+     * Lista os IDs dos cursos de uma categoria.
+     *
+     * @param categoria a categoria dos cursos
+     * @return os IDs dos cursos da categoria
+     */
+    public List<Long> listarIdsPorCategoria(Categoria categoria) {
+        return cursoRepository.listarIdsPorCategoria(categoria);
+    }
+
+    /**
+     * Sugere nomes de cursos que começam com o texto digitado, para o autocompletar.
+     *
+     * @param prefixo o texto digitado
+     * @param limite a quantidade máxima de sugestões
+     * @return os cursos sugeridos, dos com mais tópicos para os com menos
+     */
+    public List<DadosSugestao> sugerirNomes(String prefixo, int limite) {
+        return indiceDeSugestoes.sugerirCursos(prefixo, limite);
     }
 }
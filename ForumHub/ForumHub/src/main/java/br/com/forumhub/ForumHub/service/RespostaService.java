@@ -3,6 +3,9 @@ package br.com.forumhub.ForumHub.service;
 import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaAtualizacao;
 import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaCadastro;
 import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse;
+import br.com.forumhub.ForumHub.infra.busca.IndiceDeBusca;
+import br.com.forumhub.ForumHub.infra.cache.BarramentoDeInvalidacao;
+import br.com.forumhub.ForumHub.infra.cache.RespostaHttpCache;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
 import br.com.forumhub.ForumHub.model.entities.Resposta;
 import br.com.forumhub.ForumHub.repository.RespostaRepository;
@@ -26,6 +29,15 @@ public class RespostaService {
     @Autowired
     private TopicoService topicoService;
 
+    @Autowired
+    private IndiceDeBusca indiceDeBusca;
+
+    @Autowired
+    private RespostaHttpCache respostaHttpCache;
+
+    @Autowired
+    private BarramentoDeInvalidacao barramentoDeInvalidacao;
+
     public Optional<DadosRespostaResponse> buscarDtoPorId(Long id) {
         return respostaRepository.findById(id)
                 .map(DadosRespostaResponse::fromResposta); // Correto: converte a entidade Resposta para o DTO
@@ -38,14 +50,18 @@ public class RespostaService {
         var topico = Optional.ofNullable(topicoService.buscarPorId(id))
                 .orElseThrow(() -> new ValidacaoException("Tópico não encontrado"));
 
-        topicoService.atualizarStatusTopico(topico);
         var usuario = usuarioService.usuarioAtual();
 
-        var respostaCriada = new Resposta(dados, topico, usuario);
+        var respostaCriada = new Resposta(dados, topico, usuarioService.referenciaUsuarioAtual());
         var respostaSalva = respostaRepository.save(respostaCriada);
-
-        // Converta a entidade Resposta para o DTO DadosRespostaResponse
-        return DadosRespostaResponse.fromResposta(respostaSalva);
+        topicoService.registrarResposta(topico.getId(), respostaSalva.getDataCriacao());
+        indiceDeBusca.agendar(topico.getId());
+        respostaHttpCache.invalidarTopico(topico.getId());
+        barramentoDeInvalidacao.topicoAlterado(topico.getId());
+
+        // O nome do autor vem do principal, evitando inicializar a referência ao usuário
+        return new DadosRespostaResponse(respostaSalva.getId(), respostaSalva.getMensagem(),
+                respostaSalva.getSolucao(), usuario.nome(), respostaSalva.getDataCriacao());
     }
 
     @Transactional
@@ -59,11 +75,15 @@ public class RespostaService {
         resposta.atualizar(dadosAtualizacao);
 
         respostaRepository.save(resposta);
+        topicoService.registrarAlteracaoDeResposta(resposta.getTopico().getId());
+        indiceDeBusca.agendar(resposta.getTopico().getId());
+        respostaHttpCache.invalidarTopico(resposta.getTopico().getId());
+        barramentoDeInvalidacao.topicoAlterado(resposta.getTopico().getId());
         return DadosRespostaResponse.fromResposta(resposta);
     }
 
     private void verificarUsuario(Resposta resposta) {
-        if (!usuarioService.usuarioAtual().equals(resposta.getAutor())) {
+        if (!usuarioService.usuarioAtual().id().equals(resposta.getAutor().getId())) {
             throw new ValidacaoException("Você não tem permissão para fazer essa operação");
         }
     }
@@ -78,6 +98,9 @@ public class RespostaService {
         verificarUsuario(resposta);
         respostaRepository.delete(resposta);
 
-        topicoService.decrementarStatus(resposta.getTopico());
+        topicoService.decrementarStatus(resposta.getTopico().getId());
+        indiceDeBusca.agendar(resposta.getTopico().getId());
+        respostaHttpCache.invalidarTopico(resposta.getTopico().getId());
+        barramentoDeInvalidacao.topicoAlterado(resposta.getTopico().getId());
     }
 }
\ No newline at end of file
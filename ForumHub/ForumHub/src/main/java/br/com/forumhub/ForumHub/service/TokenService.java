@@ -1,15 +1,27 @@
 package br.com.forumhub.ForumHub.service;
 
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
 import br.com.forumhub.ForumHub.model.entities.Usuario;
 import com.auth0.jwt.JWT;  // Importação correta
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Base64;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,35 +30,102 @@ import org.slf4j.LoggerFactory;
 /**
  * Serviço responsável pela geração e validação de tokens JWT.
  * Utiliza o algoritmo HMAC256 para assinatura e validação dos tokens.
+ *
+ * Tokens já verificados ficam em um cache limitado (chaveado pelo SHA-256 do token)
+ * até o instante de expiração de cada um, e tokens rejeitados ficam por um curto
+ * período em um cache negativo, evitando refazer a verificação HMAC a cada requisição.
  */
 @Service
 public class TokenService {
 
+    private static final String EMISSOR = "ForumHub";
+
+    // Claims que tornam o token autossuficiente para montar o principal sem consultar o banco
+    private static final String CLAIM_ID = "id";
+    private static final String CLAIM_NOME = "nome";
+    private static final String CLAIM_ATIVO = "ativo";
+
     // Chave secreta para gerar o token, extraída das configurações da aplicação
     @Value("${api.security.token.secret}")
     private String secret;
 
+    // Quantidade máxima de tokens válidos mantidos em cache
+    @Value("${api.security.token.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximoCache;
+
+    // Quantidade máxima de tokens inválidos mantidos em cache
+    @Value("${api.security.token.cache.negativo.tamanho-maximo:10000}")
+    private long tamanhoMaximoCacheNegativo;
+
+    // Tempo durante o qual um token rejeitado não é verificado novamente
+    @Value("${api.security.token.cache.negativo.duracao:PT1M}")
+    private Duration duracaoCacheNegativo;
+
+    // Algoritmo e verificador são imutáveis e thread-safe, portanto criados uma única vez
+    private Algorithm algoritmo;
+    private JWTVerifier verificador;
+
+    // Tokens verificados, removidos automaticamente no instante de expiração do token
+    private Cache<String, DecodedJWT> tokensValidos;
+
+    // Tokens rejeitados recentemente
+    private Cache<String, Boolean> tokensInvalidos;
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    /**
+     * Inicializa o algoritmo, o verificador e os caches de tokens.
+     */
+    @PostConstruct
+    void inicializar() {
+        this.algoritmo = Algorithm.HMAC256(secret);
+        this.verificador = JWT.require(algoritmo)
+                .withIssuer(EMISSOR)
+                .build();
+
+        this.tokensValidos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new ExpiracaoDoToken())
+                .build();
+
+        this.tokensInvalidos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCacheNegativo)
+                .expireAfterWrite(duracaoCacheNegativo)
+                .build();
+    }
+
     /**
      * Gera um token JWT para o usuário fornecido.
      * O token é assinado com a chave secreta e tem um tempo de expiração de 2 horas.
+     * Além do email (sujeito), carrega o ID, o nome e o estado do usuário.
      *
      * @param usuario o usuário para o qual o token será gerado
      * @return o token JWT gerado
      */
-    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
-
     public String gerarToken(Usuario usuario) {
+        return gerarToken(new UsuarioAutenticado(usuario));
+    }
+
+    /**
+     * Gera um token JWT para o usuário autenticado fornecido.
+     *
+     * @param usuario o usuário para o qual o token será gerado
+     * @return o token JWT gerado
+     */
+    public String gerarToken(UsuarioAutenticado usuario) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            logger.info("Gerando token para o usuário: {}", usuario.getEmail());
+            logger.info("Gerando token para o usuário: {}", usuario.email());
 
             return JWT.create()
-                    .withIssuer("ForumHub")
-                    .withSubject(usuario.getEmail())
+                    .withIssuer(EMISSOR)
+                    .withSubject(usuario.email())
+                    .withClaim(CLAIM_ID, usuario.id())
+                    .withClaim(CLAIM_NOME, usuario.nome())
+                    .withClaim(CLAIM_ATIVO, usuario.ativo())
                     .withExpiresAt(dataExpiracao())
                     .sign(algoritmo);
         } catch (Exception e) {
-            logger.error("Erro ao gerar token para o usuário: {}", usuario.getEmail(), e);
+            logger.error("Erro ao gerar token para o usuário: {}", usuario.email(), e);
             throw new RuntimeException("Erro ao gerar token", e);
         }
     }
@@ -62,16 +141,108 @@ public class TokenService {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
 
-    public String getSujeito(String tpkenJWT) {
-        try{
-            return JWT.require(Algorithm.HMAC256(secret))
-                    .withIssuer("ForumHub")
-                    .build()
-                    .verify(tpkenJWT)
-                    .getSubject();
-        } catch (JWTCreationException exception){
-            throw new RuntimeException("Erro ao verificar token", exception);
+    /**
+     * Recupera o sujeito (email do usuário) de um token JWT.
+     * O token só é verificado na primeira vez em que aparece; as chamadas seguintes
+     * são atendidas pelo cache até a expiração do token.
+     *
+     * @param tokenJWT o token JWT recebido na requisição
+     * @return o sujeito do token, ou {@code null} se o token for inválido ou estiver expirado
+     */
+    public String getSujeito(String tokenJWT) {
+        var token = verificar(tokenJWT);
+        return token != null ? token.getSubject() : null;
+    }
+
+    /**
+     * Monta o usuário autenticado a partir das claims do token, sem acesso ao banco de dados.
+     *
+     * @param tokenJWT o token JWT recebido na requisição
+     * @return o usuário autenticado, ou {@code null} se o token for inválido ou tiver sido
+     * emitido no formato antigo, que carrega apenas o email
+     */
+    public UsuarioAutenticado getUsuarioAutenticado(String tokenJWT) {
+        var token = verificar(tokenJWT);
+        if (token == null || token.getClaim(CLAIM_ID).isMissing()) {
+            return null;
+        }
+
+        return new UsuarioAutenticado(
+                token.getClaim(CLAIM_ID).asLong(),
+                token.getSubject(),
+                token.getClaim(CLAIM_NOME).asString(),
+                Boolean.TRUE.equals(token.getClaim(CLAIM_ATIVO).asBoolean())
+        );
+    }
+
+    /**
+     * Verifica o token consultando primeiro os caches de tokens válidos e inválidos.
+     *
+     * @param tokenJWT o token JWT recebido na requisição
+     * @return o token decodificado, ou {@code null} se o token for inválido
+     */
+    private DecodedJWT verificar(String tokenJWT) {
+        var chave = resumo(tokenJWT);
+
+        var emCache = tokensValidos.getIfPresent(chave);
+        if (emCache != null) {
+            return emCache;
+        }
+
+        if (tokensInvalidos.getIfPresent(chave) != null) {
+            return null;
+        }
+
+        try {
+            var decodificado = verificador.verify(tokenJWT);
+            tokensValidos.put(chave, decodificado);
+            return decodificado;
+        } catch (JWTVerificationException exception) {
+            logger.debug("Token JWT rejeitado: {}", exception.getMessage());
+            tokensInvalidos.put(chave, Boolean.TRUE);
+            return null;
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Calcula o resumo SHA-256 do token, usado como chave dos caches para que o token
+     * original não fique retido em memória.
+     *
+     * @param tokenJWT o token JWT
+     * @return o resumo do token codificado em Base64
+     */
+    private static String resumo(String tokenJWT) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(tokenJWT.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Política de expiração que mantém cada token em cache somente até o seu {@code exp}.
+     */
+    private static class ExpiracaoDoToken implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String chave, DecodedJWT token, long tempoAtual) {
+            var expiracao = token.getExpiresAtAsInstant();
+            if (expiracao == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiracao).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, DecodedJWT token, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+
+        @Override
+        public long expireAfterRead(String chave, DecodedJWT token, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -1,24 +1,51 @@
 package br.com.forumhub.ForumHub.service;
 
 
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
+import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaResponse;
+import br.com.forumhub.ForumHub.dto.sugestao.DadosSugestao;
+import br.com.forumhub.ForumHub.dto.topico.DadosFiltroTopicos;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoAtualizacao;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoDetalhado;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoDetalhadoVersionado;
 import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.dto.topico.DadosVersaoTopico;
+import br.com.forumhub.ForumHub.dto.topico.DadosResultadoBusca;
+import br.com.forumhub.ForumHub.infra.busca.IndiceDeBusca;
+import br.com.forumhub.ForumHub.infra.cache.BarramentoDeInvalidacao;
+import br.com.forumhub.ForumHub.infra.cache.ContagemCache;
+import br.com.forumhub.ForumHub.infra.cache.RespostaHttpCache;
+import br.com.forumhub.ForumHub.infra.exception.ConflitoException;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.infra.paginacao.Cursor;
+import br.com.forumhub.ForumHub.infra.paginacao.PaginacaoPorCursor;
+import br.com.forumhub.ForumHub.infra.similaridade.IndiceDeSimilaridade;
+import br.com.forumhub.ForumHub.infra.sugestao.IndiceDeSugestoes;
+import br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao.ContextoAtualizacaoTopico;
 import br.com.forumhub.ForumHub.infra.validacaoEtopico.atualizacao.ValidacaoAtualizacaoTopico;
+import br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao.ContextoCriacaoTopico;
 import br.com.forumhub.ForumHub.infra.validacaoEtopico.criacao.ValidacaoCriacaodeTopico;
 import br.com.forumhub.ForumHub.model.entities.Curso;
 import br.com.forumhub.ForumHub.model.entities.Topico;
 import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
 import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.RespostaRepository;
 import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Serviço responsável pela gestão de tópicos no sistema.
@@ -31,9 +58,37 @@ public class TopicoService {
     @Autowired
     private TopicoRepository topicoRepository;
 
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    // Quantidade de respostas incluídas no detalhe do tópico; as demais são obtidas pelo cursor
+    @Value("${api.paginacao.respostas.tamanho:20}")
+    private int tamanhoPaginaRespostas;
+
     @Autowired
     private CursoService cursoService;
 
+    @Autowired
+    private ContagemCache contagemCache;
+
+    @Autowired
+    private IndiceDeSimilaridade indiceDeSimilaridade;
+
+    @Autowired
+    private IndiceDeBusca indiceDeBusca;
+
+    @Autowired
+    private IndiceDeSugestoes indiceDeSugestoes;
+
+    @Autowired
+    private RespostaHttpCache respostaHttpCache;
+
+    @Autowired
+    private BarramentoDeInvalidacao barramentoDeInvalidacao;
+
+    // Quantidade de tentativas de uma transição de status condicional antes de desistir
+    private static final int TENTATIVAS_TRANSICAO = 5;
+
     @Autowired
     private UsuarioService usuarioService;
 
@@ -57,14 +112,16 @@ public class TopicoService {
         // Verifica se o usuário atual está ativo antes de permitir a criação
         usuarioService.verificarSeUsuarioEstaAtivo();
 
-        // Realiza as validações específicas para criação do tópico
-        validacoesCriacao.forEach(validacao -> validacao.validar(cadastro));
+        // Realiza as validações específicas para criação do tópico, compartilhando o curso carregado
+        var contexto = new ContextoCriacaoTopico(cadastro, usuarioService.usuarioAtual(),
+                () -> cursoService.buscarPorNome(cadastro.nomeCurso()));
+        validacoesCriacao.forEach(validacao -> validacao.validar(contexto));
 
-        // Busca o curso pelo nome
-        Curso curso = cursoService.buscarPorNome(cadastro.nomeCurso());
+        // Reaproveita o curso já buscado pelas validações
+        Curso curso = contexto.getCurso();
 
         // Obtém o usuário atual como autor
-        Usuario autor = usuarioService.usuarioAtual();
+        Usuario autor = usuarioService.referenciaUsuarioAtual();
 
         // Cria o novo tópico
         Topico topico = new Topico(cadastro, curso, autor);
@@ -72,6 +129,19 @@ public class TopicoService {
         // Salva o tópico no repositório
         Topico newTopico = topicoRepository.save(topico);
 
+        // Atualiza os totais das listagens em cache
+        contagemCache.ajustar(ContagemCache.TOPICOS, 1);
+        contagemCache.ajustar(ContagemCache.topicosDoAutor(autor.getId()), 1);
+
+        // Registra o novo tópico no índice de tópicos semelhantes
+        var conteudo = BarramentoDeInvalidacao.ConteudoDoTopico.de(newTopico);
+        indiceDeSimilaridade.incluir(newTopico.getId(), conteudo.assinatura());
+        indiceDeBusca.agendar(newTopico.getId());
+        indiceDeSugestoes.incluirTopico(newTopico.getId(), conteudo.titulo(), conteudo.cursoId(), conteudo.nomeCurso());
+        respostaHttpCache.invalidarTopicoEListagens(newTopico.getId());
+        barramentoDeInvalidacao.topicoCriadoOuRemovido(newTopico.getId());
+        barramentoDeInvalidacao.conteudoAlterado(newTopico.getId(), null, conteudo);
+
         // Retorna a resposta com os dados do tópico criado
         return parseDadosTopicoResponse(newTopico);
     }
@@ -87,24 +157,61 @@ public class TopicoService {
     }
 
     /**
-     * Busca um tópico pelo título e mensagem, ignorando maiúsculas e minúsculas.
+     * Busca um tópico pelo título e mensagem, ignorando maiúsculas, minúsculas e diferenças de espaçamento.
      *
      * @param titulo título do tópico
      * @param mensagem mensagem do tópico
      * @return o tópico correspondente, ou null se não encontrado
      */
     public Topico buscarPorTituloEMensagem(String titulo, String mensagem) {
-        return topicoRepository.findByTituloAndMensagemIgnoreCase(titulo, mensagem);
+        return topicoRepository.findByHashConteudo(Topico.calcularHashConteudo(titulo, mensagem));
+    }
+
+    /**
+     * Sugere títulos de tópicos que começam com o texto digitado, para o autocompletar.
+     *
+     * @param prefixo o texto digitado
+     * @param limite a quantidade máxima de sugestões
+     * @return os títulos sugeridos, dos tópicos com mais respostas para os com menos
+     */
+    public List<DadosSugestao> sugerirTitulos(String prefixo, int limite) {
+        return indiceDeSugestoes.sugerirTopicos(prefixo, limite);
+    }
+
+    /**
+     * Busca os tópicos pelo texto do título, da mensagem e das respostas, ordenados por relevância.
+     *
+     * @param texto o texto da busca
+     * @param curso o nome do curso, ou null para todos
+     * @param categoria a categoria do curso, ou null para todas
+     * @param status o status do tópico, ou null para todos
+     * @param paginacao os parâmetros de paginação
+     * @return uma página de resultados, montada a partir do índice de busca
+     */
+    public Page<DadosResultadoBusca> buscarPorTexto(String texto, String curso, Categoria categoria, StatusTopico status, Pageable paginacao) {
+        return indiceDeBusca.buscar(texto, curso, categoria, status, paginacao);
     }
 
     /**
      * Busca todos os tópicos no sistema, com base na paginação fornecida.
      *
      * @param paginacao os parâmetros de paginação
-     * @return uma página de tópicos
+     * @return uma página de tópicos, já projetados em DTOs, com o total obtido do cache de contagens
+     */
+    public Page<DadosTopicoResponse> buscarTodos(Pageable paginacao) {
+        var fatia = topicoRepository.listar(paginacao);
+        return PageableExecutionUtils.getPage(fatia.getContent(), paginacao,
+                () -> contagemCache.contar(ContagemCache.TOPICOS, topicoRepository::count));
+    }
+
+    /**
+     * Busca os tópicos no sistema sem calcular o total de registros.
+     *
+     * @param paginacao os parâmetros de paginação
+     * @return uma fatia de tópicos, indicando apenas se existe uma próxima página
      */
-    public Page<Topico> buscarTodos(Pageable paginacao) {
-        return topicoRepository.findAll(paginacao);
+    public Slice<DadosTopicoResponse> buscarFatia(Pageable paginacao) {
+        return topicoRepository.listar(paginacao);
     }
 
     /**
@@ -117,6 +224,121 @@ public class TopicoService {
         return topicoRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Busca os detalhes de um tópico com um número fixo de consultas, independente da quantidade de respostas:
+     * uma para o tópico com autor e curso, e outra para a primeira página de respostas já projetadas em DTOs.
+     * A versão vem do tópico carregado na primeira consulta.
+     *
+     * @param id o ID do tópico
+     * @return os detalhes do tópico com a sua versão, ou null caso não seja encontrado
+     */
+    @Transactional
+    public DadosTopicoDetalhadoVersionado detalhar(Long id) {
+        return topicoRepository.buscarDetalhado(id)
+                .map(topico -> new DadosTopicoDetalhadoVersionado(
+                        new DadosTopicoDetalhado(topico, paginarRespostas(id, null, null, tamanhoPaginaRespostas)),
+                        new DadosVersaoTopico(topico.getId(), topico.getVersao(), topico.getDataAtualizacao())))
+                .orElse(null);
+    }
+
+    /**
+     * Busca apenas a versão do tópico, com uma consulta pela chave primária, para responder às
+     * requisições condicionais sem carregar o tópico nem as respostas.
+     *
+     * @param id o ID do tópico
+     * @return a versão do tópico, ou vazio se ele não existir
+     */
+    public Optional<DadosVersaoTopico> buscarVersao(Long id) {
+        return topicoRepository.buscarVersao(id);
+    }
+
+    /**
+     * Lista as respostas de um tópico paginadas por cursor, a partir da posição informada.
+     *
+     * @param id o ID do tópico
+     * @param after o cursor para avançar, ou null
+     * @param before o cursor para voltar, ou null
+     * @param tamanho a quantidade de respostas por página
+     * @return a página de respostas e os cursores das páginas vizinhas
+     * @throws EntityNotFoundException se o tópico não existir
+     */
+    @Transactional
+    public DadosPaginaCursor<DadosRespostaResponse> listarRespostas(Long id, String after, String before, int tamanho) {
+        var pagina = paginarRespostas(id, after, before, tamanho);
+
+        // Só verifica a existência do tópico quando não há respostas, evitando uma consulta extra nas demais páginas
+        if (pagina.conteudo().isEmpty() && !topicoRepository.existsById(id)) {
+            throw new EntityNotFoundException("Tópico não encontrado");
+        }
+
+        return pagina;
+    }
+
+    private DadosPaginaCursor<DadosRespostaResponse> paginarRespostas(Long id, String after, String before, int tamanho) {
+        return PaginacaoPorCursor.paginar(after, before, tamanho,
+                limite -> respostaRepository.listarPorTopico(id, limite),
+                (cursor, limite) -> respostaRepository.listarPorTopicoApos(id, cursor.dataCriacao(), cursor.id(), limite),
+                (cursor, limite) -> respostaRepository.listarPorTopicoAntes(id, cursor.dataCriacao(), cursor.id(), limite),
+                resposta -> new Cursor(resposta.dataCriacao(), resposta.id()));
+    }
+
+    /**
+     * Lista os tópicos em ordem de criação paginados por cursor, sem contar o total de registros.
+     *
+     * @param after o cursor para avançar, ou null
+     * @param before o cursor para voltar, ou null
+     * @param tamanho a quantidade de tópicos por página
+     * @return a página de tópicos e os cursores das páginas vizinhas
+     */
+    public DadosPaginaCursor<DadosTopicoResponse> listarPorCursor(String after, String before, int tamanho) {
+        return PaginacaoPorCursor.paginar(after, before, tamanho,
+                topicoRepository::listarPrimeiros,
+                (cursor, limite) -> topicoRepository.listarApos(cursor.dataCriacao(), cursor.id(), limite),
+                (cursor, limite) -> topicoRepository.listarAntes(cursor.dataCriacao(), cursor.id(), limite),
+                topico -> new Cursor(topico.dataCriacao(), topico.id()));
+    }
+
+    /**
+     * Lista os tópicos filtrados por curso, categoria, status e autor, em ordem de criação e paginados por cursor.
+     * O curso e a categoria são convertidos nos IDs dos cursos aceitos antes da consulta aos tópicos.
+     *
+     * @param curso o nome do curso, ou null
+     * @param categoria a categoria do curso, ou null
+     * @param status o status do tópico, ou null
+     * @param autorId o ID do autor, ou null
+     * @param after o cursor para avançar, ou null
+     * @param before o cursor para voltar, ou null
+     * @param tamanho a quantidade de tópicos por página
+     * @return a página de tópicos e os cursores das páginas vizinhas
+     * @throws ValidacaoException se o curso informado não existir
+     */
+    public DadosPaginaCursor<DadosTopicoResponse> listarFiltrados(String curso, Categoria categoria, StatusTopico status, Long autorId,
+                                                                  String after, String before, int tamanho) {
+        List<Long> cursoIds = null;
+        if (curso != null) {
+            var encontrado = cursoService.buscarPorNome(curso);
+            if (encontrado == null) {
+                throw new ValidacaoException("Curso não encontrado: " + curso);
+            }
+            cursoIds = categoria == null || encontrado.getCategoria() == categoria ? List.of(encontrado.getId()) : List.of();
+        } else if (categoria != null) {
+            cursoIds = cursoService.listarIdsPorCategoria(categoria);
+        }
+
+        var filtro = new DadosFiltroTopicos(cursoIds, status, autorId);
+        if (cursoIds != null && cursoIds.isEmpty()) {
+            // Nenhum curso atende aos filtros; a listagem é vazia sem consultar os tópicos
+            return PaginacaoPorCursor.paginar(after, before, tamanho, limite -> List.of(),
+                    (cursor, limite) -> List.of(), (cursor, limite) -> List.of(), topico -> null);
+        }
+
+        return PaginacaoPorCursor.paginar(after, before, tamanho,
+                limite -> topicoRepository.listarFiltrados(filtro, null, false, limite),
+                (cursor, limite) -> topicoRepository.listarFiltrados(filtro, cursor, false, limite),
+                (cursor, limite) -> topicoRepository.listarFiltrados(filtro, cursor, true, limite),
+                topico -> new Cursor(topico.dataCriacao(), topico.id()));
+    }
+
     /**
      * Atualiza um tópico existente no sistema.
      * Realiza as validações e atualiza os dados do tópico.
@@ -132,11 +354,23 @@ public class TopicoService {
         usuarioService.verificarSeUsuarioEstaAtivo();
 
         // Realiza as validações específicas para atualização do tópico
-        validacoesAtualizacao.forEach(validacao -> validacao.validar(id, atualizacao));
+        var contexto = new ContextoAtualizacaoTopico(id, atualizacao, usuarioService.usuarioAtual(),
+                () -> topicoRepository.findById(id).orElse(null));
+        validacoesAtualizacao.forEach(validacao -> validacao.validar(contexto));
 
-        // Busca o tópico pelo ID e atualiza seus dados
-        Topico topico = topicoRepository.findById(id).orElse(null);
+        // Reaproveita o tópico já carregado pelas validações e atualiza seus dados
+        Topico topico = contexto.getTopico();
+        var anterior = BarramentoDeInvalidacao.ConteudoDoTopico.de(topico);
         topico.atualizar(atualizacao);
+        var novo = BarramentoDeInvalidacao.ConteudoDoTopico.de(topico);
+
+        // Mantém o índice de tópicos semelhantes com o novo conteúdo
+        indiceDeSimilaridade.substituir(topico.getId(), anterior.assinatura(), novo.assinatura());
+        indiceDeBusca.agendar(topico.getId());
+        indiceDeSugestoes.substituirTitulo(topico.getId(), anterior.titulo(), novo.titulo(), novo.respostas());
+        respostaHttpCache.invalidarTopico(topico.getId());
+        barramentoDeInvalidacao.topicoAlterado(topico.getId());
+        barramentoDeInvalidacao.conteudoAlterado(topico.getId(), anterior, novo);
 
         // Retorna a resposta com os dados do tópico atualizado
         return new DadosTopicoResponse(topico);
@@ -158,44 +392,93 @@ public class TopicoService {
         Topico topico = topicoRepository.findById(id).orElse(null);
 
         // Verifica se o usuário atual é o autor do tópico antes de deletá-lo
-        if (topico != null && topico.getAutor() != usuarioService.usuarioAtual()) {
+        if (topico != null && !topico.getAutor().getId().equals(usuarioService.usuarioAtual().id())) {
             throw new ValidacaoException("Não foi possivel deletar o topico");
         }
 
         // Deleta o tópico do repositório
         topicoRepository.deleteById(id);
+
+        // Atualiza os totais das listagens em cache
+        if (topico != null) {
+            contagemCache.ajustar(ContagemCache.TOPICOS, -1);
+            contagemCache.ajustar(ContagemCache.topicosDoAutor(topico.getAutor().getId()), -1);
+            var anterior = BarramentoDeInvalidacao.ConteudoDoTopico.de(topico);
+            indiceDeSimilaridade.excluir(topico.getId(), anterior.assinatura());
+            indiceDeBusca.agendar(topico.getId());
+            indiceDeSugestoes.excluirTopico(topico.getId(), anterior.titulo(), anterior.cursoId(), anterior.nomeCurso());
+            respostaHttpCache.invalidarTopicoEListagens(topico.getId());
+            barramentoDeInvalidacao.topicoCriadoOuRemovido(topico.getId());
+            barramentoDeInvalidacao.conteudoAlterado(topico.getId(), anterior, null);
+        }
     }
 
     /**
-     * Atualiza o status de um tópico.
-     * Se o status for "Não Respondido", altera para "Não Solucionado", e vice-versa.
-     * Se o status for "Não Solucionado", altera para "Solucionado".
+     * Retorna o status resultante de uma nova resposta.
+     * Se o status for "Não Respondido", passa para "Não Solucionado".
+     * Se o status for "Não Solucionado", passa para "Solucionado".
+     * Nos demais casos, o status não muda.
      *
-     * @param topico o tópico que terá seu status alterado
+     * @param atual o status atual do tópico
+     * @return o novo status
+     */
+    private static StatusTopico statusAposResposta(StatusTopico atual) {
+        return switch (atual) {
+            case NAO_RESPONDIDO -> StatusTopico.NAO_SOLUCIONADO;
+            case NAO_SOLUCIONADO -> StatusTopico.SOLUCIONADO;
+            default -> atual;
+        };
+    }
+
+    /**
+     * Registra uma nova resposta no tópico: incrementa o contador, atualiza a última atividade e aplica
+     * a transição de status, sem carregar o tópico.
+     *
+     * A transição é condicional ({@code where status = :esperado}): se outra resposta alterou o status
+     * entre a leitura e a atualização, nenhuma linha é alterada e a operação é repetida com o status novo,
+     * até {@value #TENTATIVAS_TRANSICAO} vezes. Quando não há transição, o contador é incrementado diretamente.
+     *
+     * @param id o ID do tópico
+     * @param atividade a data e hora da resposta
+     * @throws ConflitoException se a transição não puder ser aplicada após as tentativas
      */
     @Transactional
-    public void atualizarStatusTopico(Topico topico) {
-        // Verifica e altera o status do tópico conforme necessário
-        if (topico.getStatus().equals(StatusTopico.NAO_RESPONDIDO)) {
-            topico.setStatus(StatusTopico.NAO_SOLUCIONADO);
-            return;
-        }
-        if (topico.getStatus().equals(StatusTopico.NAO_SOLUCIONADO)) {
-            topico.setStatus(StatusTopico.SOLUCIONADO);
+    public void registrarResposta(Long id, LocalDateTime atividade) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_TRANSICAO; tentativa++) {
+            var atual = topicoRepository.buscarStatus(id)
+                    .orElseThrow(() -> new ValidacaoException("Tópico não encontrado"));
+            var novo = statusAposResposta(atual);
+
+            if (novo == atual) {
+                topicoRepository.registrarResposta(id, atividade, Topico.agoraEmUtc());
+                return;
+            }
+            if (topicoRepository.registrarRespostaComStatus(id, atividade, Topico.agoraEmUtc(), atual, novo) == 1) {
+                return;
+            }
         }
+
+        throw new ConflitoException("O tópico está sendo alterado por outras requisições. Tente novamente.");
     }
 
     /**
-     * Decrementa o status do tópico, caso o número de respostas seja igual a 1.
-     * Se for o caso, o status do tópico será alterado para "Não Respondido".
+     * Decrementa o contador de respostas do tópico e incrementa a sua versão e, se era a última resposta,
+     * altera o status para "Não Respondido", tudo em um único comando SQL.
      *
-     * @param topico o tópico que terá seu status decrementado
+     * @param id o ID do tópico que teve uma resposta removida
      */
     @Transactional
-    public void decrementarStatus(Topico topico) {
-        // Verifica se o tópico tem apenas uma resposta e altera seu status
-        if(topico.getRespostas().size() == 1){
-            topico.setStatus(StatusTopico.NAO_RESPONDIDO);
-        }
+    public void decrementarStatus(Long id) {
+        topicoRepository.registrarRemocaoDeResposta(id, StatusTopico.NAO_RESPONDIDO, Topico.agoraEmUtc());
+    }
+
+    /**
+     * Incrementa a versão do tópico após a edição de uma de suas respostas, sem carregar o tópico.
+     *
+     * @param id o ID do tópico que teve uma resposta editada
+     */
+    @Transactional
+    public void registrarAlteracaoDeResposta(Long id) {
+        topicoRepository.registrarAlteracaoDeResposta(id, Topico.agoraEmUtc());
     }
 }
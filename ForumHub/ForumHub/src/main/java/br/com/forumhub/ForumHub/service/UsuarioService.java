@@ -1,10 +1,20 @@
 package br.com.forumhub.ForumHub.service;
 
 
+import br.com.forumhub.ForumHub.dto.paginacao.DadosPaginaCursor;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
 import br.com.forumhub.ForumHub.dto.usuario.DadosCadastroUsuario;
+import br.com.forumhub.ForumHub.dto.usuario.DadosNome;
 import br.com.forumhub.ForumHub.dto.usuario.DadosUsuarioAtualizacao;
 import br.com.forumhub.ForumHub.dto.usuario.DadosUsuarioResponse;
+import br.com.forumhub.ForumHub.infra.cache.BarramentoDeInvalidacao;
+import br.com.forumhub.ForumHub.infra.cache.ContagemCache;
+import br.com.forumhub.ForumHub.infra.cache.RespostaHttpCache;
+import br.com.forumhub.ForumHub.infra.cache.UsuarioCache;
 import br.com.forumhub.ForumHub.infra.exception.ValidacaoException;
+import br.com.forumhub.ForumHub.infra.paginacao.Cursor;
+import br.com.forumhub.ForumHub.infra.paginacao.PaginacaoPorCursor;
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
 import br.com.forumhub.ForumHub.model.entities.Topico;
 import br.com.forumhub.ForumHub.model.entities.Usuario;
 import br.com.forumhub.ForumHub.repository.TopicoRepository;
@@ -13,6 +23,8 @@ import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -33,10 +45,41 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public Usuario usuarioAtual() {
-        String email = (String) SecurityContextHolder.getContext().getAuthentication().getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new ValidacaoException("Usuário não encontrado"));
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private ContagemCache contagemCache;
+
+    @Autowired
+    private BarramentoDeInvalidacao barramentoDeInvalidacao;
+
+    @Autowired
+    private RespostaHttpCache respostaHttpCache;
+
+    /**
+     * Retorna o usuário autenticado na requisição atual.
+     * O principal é montado pelo SecurityFilter a partir das claims do token e vive apenas
+     * durante a requisição, sem nenhuma consulta ao banco de dados.
+     *
+     * @return o usuário autenticado
+     */
+    public UsuarioAutenticado usuarioAtual() {
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null || !(autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario)) {
+            throw new ValidacaoException("Usuário não encontrado");
+        }
+        return usuario;
+    }
+
+    /**
+     * Retorna uma referência à entidade do usuário autenticado, para uso em associações.
+     * A referência não dispara consulta ao banco de dados.
+     *
+     * @return a referência ao usuário autenticado
+     */
+    public Usuario referenciaUsuarioAtual() {
+        return usuarioRepository.getReferenceById(usuarioAtual().id());
     }
 
     @Transactional
@@ -52,6 +95,8 @@ public class UsuarioService {
         );
 
         Usuario novoUsuario = usuarioRepository.save(usuario);
+        contagemCache.ajustar(ContagemCache.USUARIOS_ATIVOS, 1);
+        barramentoDeInvalidacao.usuarioAlterado(novoUsuario.getId());
         return new DadosUsuarioResponse(novoUsuario);
     }
 
@@ -59,19 +104,36 @@ public class UsuarioService {
     public DadosUsuarioResponse atualizarUsuario(DadosUsuarioAtualizacao dados) {
         verificarSeUsuarioEstaAtivo();
 
-        Usuario usuario = usuarioAtual();
+        var usuario = usuarioAtual();
+        var senha = dados.senha() != null ? criptografarSenha(dados.senha()) : null;
 
-        if (dados.senha() != null) {
-            dados = dados.atualizarSenha(criptografarSenha(dados.senha()));
-        }
+        usuarioRepository.atualizarDados(usuario.id(), dados.nome(), senha);
+        usuarioCache.invalidar(usuario.email());
+        barramentoDeInvalidacao.usuarioAlterado(usuario.id());
 
-        usuario.atualizar(dados);
-        return new DadosUsuarioResponse(usuario);
+        // O nome aparece em todos os tópicos de que o usuário participou: a versão deles muda, para que os
+        // validadores condicionais não confirmem a cópia antiga, e as respostas em cache são descartadas; renomear é raro
+        if (dados.nome() != null) {
+            topicoRepository.registrarAutorRenomeado(usuario.id(), Topico.agoraEmUtc());
+            respostaHttpCache.invalidarTudo();
+            barramentoDeInvalidacao.autorRenomeado(usuario.id());
+        }
+        var nome = dados.nome() != null ? dados.nome() : usuario.nome();
+        return new DadosUsuarioResponse(usuario.id(), nome, usuario.email());
     }
 
+    /**
+     * Verifica se o usuário autenticado está ativo.
+     * Como o token pode ter sido emitido antes de uma desativação, o estado é conferido no
+     * cache de usuários, que é invalidado sempre que o usuário é alterado ou desativado.
+     */
     public void verificarSeUsuarioEstaAtivo() {
-        Usuario usuario = usuarioAtual();
-        if (!usuario.getAtivo()) {
+        var usuario = usuarioAtual();
+        var ativo = usuario.ativo() && usuarioCache.buscar(usuario.email())
+                .map(UsuarioAutenticado::ativo)
+                .orElse(false);
+
+        if (!ativo) {
             throw new ValidacaoException("OPERAÇÃO NÃO PERMITIDA: Usuário inativo");
         }
     }
@@ -79,19 +141,66 @@ public class UsuarioService {
     @Transactional
     public void deletar() {
         verificarSeUsuarioEstaAtivo();
-        Usuario usuario = usuarioAtual();
-        usuario.deletar();
+
+        var usuario = usuarioAtual();
+        usuarioRepository.desativar(usuario.id());
+        usuarioCache.invalidar(usuario.email());
+        contagemCache.ajustar(ContagemCache.USUARIOS_ATIVOS, -1);
+        barramentoDeInvalidacao.usuarioAlterado(usuario.id());
     }
 
     public String criptografarSenha(String senha) {
         return passwordEncoder.encode(senha);
     }
 
-    public Page<Usuario> buscarUsuario(Pageable paginacao) {
-        return usuarioRepository.findByAtivoTrue(paginacao);
+    /**
+     * Lista os nomes dos usuários ativos, com o total obtido do cache de contagens.
+     */
+    public Page<DadosNome> buscarUsuario(Pageable paginacao) {
+        var fatia = usuarioRepository.listarNomesAtivos(paginacao);
+        return PageableExecutionUtils.getPage(fatia.getContent(), paginacao,
+                () -> contagemCache.contar(ContagemCache.USUARIOS_ATIVOS, usuarioRepository::countByAtivoTrue));
+    }
+
+    /**
+     * Lista os nomes dos usuários ativos sem calcular o total de registros.
+     */
+    public Slice<DadosNome> buscarFatiaDeUsuarios(Pageable paginacao) {
+        return usuarioRepository.listarNomesAtivos(paginacao);
+    }
+
+    /**
+     * Lista os tópicos do usuário logado, com o total obtido do cache de contagens.
+     */
+    public Page<DadosTopicoResponse> buscarTopicos(Pageable paginacao) {
+        var autorId = usuarioAtual().id();
+        var fatia = topicoRepository.listarDoAutor(autorId, paginacao);
+        return PageableExecutionUtils.getPage(fatia.getContent(), paginacao,
+                () -> contagemCache.contar(ContagemCache.topicosDoAutor(autorId), () -> topicoRepository.countByAutorId(autorId)));
+    }
+
+    /**
+     * Lista os tópicos do usuário logado sem calcular o total de registros.
+     */
+    public Slice<DadosTopicoResponse> buscarFatiaDeTopicos(Pageable paginacao) {
+        return topicoRepository.listarDoAutor(usuarioAtual().id(), paginacao);
     }
 
-    public Page<Topico> buscarTopicos(Pageable paginacao) {
-        return topicoRepository.findByAutorId(usuarioAtual().getId(), paginacao);
+    /**
+     * Lista os tópicos do usuário logado em ordem de criação paginados por cursor, sem contar o total de registros.
+     *
+     * @param after o cursor para avançar, ou null
+     * @param before o cursor para voltar, ou null
+     * @param tamanho a quantidade de tópicos por página
+     * @return a página de tópicos e os cursores das páginas vizinhas
+     */
+    public DadosPaginaCursor<DadosTopicoResponse> listarTopicosPorCursor(String after, String before, int tamanho) {
+        var autorId = usuarioAtual().id();
+
+        return PaginacaoPorCursor.paginar(after, before, tamanho,
+                limite -> topicoRepository.listarPrimeirosDoAutor(autorId, limite),
+                (cursor, limite) -> topicoRepository.listarDoAutorApos(autorId, cursor.dataCriacao(), cursor.id(), limite),
+                (cursor, limite) -> topicoRepository.listarDoAutorAntes(autorId, cursor.dataCriacao(), cursor.id(), limite),
+                topico -> new Cursor(topico.dataCriacao(), topico.id()));
     }
 }
\ No newline at end of file
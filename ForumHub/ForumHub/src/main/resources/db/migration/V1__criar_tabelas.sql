@@ -0,0 +1,43 @@
+-- Tabelas do fórum, equivalentes às criadas pelo Hibernate até a adoção das migrações.
+-- Os comandos são idempotentes: em um banco que já tinha as tabelas (incorporado na versão 0 pelo
+-- baseline), apenas as colunas que ainda faltarem são acrescentadas.
+
+create table if not exists usuarios (
+    id bigint generated by default as identity primary key,
+    nome varchar(255),
+    email varchar(255),
+    senha varchar(255),
+    ativo boolean
+);
+
+create table if not exists cursos (
+    id bigint generated by default as identity primary key,
+    nome varchar(255),
+    categoria varchar(255) check (categoria in ('PROGRAMACAO', 'REDES', 'BANCO_DE_DADOS', 'INFRAESTRUTURA',
+                                                'DESIGN', 'AGILE', 'HARDWARE', 'SOFTWARE', 'OUTROS'))
+);
+
+create table if not exists topicos (
+    id bigint generated by default as identity primary key,
+    titulo varchar(255),
+    mensagem varchar(255),
+    data_criacao timestamp(6),
+    status varchar(255) check (status in ('NAO_RESPONDIDO', 'NAO_SOLUCIONADO', 'SOLUCIONADO', 'FECHADO')),
+    autor_id bigint constraint fk_topicos_autor references usuarios,
+    curso_id bigint constraint fk_topicos_curso references cursos
+);
+
+create table if not exists respostas (
+    id bigint generated by default as identity primary key,
+    mensagem varchar(255),
+    solucao varchar(255),
+    data_criacao timestamp(6),
+    topico_id bigint constraint fk_respostas_topico references topicos,
+    autor_id bigint constraint fk_respostas_autor references usuarios
+);
+
+-- Colunas acrescentadas aos tópicos depois da primeira versão
+alter table topicos add column if not exists hash_conteudo varchar(64);
+alter table topicos add column if not exists respostas_count integer default 0 not null;
+alter table topicos add column if not exists ultima_atividade timestamp(6);
+alter table topicos add column if not exists versao bigint default 0 not null;
@@ -0,0 +1,40 @@
+-- flyway:executeInTransaction=false
+-- Índices das consultas dos repositórios. Os nomes são os que o Hibernate já criava a partir das
+-- anotações das entidades, de modo que um banco que já os tinha apenas ganha os que faltam.
+-- Criados sem bloquear as escritas nas tabelas, o que exige executar fora de uma transação. Se a migração
+-- falhar no meio, o índice interrompido fica inválido e deve ser removido (drop index concurrently) antes
+-- de executá-la de novo, já que o "if not exists" o daria por criado.
+
+-- Usuários: login e cadastro buscam pelo email, que passa a ser único também no banco (o cadastro
+-- verifica antes de gravar, mas duas requisições simultâneas passavam juntas pela verificação)
+create unique index concurrently if not exists uk_usuarios_email on usuarios (email);
+-- Listagem e contagem dos usuários ativos
+create index concurrently if not exists idx_usuarios_ativos on usuarios (id) where ativo;
+
+-- Cursos: busca pelo nome sem diferenciar maiúsculas (findByNomeIgnoreCase compara upper(nome))
+create index concurrently if not exists idx_cursos_nome on cursos (upper(nome));
+-- Filtro de tópicos por categoria
+create index concurrently if not exists idx_cursos_categoria on cursos (categoria);
+
+-- Tópicos: listagem paginada por cursor
+create index concurrently if not exists idx_topicos_data_id on topicos (data_criacao, id);
+-- Listagem dos tópicos de um autor, contagem por autor e remoção de usuários
+create index concurrently if not exists idx_topicos_autor_data_id on topicos (autor_id, data_criacao, id);
+-- Listagem filtrada por curso ou categoria
+create index concurrently if not exists idx_topicos_curso_data_id on topicos (curso_id, data_criacao, id);
+-- Listagem filtrada por curso e status
+create index concurrently if not exists idx_topicos_curso_status_data_id on topicos (curso_id, status, data_criacao, id);
+-- Listagem filtrada por status
+create index concurrently if not exists idx_topicos_status_data_id on topicos (status, data_criacao, id);
+-- Ordenação pela atividade mais recente e reindexação da busca textual
+create index concurrently if not exists idx_topicos_ultima_atividade on topicos (ultima_atividade, id);
+-- Detecção de tópicos duplicados
+create unique index concurrently if not exists uk_topicos_hash_conteudo on topicos (hash_conteudo);
+-- Preenchimento em lotes do hash dos tópicos antigos, que percorre apenas os que ainda não o têm
+create index concurrently if not exists idx_topicos_sem_hash_conteudo on topicos (id) where hash_conteudo is null;
+
+-- Respostas: listagem das respostas de um tópico paginada por (data_criacao, id), contagem por tópico
+-- e remoção de tópicos
+create index concurrently if not exists idx_respostas_topico_data_id on respostas (topico_id, data_criacao, id);
+-- Remoção de usuários, que apaga as respostas do autor
+create index concurrently if not exists idx_respostas_autor on respostas (autor_id);
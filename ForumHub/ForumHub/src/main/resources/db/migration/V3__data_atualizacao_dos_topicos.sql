@@ -0,0 +1,5 @@
+-- Data e hora da última alteração do tópico ou de suas respostas, enviada no Last-Modified do detalhe do tópico.
+-- Avança junto com a versão; nos tópicos existentes, parte da última atividade registrada.
+alter table topicos add column if not exists data_atualizacao timestamp(6);
+
+update topicos set data_atualizacao = coalesce(ultima_atividade, data_criacao) where data_atualizacao is null;
@@ -0,0 +1,16 @@
+-- flyway:executeInTransaction=false
+-- O nome do curso é o seu ID natural, resolvido pelo cache de segundo nível; a busca pelo nome exato usa este índice.
+-- Criado sem bloquear as escritas na tabela de cursos, o que exige executar fora de uma transação.
+
+-- Cursos com o mesmo nome, cadastrados antes da restrição, são unidos no de menor ID: os tópicos passam para
+-- ele e os demais são removidos. Cada comando é confirmado sozinho; se um tópico for criado em um curso
+-- repetido entre os dois, a remoção falha e a migração pode ser executada de novo.
+update topicos t
+set curso_id = repetido.mantido
+from (select id, min(id) over (partition by nome) as mantido from cursos) repetido
+where t.curso_id = repetido.id and repetido.id <> repetido.mantido;
+
+delete from cursos c
+where exists (select 1 from cursos outro where outro.nome = c.nome and outro.id < c.id);
+
+create unique index concurrently if not exists uk_cursos_nome on cursos (nome);
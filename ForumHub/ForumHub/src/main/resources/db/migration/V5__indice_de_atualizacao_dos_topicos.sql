@@ -0,0 +1,5 @@
+-- flyway:executeInTransaction=false
+-- Criado sem bloquear as escritas na tabela de tópicos, o que exige executar fora de uma transação.
+
+-- Tópicos alterados recentemente, conferidos pela reconciliação dos contadores de respostas
+create index concurrently if not exists idx_topicos_data_atualizacao on topicos (data_atualizacao, id);
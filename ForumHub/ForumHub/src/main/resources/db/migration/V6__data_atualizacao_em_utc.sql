@@ -0,0 +1,6 @@
+-- A data de atualização, enviada no Last-Modified, passa a ser gravada em UTC, sem depender do fuso horário
+-- de cada instância. Os valores existentes, gravados no horário local, são convertidos pelo fuso da sessão,
+-- que o driver do Postgres define como o da JVM que os gravou.
+update topicos
+set data_atualizacao = (data_atualizacao at time zone current_setting('TimeZone')) at time zone 'UTC'
+where data_atualizacao is not null;
@@ -0,0 +1,28 @@
+-- flyway:executeInTransaction=false
+-- Preenche o contador de respostas e a última atividade dos tópicos gravados antes da criação das colunas.
+-- Os tópicos são preenchidos em lotes de IDs, cada um confirmado separadamente, para que a criação e a remoção
+-- de respostas esperem apenas pelo lote em andamento; por isso o bloco é executado fora de uma transação.
+do $$
+declare
+    ultimo bigint := 0;
+    maior bigint;
+begin
+    loop
+        select max(id) into maior
+        from (select id from topicos where id > ultimo and ultima_atividade is null order by id limit 1000) lote;
+        exit when maior is null;
+
+        update topicos t
+        set respostas_count = c.total,
+            ultima_atividade = coalesce(c.ultima, t.data_criacao, t.data_atualizacao)
+        from (select t2.id, count(r.id) as total, max(r.data_criacao) as ultima
+              from topicos t2
+              left join respostas r on r.topico_id = t2.id
+              where t2.id > ultimo and t2.id <= maior and t2.ultima_atividade is null
+              group by t2.id) c
+        where t.id = c.id;
+
+        ultimo := maior;
+        commit;
+    end loop;
+end $$;
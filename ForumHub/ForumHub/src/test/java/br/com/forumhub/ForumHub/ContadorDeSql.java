@@ -0,0 +1,47 @@
+package br.com.forumhub.ForumHub;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Registra os comandos SQL emitidos pelo Hibernate para que os testes possam contar consultas.
+ * Ativado pela propriedade {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * Apenas os comandos da thread que chamou {@link #zerar()} são registrados, e não os das tarefas agendadas.
+ */
+public class ContadorDeSql implements StatementInspector {
+
+    private static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    private static volatile Thread observada;
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == observada) {
+            COMANDOS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void zerar() {
+        observada = Thread.currentThread();
+        COMANDOS.clear();
+    }
+
+    public static List<String> comandos() {
+        return List.copyOf(COMANDOS);
+    }
+
+    /**
+     * Conta os comandos que leem diretamente da tabela informada (cláusula {@code from <tabela>}).
+     *
+     * @param tabela o nome da tabela
+     * @return a quantidade de consultas à tabela
+     */
+    public static long consultasNaTabela(String tabela) {
+        var padrao = Pattern.compile("\\bfrom " + tabela + "\\b", Pattern.CASE_INSENSITIVE);
+        return COMANDOS.stream().filter(sql -> padrao.matcher(sql).find()).count();
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.forumhub.ForumHub;
+
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.repository.CursoRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import br.com.forumhub.ForumHub.repository.UsuarioRepository;
+import br.com.forumhub.ForumHub.service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+/**
+ * Cria os usuários, cursos, tópicos e tokens usados pelos testes de integração, com e-mails e nomes
+ * únicos para que os testes não dependam uns dos outros, e remove os dados dos testes que não rodam
+ * em uma transação desfeita ao final. Registrado em cada teste com {@code @Import(DadosDeTeste.class)}.
+ */
+@TestComponent
+public class DadosDeTeste {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    public static String sufixo() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Grava um usuário ativo com um e-mail único.
+     *
+     * @param nome o nome do usuário
+     * @return o usuário gravado
+     */
+    public Usuario novoUsuario(String nome) {
+        return usuarioRepository.save(new Usuario(nome, "autor-" + sufixo() + "@forumhub.com", "senha"));
+    }
+
+    public Curso novoCurso() {
+        return novoCurso("Curso " + sufixo());
+    }
+
+    public Curso novoCurso(String nome) {
+        return novoCurso(nome, Categoria.PROGRAMACAO);
+    }
+
+    public Curso novoCurso(String nome, Categoria categoria) {
+        return cursoRepository.save(new Curso(null, nome, categoria));
+    }
+
+    /**
+     * Grava um tópico com título único, já sincronizado com o banco.
+     *
+     * @param autor o autor do tópico
+     * @param curso o curso do tópico
+     * @return o tópico gravado
+     */
+    public Topico novoTopico(Usuario autor, Curso curso) {
+        var cadastro = new DadosTopicoCadastro("Titulo " + sufixo(), "Mensagem", curso.getNome());
+        return topicoRepository.saveAndFlush(new Topico(cadastro, curso, autor));
+    }
+
+    public String token(Usuario usuario) {
+        return tokenService.gerarToken(usuario);
+    }
+
+    /**
+     * Remove os tópicos do autor, o autor e os cursos informados.
+     *
+     * @param autor o autor criado pelo teste
+     * @param cursos os cursos criados pelo teste
+     */
+    public void remover(Usuario autor, Curso... cursos) {
+        topicoRepository.findByAutorId(autor.getId(), Pageable.unpaged())
+                .forEach(topicoRepository::delete);
+        usuarioRepository.delete(autor);
+        for (var curso : cursos) {
+            cursoRepository.delete(curso);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.forumhub.ForumHub;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Obtém o plano genérico do banco para o SQL que o Hibernate gera em uma consulta, capturado pelo
+ * {@link ContadorDeSql}. O comando é preparado com os parâmetros numerados e explicado com todos eles nulos,
+ * já que o plano genérico não depende dos valores. Deve ser usado dentro da transação do teste, que desfaz
+ * a configuração do planejador no rollback.
+ */
+public final class PlanoDeConsulta {
+
+    private static final Pattern PARAMETRO = Pattern.compile("\\?");
+
+    private PlanoDeConsulta() {
+    }
+
+    /**
+     * Executa a consulta e devolve o plano genérico do último comando emitido por ela que lê a tabela informada.
+     *
+     * @param entityManager o EntityManager da transação do teste
+     * @param tabela a tabela lida pelo comando a explicar
+     * @param nome o nome do comando preparado
+     * @param consulta a consulta que emite o comando
+     * @return as linhas do plano, separadas por quebras de linha
+     */
+    public static String de(EntityManager entityManager, String tabela, String nome, Runnable consulta) {
+        ContadorDeSql.zerar();
+        consulta.run();
+        var sql = ContadorDeSql.comandos().stream()
+                .filter(comando -> comando.toLowerCase().contains("from " + tabela))
+                .reduce((primeiro, ultimo) -> ultimo)
+                .orElseThrow();
+
+        var numerado = new StringBuilder();
+        var parametros = PARAMETRO.matcher(sql);
+        var numero = 0;
+        while (parametros.find()) {
+            parametros.appendReplacement(numerado, Matcher.quoteReplacement("$" + ++numero));
+        }
+        parametros.appendTail(numerado);
+
+        entityManager.createNativeQuery("set local plan_cache_mode = force_generic_plan").executeUpdate();
+        entityManager.createNativeQuery("prepare " + nome + " as " + numerado).executeUpdate();
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> linhas = entityManager.createNativeQuery("explain execute " + nome + "("
+                    + String.join(", ", Collections.nCopies(numero, "null")) + ")").getResultList();
+            return String.join("\n", linhas);
+        } finally {
+            entityManager.createNativeQuery("deallocate " + nome).executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.infra.busca.IndiceDeBusca;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.CursoRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que a busca textual encontre tópicos por variações das palavras do título, da mensagem e das
+ * respostas, aplique os filtros e acompanhe as escritas confirmadas. Os dados são gravados fora de uma
+ * transação de teste, já que os tópicos só são marcados para reindexação após o commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class BuscaDeTopicosTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaDeTopicosTest.class);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private IndiceDeBusca indice;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Termo sem letras acentuadas nem sufixos do português, que o analisador mantém inalterado e só estes tópicos contêm
+    private String marcador;
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        var sufixo = UUID.randomUUID().toString();
+        marcador = "m" + sufixo.replace("-", "");
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void buscaIgnoraAcentosEVariacoesDasPalavras() throws Exception {
+        var id = criar("Configuração do Hibernate " + marcador, "As entidades não são persistidas no banco.", curso);
+        indice.atualizar();
+
+        buscar("configuracoes " + marcador)
+                .andExpect(jsonPath("$.content[*].id", contains(id.intValue())))
+                .andExpect(jsonPath("$.content[0].nomeCurso").value(curso.getNome()))
+                .andExpect(jsonPath("$.content[0].status").value("NAO_RESPONDIDO"));
+        buscar("entidade persistida " + marcador)
+                .andExpect(jsonPath("$.content[*].id", contains(id.intValue())));
+        buscar("hibernate -persistida " + marcador)
+                .andExpect(jsonPath("$.content", empty()));
+    }
+
+    @Test
+    void respostasEntramNaBusca() throws Exception {
+        var id = criar("Dúvida sobre JPA " + marcador, "Como mapear uma chave composta?", curso);
+        var resposta = JsonPath.parse(mvc.perform(post("/respostas/" + id)
+                                .content("{\"mensagem\": \"Use @EmbeddedId com uma classe " + marcador + "r\", \"solucao\": \"Sim\"}")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated())
+                        .andReturn().getResponse().getContentAsString())
+                .read("$.id", Long.class);
+        indice.atualizar();
+
+        buscar("embeddedid " + marcador + "r")
+                .andExpect(jsonPath("$.content[*].id", contains(id.intValue())))
+                .andExpect(jsonPath("$.content[0].status").value("NAO_SOLUCIONADO"));
+
+        mvc.perform(delete("/respostas/" + resposta).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        indice.atualizar();
+
+        buscar(marcador + "r").andExpect(jsonPath("$.content", empty()));
+    }
+
+    @Test
+    void filtrosRestringemOsResultados() throws Exception {
+        var outroCurso = dados.novoCurso("Outro " + UUID.randomUUID(), Categoria.INFRAESTRUTURA);
+        try {
+            var programacao = criar("Deploy da aplicação " + marcador, "Erro ao publicar o jar.", curso);
+            var devops = criar("Deploy no Kubernetes " + marcador, "O pod reinicia sem parar.", outroCurso);
+            indice.atualizar();
+
+            buscarCom("curso", outroCurso.getNome().toUpperCase())
+                    .andExpect(jsonPath("$.content[*].id", contains(devops.intValue())));
+            buscarCom("categoria", "PROGRAMACAO")
+                    .andExpect(jsonPath("$.content[*].id", contains(programacao.intValue())));
+            buscarCom("status", "SOLUCIONADO")
+                    .andExpect(jsonPath("$.content", empty()));
+            buscarCom("status", "NAO_RESPONDIDO")
+                    .andExpect(jsonPath("$.totalElements").value(2));
+        } finally {
+            topicoRepository.findByAutorId(usuario.getId(), Pageable.unpaged())
+                    .forEach(topicoRepository::delete);
+            cursoRepository.delete(outroCurso);
+        }
+    }
+
+    @Test
+    void termoNoTituloPesaMaisQueNaMensagem() throws Exception {
+        var naMensagem = criar("Erro na consulta", "A consulta do " + marcador + " falha ao paginar.", curso);
+        var noTitulo = criar("Consulta do " + marcador, "Ela falha ao paginar os resultados.", curso);
+        indice.atualizar();
+
+        buscar(marcador)
+                .andExpect(jsonPath("$.content[*].id", contains(noTitulo.intValue(), naMensagem.intValue())));
+    }
+
+    @Test
+    void topicoRemovidoSaiDaBusca() throws Exception {
+        var id = criar("Tópico temporário " + marcador, "Será removido.", curso);
+        indice.atualizar();
+        buscar(marcador).andExpect(jsonPath("$.totalElements").value(1));
+
+        mvc.perform(delete("/topicos/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        indice.atualizar();
+
+        buscar(marcador).andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void retomadaAlcancaEdicoesERemocoesQueNaoPassaramPorEstaInstancia() throws Exception {
+        var editado = criar("Original " + marcador, "Mensagem do tópico editado.", curso);
+        var removido = criar("Removido " + marcador, "Mensagem do tópico removido.", curso);
+        indice.atualizar();
+
+        // Alterações feitas enquanto a instância estava parada não marcam os tópicos para reindexação
+        transactionTemplate.executeWithoutResult(transacao -> entityManager
+                .createNativeQuery("update topicos set titulo = :titulo, data_atualizacao = :agora where id = :id")
+                .setParameter("titulo", "Reescrito " + marcador)
+                .setParameter("agora", Topico.agoraEmUtc())
+                .setParameter("id", editado)
+                .executeUpdate());
+        indice.sincronizar();
+        buscar("reescrito " + marcador).andExpect(jsonPath("$.content[*].id", contains(editado.intValue())));
+
+        transactionTemplate.executeWithoutResult(transacao -> entityManager
+                .createNativeQuery("delete from topicos where id = :id")
+                .setParameter("id", removido)
+                .executeUpdate());
+        indice.sincronizar();
+        buscar("removido " + marcador).andExpect(jsonPath("$.content", empty()));
+    }
+
+    @Test
+    void buscaSemTextoERecusada() throws Exception {
+        mvc.perform(get("/topicos/busca").param("q", "  "))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/topicos/busca").param("q", "jpa").param("page", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Grava tópicos sintéticos no banco (cinco milhões por padrão, ou a quantidade da propriedade
+     * {@code busca.documentos}), reconstrói o índice a partir deles e mede a latência das buscas.
+     * Não roda no build padrão; execute com {@code mvn test -Pbenchmark}. A única medição registrada até
+     * agora foi feita com 300 mil tópicos ({@code -Dbusca.documentos=300000}: p50 de 6 ms e p99 de 16 ms);
+     * a escala padrão de cinco milhões ainda precisa ser medida em um banco dimensionado para ela. O teste falha
+     * se a busca sair do orçamento de uma busca interativa, p50 de 50 ms e p99 de 100 ms.
+     */
+    @Test
+    @Tag("benchmark")
+    void buscaEntreMilhoesDeTopicos() {
+        var quantidade = Long.getLong("busca.documentos", 5_000_000);
+        var palavras = new String[]{"spring", "java", "jpa", "hibernate", "consulta", "erro", "configuração", "banco",
+                "token", "segurança", "teste", "docker", "deploy", "paginação", "transação", "cache", "índice",
+                "desempenho", "resposta", "requisição", "servidor", "cliente", "memória", "thread", "classe"};
+
+        try {
+            var inicio = System.nanoTime();
+            transactionTemplate.executeWithoutResult(transacao -> entityManager.createNativeQuery("""
+                            insert into topicos (titulo, mensagem, hash_conteudo, data_criacao, ultima_atividade, status,
+                                                 respostas_count, versao, autor_id, curso_id)
+                            select p[1 + i % 25] || ' ' || p[1 + (i / 25) % 25] || ' ' || p[1 + (i / 625) % 25] || ' ' || i,
+                                   p[1 + (i * 7) % 25] || ' ' || p[1 + (i * 11) % 25] || ' ' || p[1 + (i * 13) % 25] || ' '
+                                       || p[1 + (i * 17) % 25] || ' ' || p[1 + (i * 19) % 25],
+                                   md5(:sufixo || i) || md5(i || :sufixo), now(), now(), 'NAO_RESPONDIDO', 0, 0, :autor, :curso
+                            from generate_series(1, :quantidade) i, (select cast(:palavras as text[]) p) vocabulario
+                            """)
+                    .setParameter("sufixo", marcador)
+                    .setParameter("autor", usuario.getId())
+                    .setParameter("curso", curso.getId())
+                    .setParameter("quantidade", quantidade)
+                    .setParameter("palavras", "{" + String.join(",", palavras) + "}")
+                    .executeUpdate());
+            logger.info("{} tópicos gravados em {} s", quantidade, (System.nanoTime() - inicio) / 1_000_000_000);
+
+            inicio = System.nanoTime();
+            indice.sincronizar();
+            logger.info("índice reconstruído em {} s", (System.nanoTime() - inicio) / 1_000_000_000);
+
+            var aleatorio = new SplittableRandom(42);
+            var tempos = new long[2_000];
+            for (int i = -200; i < tempos.length; i++) {
+                var texto = palavras[aleatorio.nextInt(palavras.length)] + " " + palavras[aleatorio.nextInt(palavras.length)];
+                var categoria = aleatorio.nextBoolean() ? Categoria.PROGRAMACAO : null;
+
+                var consulta = System.nanoTime();
+                indice.buscar(texto, null, categoria, StatusTopico.NAO_RESPONDIDO, PageRequest.of(0, 10));
+                if (i >= 0) {
+                    tempos[i] = System.nanoTime() - consulta;
+                }
+            }
+
+            Arrays.sort(tempos);
+            var p50 = tempos[tempos.length / 2] / 1_000_000.0;
+            var p99 = tempos[tempos.length * 99 / 100] / 1_000_000.0;
+            logger.info("busca textual entre {} tópicos: p50 {} ms, p99 {} ms", quantidade, "%.2f".formatted(p50), "%.2f".formatted(p99));
+            assertThat(p50).as("p50 em ms").isLessThan(50);
+            assertThat(p99).as("p99 em ms").isLessThan(100);
+        } finally {
+            transactionTemplate.executeWithoutResult(transacao -> entityManager
+                    .createNativeQuery("delete from topicos where autor_id = :autor")
+                    .setParameter("autor", usuario.getId())
+                    .executeUpdate());
+            indice.sincronizar();
+        }
+    }
+
+    private Long criar(String titulo, String mensagem, Curso curso) throws Exception {
+        var resposta = mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"" + titulo + "\", \"mensagem\": \"" + mensagem + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private ResultActions buscar(String texto) throws Exception {
+        return mvc.perform(get("/topicos/busca").param("q", texto))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions buscarCom(String filtro, String valor) throws Exception {
+        return mvc.perform(get("/topicos/busca").param("q", "deploy " + marcador).param(filtro, valor))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.repository.CursoRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import br.com.forumhub.ForumHub.service.CursoService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que os cursos buscados por ID, o nome exato dos cursos e a busca de cursos pelo nome sejam atendidos
+ * pelo cache de segundo nível sem consultar o banco, que as alterações feitas pela aplicação apareçam na leitura
+ * seguinte, que os tópicos fiquem fora desse cache e que as estatísticas de cada região sejam publicadas nas métricas.
+ * Os dados são gravados fora de uma transação de teste, pois o cache só recebe o que foi confirmado.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class CacheDeSegundoNivelTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private CursoService cursoService;
+
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+    private final List<Curso> cursosExtras = new ArrayList<>();
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+        cursosExtras.forEach(cursoRepository::delete);
+    }
+
+    @Test
+    void cursoPeloNomeExatoEPeloIdVemDoCache() {
+        assertThat(cursoService.buscarPorNome(curso.getNome())).isEqualTo(curso);
+
+        ContadorDeSql.zerar();
+        assertThat(cursoService.buscarPorNome(curso.getNome())).isEqualTo(curso);
+        assertThat(cursoService.buscarPorId(curso.getId()).getNome()).isEqualTo(curso.getNome());
+        assertThat(ContadorDeSql.consultasNaTabela("cursos")).as("consultas em %s", ContadorDeSql.comandos()).isZero();
+    }
+
+    @Test
+    void buscaDeCursoPeloNomeFicaEmCacheAteUmCursoSerAlterado() {
+        var nome = curso.getNome().toUpperCase(Locale.ROOT);
+        assertThat(cursoRepository.findByNomeIgnoreCase(nome)).isEqualTo(curso);
+
+        ContadorDeSql.zerar();
+        assertThat(cursoRepository.findByNomeIgnoreCase(nome)).isEqualTo(curso);
+        assertThat(ContadorDeSql.consultasNaTabela("cursos")).isZero();
+
+        // Um curso gravado invalida as buscas em cache
+        cursosExtras.add(dados.novoCurso("Outro " + curso.getNome()));
+        ContadorDeSql.zerar();
+        assertThat(cursoRepository.findByNomeIgnoreCase(nome)).isEqualTo(curso);
+        assertThat(ContadorDeSql.consultasNaTabela("cursos")).isEqualTo(1);
+    }
+
+    @Test
+    void topicoPorIdNaoFicaNoCacheDeSegundoNivel() {
+        var topico = dados.novoTopico(usuario, curso);
+        topicoRepository.findById(topico.getId()).orElseThrow();
+
+        // Os comandos em lote que atualizam os contadores removeriam a região inteira a cada resposta
+        ContadorDeSql.zerar();
+        assertThat(topicoRepository.findById(topico.getId()).orElseThrow().getTitulo()).isEqualTo(topico.getTitulo());
+        assertThat(ContadorDeSql.consultasNaTabela("topicos")).isEqualTo(1);
+    }
+
+    @Test
+    void estatisticasDasRegioesSaoPublicadasNasMetricas() throws Exception {
+        cursoService.buscarPorId(curso.getId());
+        cursoService.buscarPorId(curso.getId());
+
+        var metrica = mvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests")
+                        .param("tag", "region:cursos", "result:hit")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(JsonPath.parse(metrica).read("$.measurements[0].value", Double.class)).isPositive();
+    }
+}
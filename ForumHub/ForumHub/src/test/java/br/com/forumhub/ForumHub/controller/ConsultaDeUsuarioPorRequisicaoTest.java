@@ -0,0 +1,158 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Resposta;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaCadastro;
+import br.com.forumhub.ForumHub.repository.RespostaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que cada endpoint de escrita consulte a tabela de usuários uma única vez por requisição,
+ * que, com o cache de usuários preenchido, requisições autenticadas não a consultem, e que alterar
+ * ou desativar o usuário o remova do cache, com efeito sobre os tokens já emitidos.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class ConsultaDeUsuarioPorRequisicaoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    private String token;
+    private Curso curso;
+    private Usuario usuario;
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @Test
+    void criarTopicoConsultaUsuarioUmaVez() throws Exception {
+        var corpo = """
+                {"titulo": "Titulo %s", "mensagem": "Mensagem", "nomeCurso": "%s"}
+                """.formatted(UUID.randomUUID(), curso.getNome());
+
+        executar(post("/topicos").content(corpo), 201);
+    }
+
+    @Test
+    void atualizarTopicoConsultaUsuarioUmaVez() throws Exception {
+        var topico = dados.novoTopico(usuario, curso);
+
+        executar(put("/topicos/" + topico.getId()).content("{\"titulo\": \"Novo titulo\"}"), 200);
+    }
+
+    @Test
+    void removerTopicoConsultaUsuarioUmaVez() throws Exception {
+        var topico = dados.novoTopico(usuario, curso);
+
+        executar(delete("/topicos/" + topico.getId()), 200);
+    }
+
+    @Test
+    void criarRespostaConsultaUsuarioUmaVez() throws Exception {
+        var topico = dados.novoTopico(usuario, curso);
+
+        executar(post("/respostas/" + topico.getId()).content("{\"mensagem\": \"Resposta\", \"solucao\": \"Sim\"}"), 201);
+    }
+
+    @Test
+    void atualizarRespostaConsultaUsuarioUmaVez() throws Exception {
+        var resposta = novaResposta(dados.novoTopico(usuario, curso));
+
+        executar(put("/respostas/" + resposta.getId()).content("{\"mensagem\": \"Editada\"}"), 200);
+    }
+
+    @Test
+    void deletarRespostaConsultaUsuarioUmaVez() throws Exception {
+        var resposta = novaResposta(dados.novoTopico(usuario, curso));
+
+        executar(delete("/respostas/" + resposta.getId()), 200);
+    }
+
+    @Test
+    void atualizarUsuarioConsultaUsuarioUmaVez() throws Exception {
+        executar(put("/usuarios").content("{\"nome\": \"Novo nome\", \"senha\": \"nova-senha\"}"), 200);
+    }
+
+    @Test
+    void deletarUsuarioConsultaUsuarioUmaVez() throws Exception {
+        executar(delete("/usuarios"), 200);
+    }
+
+    @Test
+    void listarTopicosDoUsuarioComCachePreenchidoNaoConsultaUsuario() throws Exception {
+        executar(get("/usuarios/topicos"), 200, 1);
+        executar(get("/usuarios/topicos"), 200, 0);
+    }
+
+    @Test
+    void usuarioDesativadoPerdeAcessoImediatamente() throws Exception {
+        executar(get("/usuarios/topicos"), 200, 1);
+        executar(delete("/usuarios"), 200, 0);
+
+        mvc.perform(get("/usuarios/topicos").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void atualizarUsuarioRemoveODoCache() throws Exception {
+        executar(get("/usuarios/topicos"), 200, 1);
+        executar(put("/usuarios").content("{\"nome\": \"Novo nome\"}"), 200, 0);
+
+        // O token já emitido continua valendo, mas o estado do usuário volta a ser lido do banco
+        executar(get("/usuarios/topicos"), 200, 1);
+        executar(get("/usuarios/topicos"), 200, 0);
+    }
+
+    private void executar(MockHttpServletRequestBuilder requisicao, int statusEsperado) throws Exception {
+        executar(requisicao, statusEsperado, 1);
+    }
+
+    private void executar(MockHttpServletRequestBuilder requisicao, int statusEsperado, long consultasEsperadas) throws Exception {
+        ContadorDeSql.zerar();
+
+        mvc.perform(requisicao
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(statusEsperado));
+
+        assertThat(ContadorDeSql.consultasNaTabela("usuarios"))
+                .as("consultas à tabela usuarios em %s", ContadorDeSql.comandos())
+                .isEqualTo(consultasEsperadas);
+    }
+
+    private Resposta novaResposta(Topico topico) {
+        return respostaRepository.saveAndFlush(new Resposta(new DadosRespostaCadastro("Resposta", "Sim"), topico, usuario));
+    }
+}
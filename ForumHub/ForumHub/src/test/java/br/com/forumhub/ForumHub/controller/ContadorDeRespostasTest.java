@@ -0,0 +1,129 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.infra.agendamento.ReconciliacaoDeContadores;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que o contador de respostas e a última atividade do tópico acompanhem a criação
+ * e a remoção de respostas, e que a reconciliação corrija contadores divergentes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class ContadorDeRespostasTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private ReconciliacaoDeContadores reconciliacao;
+
+    private Topico topico;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        var usuario = dados.novoUsuario("Autor");
+        var curso = dados.novoCurso();
+        topico = dados.novoTopico(usuario, curso);
+        token = dados.token(usuario);
+    }
+
+    @Test
+    void contadorAcompanhaCriacaoERemocaoDeRespostas() throws Exception {
+        var primeira = responder();
+        var segunda = responder();
+
+        var atualizado = recarregar();
+        assertThat(atualizado.getRespostasCount()).isEqualTo(2);
+        assertThat(atualizado.getUltimaAtividade()).isAfter(topico.getDataCriacao());
+        assertThat(atualizado.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+
+        remover(segunda);
+        assertThat(recarregar().getRespostasCount()).isEqualTo(1);
+        assertThat(recarregar().getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+
+        remover(primeira);
+        assertThat(recarregar().getRespostasCount()).isZero();
+        assertThat(recarregar().getStatus()).isEqualTo(StatusTopico.NAO_RESPONDIDO);
+    }
+
+    @Test
+    void reconciliacaoCorrigeContadoresDivergentes() throws Exception {
+        responder();
+        entityManager.createNativeQuery("update topicos set respostas_count = 7, ultima_atividade = null where id = :id")
+                .setParameter("id", topico.getId())
+                .executeUpdate();
+
+        assertThat(reconciliacao.reconciliar()).isPositive();
+
+        var corrigido = recarregar();
+        assertThat(corrigido.getRespostasCount()).isEqualTo(1);
+        assertThat(corrigido.getUltimaAtividade()).isNotNull();
+        assertThat(reconciliacao.reconciliar()).as("nada a corrigir na segunda execução").isZero();
+    }
+
+    @Test
+    void reconciliacaoConfereApenasTopicosAlteradosNaJanela() {
+        // Nem mesmo sem a última atividade: os tópicos antigos são preenchidos pela migração, não pela reconciliação
+        entityManager.createNativeQuery("update topicos set respostas_count = 7, ultima_atividade = null, data_atualizacao = :antes where id = :id")
+                .setParameter("antes", Topico.agoraEmUtc().minusDays(1))
+                .setParameter("id", topico.getId())
+                .executeUpdate();
+
+        reconciliacao.reconciliar();
+
+        assertThat(recarregar().getRespostasCount()).as("tópico sem alterações recentes").isEqualTo(7);
+    }
+
+    private long responder() throws Exception {
+        var resposta = mvc.perform(post("/respostas/" + topico.getId())
+                        .content("{\"mensagem\": \"Resposta\", \"solucao\": \"Não\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private void remover(long id) throws Exception {
+        mvc.perform(delete("/respostas/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private Topico recarregar() {
+        entityManager.flush();
+        entityManager.clear();
+        return topicoRepository.findById(topico.getId()).orElseThrow();
+    }
+}
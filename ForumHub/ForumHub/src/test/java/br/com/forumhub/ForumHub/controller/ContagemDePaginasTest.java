@@ -0,0 +1,120 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que o total das listagens paginadas venha do cache de contagens, ajustado a cada criação
+ * e remoção confirmada, e que o modo sem total não execute nenhum {@code count}.
+ *
+ * Não é transacional: os ajustes do cache só acontecem após o commit das requisições.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class ContagemDePaginasTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void totalVemDoCacheEAcompanhaCriacoesERemocoes() throws Exception {
+        criarTopico();
+        criarTopico();
+
+        assertThat(totalDeTopicosDoUsuario()).isEqualTo(2);
+        assertThat(contagens()).isEqualTo(1);
+
+        assertThat(totalDeTopicosDoUsuario()).isEqualTo(2);
+        assertThat(contagens()).as("total já em cache").isZero();
+
+        var id = criarTopico();
+        assertThat(totalDeTopicosDoUsuario()).isEqualTo(3);
+        assertThat(contagens()).as("total ajustado após a criação").isZero();
+
+        mvc.perform(delete("/topicos/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(totalDeTopicosDoUsuario()).isEqualTo(2);
+        assertThat(contagens()).as("total ajustado após a remoção").isZero();
+    }
+
+    @Test
+    void modoSemTotalNaoContaRegistros() throws Exception {
+        criarTopico();
+        criarTopico();
+
+        ContadorDeSql.zerar();
+        mvc.perform(get("/usuarios/topicos").param("total", "false").param("size", "1")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        assertThat(contagens()).isZero();
+    }
+
+    private long criarTopico() throws Exception {
+        var corpo = """
+                {"titulo": "Titulo %s", "mensagem": "Mensagem", "nomeCurso": "%s"}
+                """.formatted(UUID.randomUUID(), curso.getNome());
+
+        var resposta = mvc.perform(post("/topicos").content(corpo)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private long totalDeTopicosDoUsuario() throws Exception {
+        ContadorDeSql.zerar();
+        var resposta = mvc.perform(get("/usuarios/topicos").param("size", "1")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.totalElements", Long.class);
+    }
+
+    private static long contagens() {
+        return ContadorDeSql.comandos().stream().filter(sql -> sql.contains("count(")).count();
+    }
+}
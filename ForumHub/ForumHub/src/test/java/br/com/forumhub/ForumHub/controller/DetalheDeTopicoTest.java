@@ -0,0 +1,132 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.dto.resposta.DadosRespostaCadastro;
+import br.com.forumhub.ForumHub.model.entities.Resposta;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.repository.RespostaRepository;
+import jakarta.persistence.EntityManager;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que o detalhe de um tópico seja montado com um número fixo de consultas,
+ * independente da quantidade de respostas e de autores distintos, e que a paginação
+ * das respostas por cursor percorra todas elas sem repetir nem pular nenhuma.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class DetalheDeTopicoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 50})
+    void detalheDoTopicoUsaDuasConsultas(int quantidadeRespostas) throws Exception {
+        var topico = novoTopicoComRespostas(quantidadeRespostas);
+
+        // Descarta o contexto de persistência para que tudo seja lido do banco
+        entityManager.flush();
+        entityManager.clear();
+        ContadorDeSql.zerar();
+
+        mvc.perform(get("/topicos/" + topico.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomeAutor").value("Autor do tópico"))
+                .andExpect(jsonPath("$.respostas.length()").value(Math.min(quantidadeRespostas, 20)));
+
+        assertThat(ContadorDeSql.comandos())
+                .as("comandos SQL emitidos no detalhe do tópico")
+                .hasSize(2);
+    }
+
+    @Test
+    void respostasPaginadasPorCursorPercorremTodasAsRespostasUmaVez() throws Exception {
+        var topico = novoTopicoComRespostas(0);
+        var autor = dados.novoUsuario("Autor");
+
+        // Respostas com a mesma data de criação, desempatadas pelo ID
+        var data = LocalDateTime.now().withNano(0);
+        var esperadas = new ArrayList<Long>();
+        for (int i = 0; i < 23; i++) {
+            esperadas.add(respostaRepository.save(new Resposta(null, "Resposta " + i, data, topico, autor, "Não")).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        var recebidas = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var requisicao = get("/topicos/" + topico.getId() + "/respostas").param("tamanho", "5");
+            if (cursor != null) {
+                requisicao.param("after", cursor);
+            }
+
+            ContadorDeSql.zerar();
+            var corpo = mvc.perform(requisicao)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(ContadorDeSql.comandos()).as("comandos SQL por página").hasSize(1);
+
+            var pagina = JsonPath.parse(corpo);
+            List<Number> ids = pagina.read("$.conteudo[*].id");
+            ids.forEach(id -> recebidas.add(id.longValue()));
+            cursor = pagina.read("$.proximo");
+        } while (cursor != null);
+
+        assertThat(recebidas).containsExactlyElementsOf(esperadas);
+    }
+
+    @Test
+    void cursorInvalidoRetornaErro() throws Exception {
+        var topico = novoTopicoComRespostas(0);
+
+        mvc.perform(get("/topicos/" + topico.getId() + "/respostas").param("after", "invalido"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Topico novoTopicoComRespostas(int quantidadeRespostas) {
+        var autor = dados.novoUsuario("Autor do tópico");
+        var curso = dados.novoCurso();
+        var topico = dados.novoTopico(autor, curso);
+
+        // Cada resposta tem um autor diferente, o cenário que antes gerava uma consulta por resposta
+        for (int i = 0; i < quantidadeRespostas; i++) {
+            var usuario = dados.novoUsuario("Usuario " + i);
+            respostaRepository.save(new Resposta(new DadosRespostaCadastro("Resposta " + i, "Não"), topico, usuario));
+        }
+
+        return topico;
+    }
+}
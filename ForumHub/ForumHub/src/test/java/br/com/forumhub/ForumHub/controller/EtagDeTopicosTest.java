@@ -0,0 +1,206 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que os detalhes de um tópico levem um ETag forte e um Last-Modified que mudam com a versão
+ * do tópico, inclusive quando ele recebe uma resposta, e que as listagens levem um ETag fraco. As requisições
+ * condicionais que correspondem à versão atual recebem 304, venham ou não do cache de respostas. Renomear um
+ * usuário muda a versão dos tópicos em que o nome dele aparece.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class EtagDeTopicosTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    private Usuario usuario;
+    private Usuario outro;
+    private Curso curso;
+    private String token;
+    private final List<Long> respostas = new ArrayList<>();
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() throws Exception {
+        for (var id : respostas) {
+            mvc.perform(delete("/respostas/" + id).header("Authorization", "Bearer " + token));
+        }
+        if (outro != null) {
+            dados.remover(outro);
+        }
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void detalheSoEhReenviadoQuandoAVersaoDoTopicoMuda() throws Exception {
+        var id = criarTopico();
+        var etag = mvc.perform(get("/topicos/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+
+        // Servida pelo cache de respostas, e depois autenticada, que chega ao controller
+        mvc.perform(get("/topicos/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mvc.perform(get("/topicos/" + id).header(HttpHeaders.IF_NONE_MATCH, etag).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        // Uma resposta muda a versão do tópico
+        responder(id);
+        var novoEtag = mvc.perform(get("/topicos/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(novoEtag).isNotEqualTo(etag);
+
+        mvc.perform(get("/topicos/" + id).header(HttpHeaders.IF_NONE_MATCH, novoEtag).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void renomearOAutorMudaOEtagDosTopicosDeQueEleParticipou() throws Exception {
+        var publicado = criarTopico();
+        outro = dados.novoUsuario("Outro");
+        var respondido = dados.novoTopico(outro, curso).getId();
+        responder(respondido);
+        var etagPublicado = etag(publicado);
+        var etagRespondido = etag(respondido);
+
+        var novoNome = "Autor renomeado " + UUID.randomUUID();
+        mvc.perform(put("/usuarios")
+                        .content("{\"nome\": \"" + novoNome + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Sem a nova versão, o cliente receberia 304 e continuaria exibindo o nome antigo
+        mvc.perform(get("/topicos/" + publicado).header(HttpHeaders.IF_NONE_MATCH, etagPublicado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nomeAutor").value(novoNome));
+        mvc.perform(get("/topicos/" + respondido).header(HttpHeaders.IF_NONE_MATCH, etagRespondido))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.respostas[0].nomeAutor").value(novoNome));
+    }
+
+    @Test
+    void detalheNaoModificadoDesdeOLastModifiedRecebe304() throws Exception {
+        var antes = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        var id = criarTopico();
+        var ultimaModificacao = mvc.perform(get("/topicos/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        // O Last-Modified é o instante da criação, qualquer que seja o fuso horário da instância
+        assertThat(Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ultimaModificacao)))
+                .isBetween(antes, Instant.now());
+
+        mvc.perform(get("/topicos/" + id).header(HttpHeaders.IF_MODIFIED_SINCE, ultimaModificacao).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listagemLevaUmEtagFracoQueMudaComAPagina() throws Exception {
+        criarTopico();
+        var listagem = get("/topicos/filtrados").param("curso", curso.getNome());
+        var etag = mvc.perform(listagem)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/topicos/filtrados").param("curso", curso.getNome()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        criarTopico();
+        mvc.perform(get("/topicos/filtrados").param("curso", curso.getNome()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listagemServidaPeloCacheTambemLevaOEtag() throws Exception {
+        criarTopico();
+        var etag = mvc.perform(get("/topicos").param("size", "1").param("sort", "id,desc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/topicos").param("size", "1").param("sort", "id,desc"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        mvc.perform(get("/topicos").param("size", "1").param("sort", "id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etag(Long topicoId) throws Exception {
+        return mvc.perform(get("/topicos/" + topicoId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Long criarTopico() throws Exception {
+        var resposta = mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"Tópico com ETag\", \"mensagem\": \"Mensagem " + UUID.randomUUID() + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private void responder(Long topicoId) throws Exception {
+        var resposta = mvc.perform(post("/respostas/" + topicoId)
+                        .content("{\"mensagem\": \"Resposta com ETag\", \"solucao\": \"Não\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        respostas.add(JsonPath.parse(resposta).read("$.id", Long.class));
+    }
+}
@@ -0,0 +1,256 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.ForumHubApplication;
+import br.com.forumhub.ForumHub.infra.cache.OuvinteDeInvalidacao;
+import br.com.forumhub.ForumHub.infra.similaridade.AssinaturaSimHash;
+import br.com.forumhub.ForumHub.infra.similaridade.IndiceDeSimilaridade;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as alterações feitas em outra instância da aplicação, ligada ao mesmo banco, removam dos caches
+ * desta as respostas HTTP e os usuários e cheguem aos seus índices de similaridade e de sugestões, e que todos
+ * os caches sejam descartados e os índices recarregados quando a conexão ao canal de invalidação é refeita.
+ * A outra instância é iniciada pelo próprio teste, em uma porta livre, e os dados são gravados fora de uma
+ * transação de teste, pois as notificações só são entregues após o commit.
+ */
+@SpringBootTest(properties = "api.cache.invalidacao.reconexao=PT0.2S")
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class InvalidacaoEntreInstanciasTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(15);
+
+    private static ConfigurableApplicationContext outraInstancia;
+    private static URI enderecoDaOutraInstancia;
+    private static final HttpClient http = HttpClient.newHttpClient();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IndiceDeSimilaridade indiceDeSimilaridade;
+
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+
+    @BeforeAll
+    static void iniciarOutraInstancia() {
+        // Sem diretório, o índice de busca da outra instância fica em memória
+        outraInstancia = new SpringApplicationBuilder(ForumHubApplication.class)
+                .properties("server.port=0", "api.busca.diretorio=")
+                .run();
+        var porta = ((ServletWebServerApplicationContext) outraInstancia).getWebServer().getPort();
+        enderecoDaOutraInstancia = URI.create("http://localhost:" + porta);
+    }
+
+    @AfterAll
+    static void pararOutraInstancia() {
+        outraInstancia.close();
+    }
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void edicaoEmOutraInstanciaRemoveOTopicoDosCachesDestaInstancia() throws Exception {
+        var id = criarTopico("Título original");
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.titulo").value("Título original"));
+        assertThat(topicoRepository.findById(id).orElseThrow().getTitulo()).isEqualTo("Título original");
+        var recebidas = contador("notificacao");
+
+        var edicao = naOutraInstancia("PUT", "/topicos/" + id,
+                "{\"titulo\": \"Título da outra instância\", \"mensagem\": \"Mensagem " + UUID.randomUUID() + "\"}");
+        assertThat(edicao.statusCode()).as(edicao.body()).isEqualTo(200);
+
+        aguardar(() -> tituloNoDetalhe(id).equals("Título da outra instância"));
+        assertThat(topicoRepository.findById(id).orElseThrow().getTitulo()).isEqualTo("Título da outra instância");
+        assertThat(contador("notificacao")).isGreaterThan(recebidas);
+    }
+
+    @Test
+    void criacaoEdicaoERemocaoEmOutraInstanciaChegamAosIndicesDestaInstancia() throws Exception {
+        var marcador = "Remoto" + UUID.randomUUID().toString().substring(0, 8);
+        var mensagem = "Mensagem " + UUID.randomUUID();
+
+        var criacao = naOutraInstancia("POST", "/topicos",
+                "{\"titulo\": \"" + marcador + " original\", \"mensagem\": \"" + mensagem + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}");
+        assertThat(criacao.statusCode()).as(criacao.body()).isEqualTo(201);
+        var id = JsonPath.parse(criacao.body()).read("$.id", Long.class);
+        aguardar(() -> sugestoes(marcador).equals(List.of(marcador + " original")));
+        assertThat(indiceDeSimilaridade.buscarSemelhante(AssinaturaSimHash.calcular(marcador + " original", mensagem)))
+                .hasValueSatisfying(semelhante -> assertThat(semelhante.id()).isEqualTo(id));
+
+        var edicao = naOutraInstancia("PUT", "/topicos/" + id, "{\"titulo\": \"" + marcador + " editado\"}");
+        assertThat(edicao.statusCode()).as(edicao.body()).isEqualTo(200);
+        aguardar(() -> sugestoes(marcador).equals(List.of(marcador + " editado")));
+
+        var remocao = naOutraInstancia("DELETE", "/topicos/" + id, null);
+        assertThat(remocao.statusCode()).as(remocao.body()).isBetween(200, 299);
+        aguardar(() -> sugestoes(marcador).isEmpty());
+        assertThat(indiceDeSimilaridade.buscarSemelhante(AssinaturaSimHash.calcular(marcador + " editado", mensagem))).isEmpty();
+    }
+
+    @Test
+    void renomearOAutorEmOutraInstanciaAtualizaONomeNasRespostasDestaInstancia() throws Exception {
+        var id = criarTopico("Autor renomeado");
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.nomeAutor").value("Autor"));
+
+        var renomeacao = naOutraInstancia("PUT", "/usuarios", "{\"nome\": \"Autor da outra instância\"}");
+        assertThat(renomeacao.statusCode()).as(renomeacao.body()).isEqualTo(200);
+
+        aguardar(() -> campoNoDetalhe(id, "$.nomeAutor").equals("Autor da outra instância"));
+    }
+
+    @Test
+    void desativacaoEmOutraInstanciaImpedeEscritasNestaInstancia() throws Exception {
+        criarTopico("Antes da desativação");
+
+        var desativacao = naOutraInstancia("DELETE", "/usuarios", null);
+        assertThat(desativacao.statusCode()).as(desativacao.body()).isEqualTo(200);
+
+        // O usuário desativado deixa de ser autenticado pelo filtro de segurança desta instância
+        aguardar(() -> {
+            try {
+                return mvc.perform(post("/topicos")
+                                .content("{\"titulo\": \"Depois da desativação\", \"mensagem\": \"Mensagem " + UUID.randomUUID() + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andReturn().getResponse().getStatus() == 403;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void reconexaoAoCanalDescartaTodosOsCaches() throws Exception {
+        var id = criarTopico("Antes da reconexão");
+        mvc.perform(get("/topicos/" + id)).andExpect(status().isOk());
+
+        // Uma alteração feita diretamente no banco não gera notificação e não aparece enquanto a resposta estiver em cache
+        jdbcTemplate.update("update topicos set titulo = ? where id = ?", "Depois da reconexão", id);
+        assertThat(tituloNoDetalhe(id)).isEqualTo("Antes da reconexão");
+
+        var ressincronizacoes = contador("ressincronizacao");
+        jdbcTemplate.queryForList("select pg_terminate_backend(pid) from pg_stat_activity where application_name = ?",
+                OuvinteDeInvalidacao.NOME_DA_CONEXAO);
+
+        aguardar(() -> contador("ressincronizacao") > ressincronizacoes);
+        assertThat(tituloNoDetalhe(id)).isEqualTo("Depois da reconexão");
+    }
+
+    private Long criarTopico(String titulo) throws Exception {
+        var resposta = mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"" + titulo + "\", \"mensagem\": \"Mensagem " + UUID.randomUUID() + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private String tituloNoDetalhe(Long id) {
+        return campoNoDetalhe(id, "$.titulo");
+    }
+
+    private String campoNoDetalhe(Long id, String campo) {
+        try {
+            var detalhe = mvc.perform(get("/topicos/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            return JsonPath.parse(detalhe).read(campo, String.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> sugestoes(String prefixo) {
+        try {
+            var resposta = mvc.perform(get("/topicos/sugestoes").param("prefixo", prefixo))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            return JsonPath.parse(resposta).read("$[*].texto");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<String> naOutraInstancia(String metodo, String caminho, String json) throws Exception {
+        var corpo = json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody();
+        var requisicao = HttpRequest.newBuilder(enderecoDaOutraInstancia.resolve(caminho))
+                .method(metodo, corpo)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        return http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private double contador(String tipo) {
+        return meterRegistry.get("cache.invalidacoes").tag("tipo", tipo).counter().count();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.nanoTime() + ESPERA.toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atendida em %s", ESPERA).isLessThan(limite);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.infra.cache.CarregamentoUnico;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Garante que as leituras simultâneas da mesma chave compartilhem uma única carga, inclusive a sua falha,
+ * e que a carga não fique guardada depois de terminar. A carga de teste só termina quando todas as leituras
+ * já estão aguardando, para que o agrupamento não dependa da ordem das threads.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class LeiturasSimultaneasDeTopicoTest {
+
+    private static final int LEITURAS = 20;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private CarregamentoUnico carregamentoUnico;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Usuario usuario;
+    private Curso curso;
+    private Topico topico;
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        topico = dados.novoTopico(usuario, curso);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void leiturasSimultaneasCompartilhamUmaUnicaCarga() throws Exception {
+        var chave = "teste:" + UUID.randomUUID();
+        var cargas = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+        var compartilhadosAntes = contador("compartilhado");
+
+        var resultados = emParalelo(() -> carregamentoUnico.carregar(chave, () -> {
+            cargas.incrementAndGet();
+            aguardar(liberar);
+            return "resultado";
+        }), liberar);
+
+        for (var resultado : resultados) {
+            assertThat(resultado.get()).isEqualTo("resultado");
+        }
+        assertThat(cargas).hasValue(1);
+        assertThat(contador("compartilhado") - compartilhadosAntes).isEqualTo(LEITURAS - 1);
+
+        // Terminada, a carga não fica guardada
+        assertThat(carregamentoUnico.carregar(chave, () -> "nova carga")).isEqualTo("nova carga");
+    }
+
+    @Test
+    void falhaDaCargaEhEntregueATodosEAProximaLeituraTentaDeNovo() throws Exception {
+        var chave = "teste:" + UUID.randomUUID();
+        var cargas = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+
+        var resultados = emParalelo(() -> carregamentoUnico.carregar(chave, () -> {
+            cargas.incrementAndGet();
+            aguardar(liberar);
+            throw new IllegalStateException("banco indisponível");
+        }), liberar);
+
+        for (var resultado : resultados) {
+            assertThatThrownBy(resultado::get).hasRootCauseMessage("banco indisponível");
+        }
+        assertThat(cargas).hasValue(1);
+        assertThat(carregamentoUnico.carregar(chave, () -> "recuperado")).isEqualTo("recuperado");
+    }
+
+    @Test
+    void detalhesDoTopicoSimultaneosRetornamOMesmoConteudo() throws Exception {
+        var token = dados.token(usuario);
+        var executadosAntes = contador("executado");
+        var compartilhadosAntes = contador("compartilhado");
+
+        // Autenticadas, as leituras não são atendidas pelo cache de respostas e chegam ao controller
+        var resultados = emParalelo(() -> mvc.perform(get("/topicos/" + topico.getId()).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getContentAsString(), null);
+
+        var corpos = new HashSet<String>();
+        for (var resultado : resultados) {
+            corpos.add(resultado.get());
+        }
+        assertThat(corpos).hasSize(1).first().asString().contains(topico.getTitulo());
+        assertThat(contador("executado") - executadosAntes + contador("compartilhado") - compartilhadosAntes)
+                .isEqualTo(LEITURAS);
+    }
+
+    /**
+     * Inicia as leituras em paralelo e, quando todas já estão bloqueadas (na carga ou aguardando por ela),
+     * libera a carga.
+     */
+    private <T> List<Future<T>> emParalelo(Callable<T> leitura, CountDownLatch liberar) throws Exception {
+        var executor = Executors.newFixedThreadPool(LEITURAS);
+        var threads = new ArrayList<Thread>();
+        try {
+            var resultados = new ArrayList<Future<T>>();
+            for (int i = 0; i < LEITURAS; i++) {
+                resultados.add(executor.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    return leitura.call();
+                }));
+            }
+            if (liberar != null) {
+                while (!todasBloqueadas(threads)) {
+                    Thread.sleep(10);
+                }
+                liberar.countDown();
+            }
+            for (var resultado : resultados) {
+                try {
+                    resultado.get(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    // A falha é verificada por quem chamou
+                }
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean todasBloqueadas(List<Thread> threads) {
+        synchronized (threads) {
+            return threads.size() == LEITURAS && threads.stream().allMatch(thread ->
+                    thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING);
+        }
+    }
+
+    private static void aguardar(CountDownLatch liberar) {
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("cache.carregamentos").tag("resultado", resultado).counter().count();
+    }
+}
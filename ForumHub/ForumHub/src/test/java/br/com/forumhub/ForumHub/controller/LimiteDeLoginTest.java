@@ -0,0 +1,77 @@
+package br.com.forumhub.ForumHub.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que as tentativas de login sejam limitadas pelo IP do cliente informado no X-Forwarded-For
+ * pelo proxy reverso, e não pelo IP do proxy. As requisições passam pelo Tomcat, que resolve o cabeçalho,
+ * e vêm do localhost, tratado como proxy interno. Cada tentativa usa um e-mail próprio, para não esbarrar
+ * no limite por e-mail.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "api.limite.login-ip.capacidade=3",
+        "api.limite.login-ip.periodo=PT3S"})
+class LimiteDeLoginTest {
+
+    private static final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int porta;
+
+    @Test
+    void loginEhRecusadoCom429AposACapacidadeDoIp() throws Exception {
+        esgotar("10.6.0.1");
+
+        var recusado = login("10.6.0.1");
+        assertThat(recusado.statusCode()).isEqualTo(429);
+        assertThat(recusado.headers().firstValue(HttpHeaders.RETRY_AFTER)).hasValue("1");
+    }
+
+    @Test
+    void baldeDoIpEhRepostoComOTempo() throws Exception {
+        esgotar("10.6.0.2");
+        assertThat(login("10.6.0.2").statusCode()).isEqualTo(429);
+
+        // Uma ficha é reposta a cada segundo (capacidade 3 em 3 segundos)
+        Thread.sleep(1100);
+        assertThat(login("10.6.0.2").statusCode()).isNotEqualTo(429);
+        assertThat(login("10.6.0.2").statusCode()).isEqualTo(429);
+    }
+
+    @Test
+    void cadaIpAtrasDoMesmoProxyTemOProprioBalde() throws Exception {
+        esgotar("10.6.0.3");
+        assertThat(login("10.6.0.3").statusCode()).isEqualTo(429);
+
+        assertThat(login("10.6.0.4").statusCode()).isNotEqualTo(429);
+    }
+
+    private void esgotar(String ip) throws Exception {
+        for (var i = 0; i < 3; i++) {
+            assertThat(login(ip).statusCode()).as("tentativa %d", i + 1).isNotEqualTo(429);
+        }
+    }
+
+    // Tentativa com um e-mail não cadastrado, repassada pelo proxy em nome do IP informado
+    private HttpResponse<String> login(String ip) throws Exception {
+        var json = "{\"email\": \"limite-" + UUID.randomUUID() + "@forumhub.com\", \"senha\": \"senha\"}";
+        var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/login"))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .header("X-Forwarded-For", ip)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        return http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+    }
+}
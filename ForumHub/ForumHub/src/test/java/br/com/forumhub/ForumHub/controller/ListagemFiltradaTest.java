@@ -0,0 +1,208 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.PlanoDeConsulta;
+import br.com.forumhub.ForumHub.dto.topico.DadosFiltroTopicos;
+import br.com.forumhub.ForumHub.infra.paginacao.Cursor;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.model.enums.Categoria;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que a listagem filtrada combine os filtros corretamente e que nenhuma combinação de filtros
+ * leia a tabela de tópicos sequencialmente. Os planos são os genéricos do SQL gerado, preparado no banco
+ * depois de gravar na transação do teste um volume de tópicos suficiente para que o banco os planeje como
+ * em produção; tudo é desfeito no rollback, inclusive as estatísticas.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class ListagemFiltradaTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    private Usuario autor;
+    private Usuario outroAutor;
+    private Curso java;
+    private Curso redes;
+    private Topico javaAberto;
+    private Topico javaSolucionado;
+    private Topico javaDeOutroAutor;
+    private Topico redesAberto;
+
+    @BeforeEach
+    void prepararDados() {
+        var sufixo = UUID.randomUUID().toString();
+        autor = dados.novoUsuario("Autor");
+        outroAutor = dados.novoUsuario("Outro");
+        java = dados.novoCurso("Java " + sufixo);
+        redes = dados.novoCurso("Redes " + sufixo, Categoria.REDES);
+
+        var data = LocalDateTime.now().withNano(0);
+        javaAberto = topico("Java aberto " + sufixo, data, StatusTopico.NAO_RESPONDIDO, autor, java);
+        javaSolucionado = topico("Java solucionado " + sufixo, data, StatusTopico.SOLUCIONADO, autor, java);
+        javaDeOutroAutor = topico("Java de outro " + sufixo, data, StatusTopico.NAO_RESPONDIDO, outroAutor, java);
+        redesAberto = topico("Redes aberto " + sufixo, data, StatusTopico.NAO_RESPONDIDO, autor, redes);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filtrosSaoCombinados() throws Exception {
+        mvc.perform(get("/topicos/filtrados").param("curso", java.getNome().toUpperCase()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaAberto, javaSolucionado, javaDeOutroAutor))));
+        mvc.perform(get("/topicos/filtrados").param("curso", java.getNome()).param("status", "NAO_RESPONDIDO"))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaAberto, javaDeOutroAutor))));
+        mvc.perform(get("/topicos/filtrados").param("autor", autor.getId().toString()).param("status", "NAO_RESPONDIDO"))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaAberto, redesAberto))));
+        mvc.perform(get("/topicos/filtrados").param("categoria", "REDES").param("autor", autor.getId().toString()))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(redesAberto))));
+
+        // Curso e categoria que não combinam não retornam tópicos; curso inexistente é recusado
+        mvc.perform(get("/topicos/filtrados").param("curso", java.getNome()).param("categoria", "REDES"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo").isEmpty());
+        mvc.perform(get("/topicos/filtrados").param("curso", "Inexistente " + UUID.randomUUID()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void paginasFiltradasPercorremOsTopicosNasDuasDirecoes() throws Exception {
+        var primeira = JsonPath.parse(mvc.perform(get("/topicos/filtrados").param("curso", java.getNome()).param("tamanho", "2"))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaAberto, javaSolucionado))))
+                .andReturn().getResponse().getContentAsString());
+
+        var segunda = JsonPath.parse(mvc.perform(get("/topicos/filtrados").param("curso", java.getNome()).param("tamanho", "2")
+                        .param("after", primeira.read("$.proximo", String.class)))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaDeOutroAutor))))
+                .andExpect(jsonPath("$.proximo").isEmpty())
+                .andReturn().getResponse().getContentAsString());
+
+        mvc.perform(get("/topicos/filtrados").param("curso", java.getNome()).param("tamanho", "2")
+                        .param("before", segunda.read("$.anterior", String.class)))
+                .andExpect(jsonPath("$.conteudo[*].id", contains(ids(javaAberto, javaSolucionado))));
+    }
+
+    @Test
+    void nenhumaCombinacaoDeFiltrosLeATabelaSequencialmente() {
+        gerarVolume();
+
+        var cursor = new Cursor(javaAberto.getDataCriacao(), javaAberto.getId());
+        for (int combinacao = 0; combinacao < 16; combinacao++) {
+            var cursoIds = (combinacao & 1) == 0 ? null
+                    : (combinacao & 8) == 0 ? List.of(java.getId()) : List.of(java.getId(), redes.getId());
+            var status = (combinacao & 2) == 0 ? null : StatusTopico.NAO_RESPONDIDO;
+            var autorId = (combinacao & 4) == 0 ? null : autor.getId();
+            var filtro = new DadosFiltroTopicos(cursoIds, status, autorId);
+
+            // Os filtros seletivos (um curso, um autor) devem ser condição de um índice, e não um filtro aplicado às linhas
+            // lidas; o status, com poucos valores, e os vários cursos de uma categoria podem ser verificados ao percorrer
+            // o índice da data, que já dá a ordem pedida
+            var colunas = new ArrayList<String>();
+            if (cursoIds != null && cursoIds.size() == 1) {
+                colunas.add("curso_id");
+            }
+            if (autorId != null) {
+                colunas.add("autor_id");
+            }
+
+            for (var posicao : new Cursor[]{null, cursor}) {
+                for (var decrescente : new boolean[]{false, true}) {
+                    var plano = PlanoDeConsulta.de(entityManager, "topicos", "listagem_filtrada",
+                            () -> topicoRepository.listarFiltrados(filtro, posicao, decrescente, Limit.of(11)));
+                    assertThat(plano)
+                            .as("plano de %s, cursor %s, decrescente %s", filtro, posicao, decrescente)
+                            .doesNotContain("Seq Scan");
+                    if (!colunas.isEmpty()) {
+                        assertThat(plano.lines().filter(linha -> linha.contains("Index Cond")))
+                                .as("condições de índice de %s, cursor %s, decrescente %s:%n%s", filtro, posicao, decrescente, plano)
+                                .anyMatch(linha -> colunas.stream().anyMatch(linha::contains));
+                    }
+                }
+            }
+        }
+    }
+
+    // Grava, na transação do teste, tópicos distribuídos entre vários autores, cursos e status e atualiza as estatísticas,
+    // para que o banco planeje as consultas como em uma tabela grande e não as resolva lendo todas as linhas
+    private void gerarVolume() {
+        var sufixo = UUID.randomUUID().toString();
+        entityManager.createNativeQuery("""
+                        insert into usuarios (nome, email, senha, ativo)
+                        select 'Volume', 'volume-' || :sufixo || '-' || i || '@forumhub.com', 'senha', true from generate_series(1, 200) i
+                        """)
+                .setParameter("sufixo", sufixo)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        insert into cursos (nome, categoria)
+                        select 'Volume ' || :sufixo || ' ' || i, (array['PROGRAMACAO', 'REDES', 'BANCO_DE_DADOS', 'DESIGN'])[1 + i % 4]
+                        from generate_series(1, 40) i
+                        """)
+                .setParameter("sufixo", sufixo)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        with autores as (select array_agg(id) ids from usuarios where email like 'volume-' || :sufixo || '-%'),
+                             cursos as (select array_agg(id) ids from cursos where nome like 'Volume ' || :sufixo || ' %')
+                        insert into topicos (titulo, mensagem, hash_conteudo, data_criacao, ultima_atividade, status,
+                                             respostas_count, versao, autor_id, curso_id)
+                        select 'Volume ' || i, 'Mensagem', md5(:sufixo || i) || md5(i || :sufixo),
+                               now() - i * interval '1 minute', now(),
+                               (array['NAO_RESPONDIDO', 'NAO_SOLUCIONADO', 'SOLUCIONADO'])[1 + i % 3], 0, 0,
+                               autores.ids[1 + i % 200], cursos.ids[1 + i % 40]
+                        from generate_series(1, 50000) i, autores, cursos
+                        """)
+                .setParameter("sufixo", sufixo)
+                .executeUpdate();
+        entityManager.createNativeQuery("analyze topicos").executeUpdate();
+    }
+
+    private Topico topico(String titulo, LocalDateTime data, StatusTopico status, Usuario autor, Curso curso) {
+        return topicoRepository.save(new Topico(null, titulo, "Mensagem", data, status, autor, curso, new ArrayList<>()));
+    }
+
+    private static Integer[] ids(Topico... topicos) {
+        var ids = new Integer[topicos.length];
+        for (int i = 0; i < topicos.length; i++) {
+            ids[i] = topicos[i].getId().intValue();
+        }
+        return ids;
+    }
+}
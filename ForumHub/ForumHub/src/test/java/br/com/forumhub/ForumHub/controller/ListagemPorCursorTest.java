@@ -0,0 +1,135 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as listagens de tópicos paginadas por cursor percorram todos os tópicos nas duas direções,
+ * sem repetir nem pular nenhum, com uma única consulta por página e sem {@code count}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class ListagemPorCursorTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    private String token;
+    private List<Long> topicosDoUsuario;
+
+    @BeforeEach
+    void prepararDados() {
+        var sufixo = UUID.randomUUID().toString();
+        var usuario = dados.novoUsuario("Autor");
+        var curso = dados.novoCurso();
+        token = dados.token(usuario);
+
+        // Tópicos com a mesma data de criação, desempatados pelo ID
+        var data = LocalDateTime.now().withNano(0);
+        topicosDoUsuario = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            var topico = new Topico(null, "Titulo " + i + " " + sufixo, "Mensagem", data, StatusTopico.NAO_RESPONDIDO, usuario, curso, new ArrayList<>());
+            topicosDoUsuario.add(topicoRepository.save(topico).getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void topicosDoUsuarioSaoPercorridosNasDuasDirecoes() throws Exception {
+        var ida = new ArrayList<Long>();
+        var pagina = buscar("/usuarios/topicos/cursor", null, null);
+        assertThat((String) pagina.read("$.anterior")).isNull();
+        ida.addAll(ids(pagina));
+
+        while (pagina.read("$.proximo") != null) {
+            pagina = buscar("/usuarios/topicos/cursor", pagina.read("$.proximo"), null);
+            ida.addAll(ids(pagina));
+        }
+        assertThat(ida).containsExactlyElementsOf(topicosDoUsuario);
+
+        // Volta da última página até a primeira usando o cursor "anterior"
+        var volta = new ArrayList<Long>(ids(pagina));
+        while (pagina.read("$.anterior") != null) {
+            pagina = buscar("/usuarios/topicos/cursor", null, pagina.read("$.anterior"));
+            volta.addAll(0, ids(pagina));
+        }
+        assertThat(volta).containsExactlyElementsOf(topicosDoUsuario);
+    }
+
+    @Test
+    void listagemGeralAvancaEVoltaParaAMesmaPagina() throws Exception {
+        var primeira = buscar("/topicos/cursor", null, null);
+        var segunda = buscar("/topicos/cursor", primeira.read("$.proximo"), null);
+        var deVolta = buscar("/topicos/cursor", null, segunda.read("$.anterior"));
+
+        assertThat(ids(deVolta)).containsExactlyElementsOf(ids(primeira));
+    }
+
+    @Test
+    void cursoresSimultaneosSaoRecusados() throws Exception {
+        mvc.perform(get("/topicos/cursor").param("after", "a").param("before", "b"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private DocumentContext buscar(String caminho, String after, String before) throws Exception {
+        var requisicao = get(caminho).param("tamanho", "5").header("Authorization", "Bearer " + token);
+        if (after != null) {
+            requisicao.param("after", after);
+        }
+        if (before != null) {
+            requisicao.param("before", before);
+        }
+
+        ContadorDeSql.zerar();
+        var corpo = mvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // A consulta da página é a única que toca a tabela de tópicos, e nenhuma faz count
+        assertThat(ContadorDeSql.consultasNaTabela("topicos")).as("consultas em %s", ContadorDeSql.comandos()).isEqualTo(1);
+        assertThat(ContadorDeSql.comandos()).noneMatch(sql -> sql.contains("count("));
+
+        return JsonPath.parse(corpo);
+    }
+
+    private static List<Long> ids(DocumentContext pagina) {
+        List<Number> ids = pagina.read("$.conteudo[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
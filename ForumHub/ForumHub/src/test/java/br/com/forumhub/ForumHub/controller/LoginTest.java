@@ -0,0 +1,92 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante o comportamento do login com as credenciais gravadas no banco. Cada tentativa vem de um IP
+ * próprio do teste, para não esbarrar no limite de tentativas por IP dos demais testes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class LoginTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${api.security.senha.custo}")
+    private int custo;
+
+    private Usuario usuario;
+
+    @AfterEach
+    void removerDados() {
+        if (usuario != null) {
+            dados.remover(usuario);
+        }
+    }
+
+    @Test
+    void loginRecalculaOHashGeradoComOutroCusto() throws Exception {
+        var email = "login-" + DadosDeTeste.sufixo() + "@forumhub.com";
+        usuario = usuarioRepository.save(new Usuario("Autor", email, new BCryptPasswordEncoder(4).encode("senha-antiga")));
+
+        login(email, "senha-antiga").andExpect(status().isOk());
+        var recalculado = usuarioRepository.findById(usuario.getId()).orElseThrow().getSenha();
+        assertThat(recalculado).startsWith("$2a$%02d$".formatted(custo));
+
+        // O hash novo continua aceitando a mesma senha
+        login(email, "senha-antiga").andExpect(status().isOk());
+        login(email, "outra-senha").andExpect(status().isForbidden());
+    }
+
+    @Test
+    void loginUsaASenhaAlteradaMesmoComOUsuarioEmCache() throws Exception {
+        usuario = dados.novoUsuario("Autor");
+        var token = dados.token(usuario);
+        mvc.perform(get("/usuarios/topicos").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+
+        mvc.perform(put("/usuarios")
+                        .content("{\"senha\": \"senha-nova\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        login(usuario.getEmail(), "senha-nova").andExpect(status().isOk());
+    }
+
+    private ResultActions login(String email, String senha) throws Exception {
+        return mvc.perform(post("/login")
+                .with(requisicao -> {
+                    requisicao.setRemoteAddr("10.1.0.1");
+                    return requisicao;
+                })
+                .content("{\"email\": \"" + email + "\", \"senha\": \"" + senha + "\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,213 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as leituras anônimas repetidas sejam servidas pelo cache de respostas e que as escritas removam
+ * apenas as respostas afetadas. Alterações feitas diretamente no banco, que não invalidam o cache, mostram
+ * quais respostas vieram dele. Os dados são gravados fora de uma transação de teste,
+ * já que o cache só é invalidado de vez após o commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class RespostaHttpCacheTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+    private final List<Long> respostas = new ArrayList<>();
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() throws Exception {
+        for (var id : respostas) {
+            mvc.perform(delete("/respostas/" + id).header("Authorization", "Bearer " + token));
+        }
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void detalheEhServidoDoCacheAteUmaRespostaNoTopico() throws Exception {
+        var id = criarTopico("Detalhe em cache");
+        mvc.perform(get("/topicos/" + id)).andExpect(status().isOk());
+
+        // Uma alteração feita diretamente no banco não aparece enquanto a resposta estiver em cache
+        alterarTituloNoBanco(id, "Detalhe alterado");
+        mvc.perform(get("/topicos/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Detalhe em cache"))
+                .andExpect(jsonPath("$.respostas").isEmpty());
+
+        responder(id);
+        mvc.perform(get("/topicos/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Detalhe alterado"))
+                .andExpect(jsonPath("$.respostas[*].mensagem", contains("Resposta em cache")));
+    }
+
+    @Test
+    void listagemSoEhRemovidaQuandoContemOTopicoAlteradoOuQuandoUmTopicoEhCriado() throws Exception {
+        var foraDaPagina = criarTopico("Fora da página");
+        var primeiro = criarTopico("Primeiro da página");
+        var segundo = criarTopico("Segundo da página");
+        var listagem = get("/topicos").param("size", "2").param("sort", "id,desc");
+
+        mvc.perform(listagem).andExpect(jsonPath("$.content[*].id", contains(segundo.intValue(), primeiro.intValue())));
+        alterarTituloNoBanco(primeiro, "Primeiro alterado");
+
+        // Uma resposta em um tópico fora da página não afeta a listagem
+        responder(foraDaPagina);
+        mvc.perform(listagem).andExpect(jsonPath("$.content[1].titulo").value("Primeiro da página"));
+
+        // Uma resposta em um tópico da página a remove
+        responder(primeiro);
+        mvc.perform(listagem)
+                .andExpect(jsonPath("$.content[1].titulo").value("Primeiro alterado"))
+                .andExpect(jsonPath("$.content[1].respostasCount").value(1));
+
+        // Um tópico novo remove todas as listagens
+        var terceiro = criarTopico("Terceiro da página");
+        mvc.perform(listagem).andExpect(jsonPath("$.content[*].id", contains(terceiro.intValue(), segundo.intValue())));
+    }
+
+    @Test
+    void listagemOrdenadaPorColunaQueMudaNaoUsaOCache() throws Exception {
+        var id = criarTopico("Ordenado por atividade");
+        var listagem = get("/topicos").param("size", "1").param("sort", "ultimaAtividade,desc");
+        mvc.perform(listagem).andExpect(jsonPath("$.content[0].id").value(id.intValue()));
+
+        alterarTituloNoBanco(id, "Ordenado alterado");
+        mvc.perform(listagem).andExpect(jsonPath("$.content[0].titulo").value("Ordenado alterado"));
+    }
+
+    @Test
+    void parametrosQueOEndpointNaoLeNaoUsamOCache() throws Exception {
+        var id = criarTopico("Parâmetro desconhecido");
+        mvc.perform(get("/topicos/" + id).param("x", "1")).andExpect(status().isOk());
+
+        alterarTituloNoBanco(id, "Parâmetro alterado");
+        mvc.perform(get("/topicos/" + id).param("x", "1"))
+                .andExpect(jsonPath("$.titulo").value("Parâmetro alterado"));
+        // Sem o parâmetro desconhecido, a primeira leitura vai ao banco e a segunda vem do cache
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.titulo").value("Parâmetro alterado"));
+        alterarTituloNoBanco(id, "Parâmetro desconhecido");
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.titulo").value("Parâmetro alterado"));
+    }
+
+    @Test
+    void renomearOAutorRemoveAsRespostasQueExibemONome() throws Exception {
+        var id = criarTopico("Autor renomeado");
+        responder(id);
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.nomeAutor").value("Autor"));
+        mvc.perform(get("/topicos/" + id + "/respostas")).andExpect(jsonPath("$.conteudo[0].nomeAutor").value("Autor"));
+
+        mvc.perform(put("/usuarios")
+                        .content("{\"nome\": \"Autor renomeado\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/topicos/" + id)).andExpect(jsonPath("$.nomeAutor").value("Autor renomeado"));
+        mvc.perform(get("/topicos/" + id + "/respostas")).andExpect(jsonPath("$.conteudo[0].nomeAutor").value("Autor renomeado"));
+    }
+
+    @Test
+    void respostaComprimidaEhEnviadaAQuemAceitaGzip() throws Exception {
+        var id = criarTopico("Tópico comprimido");
+        var json = mvc.perform(get("/topicos/" + id))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        var comprimido = mvc.perform(get("/topicos/" + id).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+    }
+
+    @Test
+    void leiturasAutenticadasNaoUsamOCache() throws Exception {
+        var id = criarTopico("Leitura autenticada");
+        mvc.perform(get("/topicos/" + id)).andExpect(status().isOk());
+        alterarTituloNoBanco(id, "Leitura alterada");
+
+        mvc.perform(get("/topicos/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Leitura alterada"));
+    }
+
+    private Long criarTopico(String titulo) throws Exception {
+        var resposta = mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"" + titulo + "\", \"mensagem\": \"Mensagem " + UUID.randomUUID() + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.parse(resposta).read("$.id", Long.class);
+    }
+
+    private void alterarTituloNoBanco(Long id, String titulo) {
+        jdbcTemplate.update("update topicos set titulo = ? where id = ?", titulo, id);
+    }
+
+    private void responder(Long topicoId) throws Exception {
+        var resposta = mvc.perform(post("/respostas/" + topicoId)
+                        .content("{\"mensagem\": \"Resposta em cache\", \"solucao\": \"Não\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        respostas.add(JsonPath.parse(resposta).read("$.id", Long.class));
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.model.enums.StatusTopico;
+import br.com.forumhub.ForumHub.repository.RespostaRepository;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Dispara milhares de respostas e remoções simultâneas em um único tópico e confere que
+ * o contador, o status e a versão terminam consistentes, sem atualizações perdidas.
+ *
+ * Não é transacional: cada requisição confirma a sua própria transação, como em produção.
+ */
+@SpringBootTest(properties = {
+        "api.limite.escrita.capacidade=1000000",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class RespostasConcorrentesTest {
+
+    private static final int RESPOSTAS = 2_000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespostaRepository respostaRepository;
+
+    private Usuario usuario;
+    private Curso curso;
+    private Topico topico;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        topico = dados.novoTopico(usuario, curso);
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("delete from Resposta r where r.topico.id = :id")
+                .setParameter("id", topico.getId())
+                .executeUpdate());
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void respostasERemocoesSimultaneasMantemContadorEStatusConsistentes() throws Exception {
+        var ids = new ConcurrentLinkedQueue<Long>();
+
+        var statusDasRespostas = executarEmParalelo(RESPOSTAS, i -> {
+            var resultado = mvc.perform(post("/respostas/" + topico.getId())
+                            .content("{\"mensagem\": \"Resposta " + i + "\", \"solucao\": \"Não\"}")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse();
+            if (resultado.getStatus() == 201) {
+                ids.add(JsonPath.parse(resultado.getContentAsString()).read("$.id", Long.class));
+            }
+            return resultado.getStatus();
+        });
+
+        assertThat(statusDasRespostas).containsOnlyKeys(201);
+        var aposRespostas = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(aposRespostas.getRespostasCount()).isEqualTo(RESPOSTAS);
+        assertThat(respostaRepository.countByTopicoId(topico.getId())).isEqualTo(RESPOSTAS);
+        assertThat(aposRespostas.getStatus()).isEqualTo(StatusTopico.SOLUCIONADO);
+        assertThat(aposRespostas.getVersao()).as("uma versão por resposta, incluindo as que mudam o status").isEqualTo(RESPOSTAS);
+
+        var lista = new ArrayList<>(ids);
+        var statusDasRemocoes = executarEmParalelo(lista.size(), i -> mvc.perform(delete("/respostas/" + lista.get(i))
+                        .header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus());
+
+        assertThat(statusDasRemocoes).containsOnlyKeys(200);
+        var aposRemocoes = topicoRepository.findById(topico.getId()).orElseThrow();
+        assertThat(aposRemocoes.getRespostasCount()).isZero();
+        assertThat(aposRemocoes.getStatus()).isEqualTo(StatusTopico.NAO_RESPONDIDO);
+        assertThat(aposRemocoes.getVersao()).as("uma versão por remoção").isEqualTo(2L * RESPOSTAS);
+    }
+
+    /**
+     * Executa a tarefa a quantidade de vezes informada, em paralelo, e agrupa os status HTTP retornados.
+     */
+    private Map<Integer, Integer> executarEmParalelo(int vezes, Tarefa tarefa) throws Exception {
+        var contagem = new ConcurrentHashMap<Integer, AtomicInteger>();
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Void>> tarefas = new ArrayList<>();
+            for (int i = 0; i < vezes; i++) {
+                var indice = i;
+                tarefas.add(() -> {
+                    var status = tarefa.executar(indice);
+                    contagem.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                    return null;
+                });
+            }
+            for (var futuro : executor.invokeAll(tarefas)) {
+                futuro.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var resultado = new TreeMap<Integer, Integer>();
+        contagem.forEach((status, quantidade) -> resultado.put(status, quantidade.get()));
+        return resultado;
+    }
+
+    @FunctionalInterface
+    private interface Tarefa {
+        int executar(int indice) throws Exception;
+    }
+}
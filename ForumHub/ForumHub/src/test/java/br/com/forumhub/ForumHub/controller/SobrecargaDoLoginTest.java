@@ -0,0 +1,139 @@
+package br.com.forumhub.ForumHub.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que o login responda 503 quando o pool de cálculo de senhas está saturado, também para um e-mail
+ * não cadastrado, que passa pela comparação com um hash falso do Spring contra ataques de temporização.
+ * O pool tem uma thread e uma vaga na fila, ocupadas por senhas cuja leitura pelo BCrypt só termina quando
+ * o teste as libera.
+ */
+@SpringBootTest(properties = {
+        "api.security.senha.threads=1",
+        "api.security.senha.fila=1",
+        "api.security.senha.tempo-maximo=PT0.5S"})
+@AutoConfigureMockMvc
+class SobrecargaDoLoginTest {
+
+    private static final Duration TEMPO_MAXIMO = Duration.ofMillis(500);
+    private static final String HASH = new BCryptPasswordEncoder(4).encode("senha");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final CountDownLatch liberacao = new CountDownLatch(1);
+    private final ExecutorService chamadas = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void liberarOPool() {
+        liberacao.countDown();
+        chamadas.shutdown();
+    }
+
+    @Test
+    void filaCheiaRecusaOLoginCom503() throws Exception {
+        ocuparAThread();
+        chamadas.submit(() -> passwordEncoder.matches(senhaPresa(new CountDownLatch(1)), HASH));
+        aguardar(() -> meterRegistry.get("senha.fila.tamanho").gauge().value() == 1);
+
+        login()
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void esperaAlemDoTempoMaximoRecusaOLoginCom503() throws Exception {
+        ocuparAThread();
+
+        var inicio = System.nanoTime();
+        login().andExpect(status().isServiceUnavailable());
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(TEMPO_MAXIMO);
+    }
+
+    // Ocupa a única thread do pool até o fim do teste
+    private void ocuparAThread() throws InterruptedException {
+        var iniciada = new CountDownLatch(1);
+        chamadas.submit(() -> passwordEncoder.matches(senhaPresa(iniciada), HASH));
+        assertThat(iniciada.await(5, TimeUnit.SECONDS)).as("senha lida pelo pool").isTrue();
+    }
+
+    // Senha cuja leitura pelo BCrypt avisa que começou e espera a liberação
+    private CharSequence senhaPresa(CountDownLatch iniciada) {
+        return new CharSequence() {
+            @Override
+            public String toString() {
+                iniciada.countDown();
+                try {
+                    liberacao.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "senha";
+            }
+
+            @Override
+            public int length() {
+                return toString().length();
+            }
+
+            @Override
+            public char charAt(int indice) {
+                return toString().charAt(indice);
+            }
+
+            @Override
+            public CharSequence subSequence(int inicio, int fim) {
+                return toString().subSequence(inicio, fim);
+            }
+        };
+    }
+
+    // E-mail não cadastrado, vindo de um IP próprio para não esbarrar no limite de tentativas
+    private ResultActions login() throws Exception {
+        return mvc.perform(post("/login")
+                .with(requisicao -> {
+                    requisicao.setRemoteAddr("10.5.0.1");
+                    return requisicao;
+                })
+                .content("{\"email\": \"ausente-" + UUID.randomUUID() + "@forumhub.com\", \"senha\": \"senha\"}")
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atendida").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
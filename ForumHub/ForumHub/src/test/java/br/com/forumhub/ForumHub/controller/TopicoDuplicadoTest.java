@@ -0,0 +1,164 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import br.com.forumhub.ForumHub.infra.agendamento.PreenchimentoDeHashDeConteudo;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.repository.TopicoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que a detecção de tópicos duplicados use o hash do conteúdo normalizado, tanto na
+ * criação quanto na atualização, e que os tópicos antigos recebam o hash pelo preenchimento em lotes,
+ * que registra cada duplicado antigo uma única vez.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class TopicoDuplicadoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private PreenchimentoDeHashDeConteudo preenchimento;
+
+    private String sufixo;
+    private Usuario autor;
+    private Curso curso;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        sufixo = UUID.randomUUID().toString();
+        autor = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(autor);
+    }
+
+    @Test
+    void hashIgnoraCaixaEEspacamento() {
+        assertThat(Topico.calcularHashConteudo("  Erro  no\tJPA ", "Mensagem\n do tópico"))
+                .isEqualTo(Topico.calcularHashConteudo("erro no jpa", "MENSAGEM DO TÓPICO"))
+                .hasSize(64);
+        assertThat(Topico.calcularHashConteudo("ab", "c"))
+                .as("o separador distingue a fronteira entre título e mensagem")
+                .isNotEqualTo(Topico.calcularHashConteudo("a", "bc"));
+    }
+
+    @Test
+    void criacaoDeTopicoDuplicadoConsultaOHash() throws Exception {
+        novoTopico("Titulo " + sufixo, "Mensagem");
+        entityManager.flush();
+        ContadorDeSql.zerar();
+
+        mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"  TITULO   " + sufixo + "\", \"mensagem\": \"mensagem \", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        assertThat(ContadorDeSql.comandos())
+                .filteredOn(sql -> sql.toLowerCase().contains("from topicos"))
+                .as("verificação de duplicidade pelo índice do hash")
+                .singleElement()
+                .satisfies(sql -> assertThat(sql.toLowerCase()).contains("hash_conteudo").doesNotContain("upper("));
+    }
+
+    @Test
+    void atualizacaoParcialConsideraOConteudoResultante() throws Exception {
+        novoTopico("Existente " + sufixo, "Mensagem");
+        var topico = novoTopico("Outro " + sufixo, "Mensagem");
+        entityManager.flush();
+
+        // Apenas o título é informado; a mensagem mantida torna o tópico igual ao existente
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .content("{\"titulo\": \"existente " + sufixo + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        // Reenviar o próprio conteúdo não é considerado duplicidade
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .content("{\"titulo\": \"Outro " + sufixo + "\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Outro " + sufixo));
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void preenchimentoCompletaOsTopicosAntigos(CapturedOutput saida) {
+        var primeiro = novoTopico("Antigo " + sufixo, "Mensagem");
+        var repetido = novoTopico("Repetido " + sufixo, "Mensagem");
+        var unico = novoTopico("Unico " + sufixo, "Mensagem");
+        entityManager.flush();
+
+        // Simula tópicos anteriores à coluna, incluindo um cujo conteúdo normalizado repete o do primeiro
+        entityManager.createNativeQuery("update topicos set hash_conteudo = null, titulo = case when id = :repetido then :titulo else titulo end where id in (:ids)")
+                .setParameter("repetido", repetido.getId())
+                .setParameter("titulo", "ANTIGO " + sufixo)
+                .setParameter("ids", List.of(primeiro.getId(), repetido.getId(), unico.getId()))
+                .executeUpdate();
+        entityManager.clear();
+
+        assertThat(preenchimento.preencher()).isGreaterThanOrEqualTo(2);
+
+        assertThat(hashDe(primeiro)).isEqualTo(Topico.calcularHashConteudo("Antigo " + sufixo, "Mensagem"));
+        assertThat(hashDe(unico)).isEqualTo(Topico.calcularHashConteudo("Unico " + sufixo, "Mensagem"));
+        assertThat(hashDe(repetido)).as("duplicado permanece sem hash").isNull();
+
+        // As execuções seguintes ignoram o duplicado já registrado, sem consultá-lo nem avisar de novo
+        var aviso = "Tópico " + repetido.getId() + " tem o mesmo conteúdo";
+        assertThat(saida.getOut()).containsOnlyOnce(aviso);
+        ContadorDeSql.zerar();
+        preenchimento.preencher();
+        assertThat(saida.getOut()).containsOnlyOnce(aviso);
+        assertThat(ContadorDeSql.comandos()).noneMatch(sql -> sql.toLowerCase().matches("(?s).*hash_conteudo\\s*=\\s*\\?.*"));
+    }
+
+    private Topico novoTopico(String titulo, String mensagem) {
+        return topicoRepository.save(new Topico(new DadosTopicoCadastro(titulo, mensagem, curso.getNome()), curso, autor));
+    }
+
+    private String hashDe(Topico topico) {
+        return (String) entityManager.createNativeQuery("select hash_conteudo from topicos where id = :id")
+                .setParameter("id", topico.getId())
+                .getSingleResult();
+    }
+}
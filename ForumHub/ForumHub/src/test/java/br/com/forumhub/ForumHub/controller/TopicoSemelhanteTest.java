@@ -0,0 +1,157 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.infra.similaridade.AssinaturaSimHash;
+import br.com.forumhub.ForumHub.infra.similaridade.IndiceDeSimilaridade;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que a criação de tópicos recuse repostagens com poucas palavras alteradas e que o índice de
+ * similaridade acompanhe as criações, edições e remoções confirmadas. Os dados são gravados fora de uma
+ * transação de teste, já que o índice só é alterado após o commit.
+ */
+@SpringBootTest(properties = "api.topicos.similaridade.modo=REJEITAR")
+@AutoConfigureMockMvc
+@Import(DadosDeTeste.class)
+class TopicoSemelhanteTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicoSemelhanteTest.class);
+
+    // Título e mensagem fixos, sem partes aleatórias, para que as distâncias entre as assinaturas sejam sempre as mesmas
+    private static final String TITULO = "Erro 403 com Spring Security";
+    private static final String MENSAGEM = "Configurei o Spring Security com JWT na minha aplicação, mas toda requisição "
+            + "autenticada retorna 403 mesmo com o token válido no cabeçalho. Já conferi o filtro e o segredo do token.";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private IndiceDeSimilaridade indice;
+
+    private String sufixo;
+    private Usuario usuario;
+    private Curso curso;
+    private String token;
+
+    @BeforeEach
+    void prepararDados() {
+        sufixo = UUID.randomUUID().toString();
+        usuario = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+        token = dados.token(usuario);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(usuario, curso);
+    }
+
+    @Test
+    void repostagemComPoucasPalavrasAlteradasERecusada() throws Exception {
+        var id = criar(TITULO, MENSAGEM, status().isCreated());
+
+        criar(TITULO, MENSAGEM.replace("minha aplicação", "minha API"), status().isBadRequest());
+        mvc.perform(post("/topicos")
+                        .content(corpo(TITULO + "!", MENSAGEM.replace("403", "401")))
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensagem").value("Já existe um tópico semelhante: " + id));
+
+        criar("Paginação no Spring Data",
+                "Quero listar os tópicos em páginas de dez itens, ordenados pela data de criação.", status().isCreated());
+    }
+
+    @Test
+    void indiceAcompanhaEdicoesERemocoes() throws Exception {
+        var id = criar(TITULO, MENSAGEM, status().isCreated());
+
+        // Após a edição, o conteúdo antigo deixa de estar no índice e o novo passa a estar
+        mvc.perform(put("/topicos/" + id)
+                        .content("{\"mensagem\": \"Resolvido: faltava o prefixo ROLE_ nas permissões do usuário.\"}")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertThat(indice.buscarSemelhante(AssinaturaSimHash.calcular(TITULO, MENSAGEM))).isEmpty();
+        assertThat(indice.buscarSemelhante(AssinaturaSimHash.calcular(TITULO,
+                "Resolvido: faltava o prefixo ROLE_ nas permissões do usuário."))).get().extracting(IndiceDeSimilaridade.Semelhante::id).isEqualTo(id);
+
+        mvc.perform(delete("/topicos/" + id).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        assertThat(indice.buscarSemelhante(AssinaturaSimHash.calcular(TITULO,
+                "Resolvido: faltava o prefixo ROLE_ nas permissões do usuário."))).isEmpty();
+    }
+
+    /**
+     * Mede a busca com um milhão de assinaturas aleatórias no índice, que levou cerca de 2,5 µs por consulta.
+     * O limite de 50 µs deixa folga para máquinas mais lentas e ainda falha se a busca voltar a percorrer
+     * todas as assinaturas. Não roda no build padrão; execute com {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void buscaEntreUmMilhaoDeTopicos() {
+        var aleatorio = new SplittableRandom(42);
+        for (long id = 1; id <= 1_000_000; id++) {
+            indice.incluir(-id, aleatorio.nextLong());
+        }
+
+        var consultas = new long[100_000];
+        for (int i = 0; i < consultas.length; i++) {
+            consultas[i] = aleatorio.nextLong();
+        }
+        for (var consulta : consultas) {
+            indice.buscarSemelhante(consulta);
+        }
+
+        var inicio = System.nanoTime();
+        for (var consulta : consultas) {
+            indice.buscarSemelhante(consulta);
+        }
+        var microssegundos = (System.nanoTime() - inicio) / 1_000.0 / consultas.length;
+
+        logger.info("busca no índice de similaridade: {} µs por consulta", "%.2f".formatted(microssegundos));
+        assertThat(microssegundos).as("µs por consulta").isLessThan(50);
+    }
+
+    private long criar(String titulo, String mensagem, ResultMatcher resultado) throws Exception {
+        var resposta = mvc.perform(post("/topicos")
+                        .content(corpo(titulo, mensagem))
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(resultado)
+                .andReturn().getResponse().getContentAsString();
+        return resposta.contains("\"id\"") ? JsonPath.parse(resposta).read("$.id", Long.class) : 0;
+    }
+
+    private String corpo(String titulo, String mensagem) {
+        return "{\"titulo\": \"" + titulo + "\", \"mensagem\": \"" + mensagem + "\", \"nomeCurso\": \"" + curso.getNome() + "\"}";
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.forumhub.ForumHub.controller;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.model.entities.Curso;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as validações de criação e atualização de tópico compartilhem as entidades
+ * carregadas com o serviço, buscando o curso e o tópico uma única vez por requisição.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@AutoConfigureMockMvc
+@Transactional
+@Import(DadosDeTeste.class)
+class ValidacaoDeEscritaDeTopicoTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String sufixo;
+    private Usuario autor;
+    private Curso curso;
+
+    @BeforeEach
+    void prepararDados() {
+        sufixo = UUID.randomUUID().toString();
+        autor = dados.novoUsuario("Autor");
+        curso = dados.novoCurso();
+    }
+
+    @Test
+    void criacaoBuscaOCursoUmaUnicaVez() throws Exception {
+        limparContexto();
+
+        mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"Novo " + sufixo + "\", \"mensagem\": \"Mensagem\", \"nomeCurso\": \"" + curso.getNome() + "\"}")
+                        .header("Authorization", "Bearer " + dados.token(autor))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        assertThat(ContadorDeSql.consultasNaTabela("cursos")).as("consultas ao curso").isEqualTo(1);
+    }
+
+    @Test
+    void criacaoComCursoInexistenteContinuaSendoRecusada() throws Exception {
+        mvc.perform(post("/topicos")
+                        .content("{\"titulo\": \"Novo " + sufixo + "\", \"mensagem\": \"Mensagem\", \"nomeCurso\": \"Inexistente " + sufixo + "\"}")
+                        .header("Authorization", "Bearer " + dados.token(autor))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void atualizacaoCarregaOTopicoUmaUnicaVez() throws Exception {
+        var topico = dados.novoTopico(autor, curso);
+        limparContexto();
+
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .content("{\"titulo\": \"Atualizado " + sufixo + "\", \"mensagem\": \"Outra mensagem\"}")
+                        .header("Authorization", "Bearer " + dados.token(autor))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Atualizado " + sufixo));
+
+        // Uma leitura do tópico pelo ID e a verificação de duplicidade de título e mensagem
+        assertThat(ContadorDeSql.consultasNaTabela("topicos")).as("consultas à tabela de tópicos").isEqualTo(2);
+    }
+
+    @Test
+    void atualizacaoPorOutroUsuarioContinuaSendoRecusada() throws Exception {
+        var topico = dados.novoTopico(autor, curso);
+        var outro = dados.novoUsuario("Outro");
+        limparContexto();
+
+        mvc.perform(put("/topicos/" + topico.getId())
+                        .content("{\"titulo\": \"Atualizado " + sufixo + "\"}")
+                        .header("Authorization", "Bearer " + dados.token(outro))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        assertThat(ContadorDeSql.consultasNaTabela("topicos")).as("consultas à tabela de tópicos").isEqualTo(1);
+    }
+
+    private void limparContexto() {
+        entityManager.flush();
+        entityManager.clear();
+        ContadorDeSql.zerar();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.PlanoDeConsulta;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Garante que o esquema venha das migrações: todos os índices declarados existem no banco, o email
+ * dos usuários é único e as buscas por email e por nome de curso são resolvidas pelos seus índices.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql")
+@Transactional
+class EsquemaDoBancoTest {
+
+    private static final Pattern INDICE = Pattern.compile("create (?:unique )?index concurrently if not exists (\\w+)");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Test
+    void migracoesCriamTodosOsIndicesDeclarados() throws Exception {
+        var declarados = new ArrayList<String>();
+        for (var migracao : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql")) {
+            INDICE.matcher(migracao.getContentAsString(StandardCharsets.UTF_8)).results()
+                    .forEach(resultado -> declarados.add(resultado.group(1)));
+        }
+
+        // Um índice criado com "concurrently" cuja criação foi interrompida existe, mas fica inválido
+        @SuppressWarnings("unchecked")
+        List<String> existentes = entityManager.createNativeQuery("""
+                        select c.relname from pg_index i
+                        join pg_class c on c.oid = i.indexrelid
+                        join pg_namespace n on n.oid = c.relnamespace
+                        where n.nspname = current_schema() and i.indisvalid
+                        """)
+                .getResultList();
+        @SuppressWarnings("unchecked")
+        List<String> aplicadas = entityManager.createNativeQuery("select version from flyway_schema_history where success")
+                .getResultList();
+
+        assertThat(declarados).contains("uk_usuarios_email", "idx_respostas_autor", "idx_cursos_nome", "uk_cursos_nome",
+                "idx_topicos_data_atualizacao");
+        assertThat(existentes).containsAll(declarados);
+        assertThat(aplicadas).contains("1", "2");
+    }
+
+    @Test
+    void emailDuplicadoEhRecusadoPeloBanco() {
+        var email = "duplicado-" + UUID.randomUUID() + "@forumhub.com";
+        usuarioRepository.saveAndFlush(new Usuario("Primeiro", email, "senha"));
+
+        assertThatThrownBy(() -> usuarioRepository.saveAndFlush(new Usuario("Segundo", email, "senha")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void buscasPorEmailEPorNomeDeCursoUsamOsIndices() {
+        // Volume gravado na transação do teste, para que o banco planeje as buscas como em tabelas grandes
+        var sufixo = UUID.randomUUID().toString();
+        entityManager.createNativeQuery("""
+                        insert into usuarios (nome, email, senha, ativo)
+                        select 'Volume', 'volume-' || :sufixo || '-' || i || '@forumhub.com', 'senha', true from generate_series(1, 20000) i
+                        """)
+                .setParameter("sufixo", sufixo)
+                .executeUpdate();
+        entityManager.createNativeQuery("""
+                        insert into cursos (nome, categoria)
+                        select 'Volume ' || :sufixo || ' ' || i, 'PROGRAMACAO' from generate_series(1, 5000) i
+                        """)
+                .setParameter("sufixo", sufixo)
+                .executeUpdate();
+        entityManager.createNativeQuery("analyze usuarios, cursos").executeUpdate();
+
+        assertThat(PlanoDeConsulta.de(entityManager, "usuarios", "busca_no_esquema",
+                () -> usuarioRepository.findByEmail("volume@forumhub.com")))
+                .contains("uk_usuarios_email")
+                .doesNotContain("Seq Scan");
+        assertThat(PlanoDeConsulta.de(entityManager, "cursos", "busca_no_esquema",
+                () -> cursoRepository.findByNomeIgnoreCase("volume")))
+                .contains("idx_cursos_nome")
+                .doesNotContain("Seq Scan");
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.forumhub.ForumHub.repository;
+
+import br.com.forumhub.ForumHub.ContadorDeSql;
+import br.com.forumhub.ForumHub.DadosDeTeste;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoResponse;
+import br.com.forumhub.ForumHub.dto.usuario.DadosNome;
+import br.com.forumhub.ForumHub.model.entities.Topico;
+import br.com.forumhub.ForumHub.model.entities.Usuario;
+import br.com.forumhub.ForumHub.dto.topico.DadosTopicoCadastro;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a listagem paginada com entidades (mapeadas para DTOs depois) e com projeções
+ * por expressão de construtor, medindo o tempo, a memória alocada e os comandos SQL por página.
+ * As projeções devem alocar menos que as entidades e ler cada página com um único comando, sem contagem.
+ *
+ * Não roda no build padrão; execute com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.forumhub.ForumHub.ContadorDeSql"})
+@Transactional
+@Import(DadosDeTeste.class)
+class ProjecaoDeListagemBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjecaoDeListagemBenchmarkTest.class);
+
+    private static final int REGISTROS = 2_000;
+    private static final int TAMANHO_PAGINA = 100;
+    private static final int AQUECIMENTO = 50;
+    private static final int MEDICOES = 200;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DadosDeTeste dados;
+
+    @BeforeEach
+    void prepararDados() {
+        var sufixo = UUID.randomUUID().toString();
+        var curso = dados.novoCurso();
+
+        for (int i = 0; i < REGISTROS; i++) {
+            var autor = usuarioRepository.save(new Usuario("Usuario " + i, "usuario-" + i + "-" + sufixo + "@forumhub.com", "$2a$10$" + "x".repeat(53)));
+            topicoRepository.save(new Topico(new DadosTopicoCadastro("Titulo " + i + " " + sufixo, "Mensagem " + i, curso.getNome()), curso, autor));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listagemDeTopicos() {
+        var ordem = Sort.by("dataCriacao");
+
+        var entidades = medir("topicos (entidades)", pagina ->
+                topicoRepository.findAll(PageRequest.of(pagina, TAMANHO_PAGINA, ordem)).map(DadosTopicoResponse::new).getContent());
+        var projecao = medir("topicos (projecao)", pagina ->
+                topicoRepository.listar(PageRequest.of(pagina, TAMANHO_PAGINA, ordem)).getContent());
+
+        assertThat(projecao.bytes()).isLessThan(entidades.bytes());
+        assertThat(projecao.comandos()).as("comandos SQL por página").isEqualTo(1);
+    }
+
+    @Test
+    void listagemDeUsuarios() {
+        var entidades = medir("usuarios (entidades)", pagina ->
+                usuarioRepository.findByAtivoTrue(PageRequest.of(pagina, TAMANHO_PAGINA)).map(DadosNome::new).getContent());
+        var projecao = medir("usuarios (projecao)", pagina ->
+                usuarioRepository.listarNomesAtivos(PageRequest.of(pagina, TAMANHO_PAGINA)).getContent());
+
+        assertThat(projecao.bytes()).isLessThan(entidades.bytes());
+        assertThat(projecao.comandos()).as("comandos SQL por página").isEqualTo(1);
+    }
+
+    /**
+     * Executa a listagem várias vezes, cada uma com o contexto de persistência limpo, e retorna as médias por página.
+     */
+    private Resultado medir(String nome, IntConsumer listagem) {
+        var mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            listagem.accept(i % (REGISTROS / TAMANHO_PAGINA));
+            entityManager.clear();
+        }
+
+        long nanos = 0;
+        long bytes = 0;
+        ContadorDeSql.zerar();
+        for (int i = 0; i < MEDICOES; i++) {
+            var bytesAntes = mxBean.getThreadAllocatedBytes(thread);
+            var inicio = System.nanoTime();
+
+            listagem.accept(i % (REGISTROS / TAMANHO_PAGINA));
+            entityManager.flush();
+
+            nanos += System.nanoTime() - inicio;
+            bytes += mxBean.getThreadAllocatedBytes(thread) - bytesAntes;
+            entityManager.clear();
+        }
+
+        var resultado = new Resultado(nanos / MEDICOES, bytes / MEDICOES, (double) ContadorDeSql.comandos().size() / MEDICOES);
+        logger.info("{}: {} ms/pagina, {} bytes/pagina, {} comandos/pagina", nome,
+                "%.3f".formatted(resultado.nanos() / 1_000_000.0), resultado.bytes(), resultado.comandos());
+        return resultado;
+    }
+
+    private record Resultado(long nanos, long bytes, double comandos) {
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.forumhub.ForumHub.service;
+
+import br.com.forumhub.ForumHub.infra.security.UsuarioAutenticado;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o cache de tokens já verificados não aceite outro token do mesmo sujeito: cada teste coloca em
+ * cache um token válido e confere que os tokens expirados, adulterados ou assinados com outra chave, para o
+ * mesmo usuário, continuam recusados.
+ */
+@SpringBootTest
+class TokenServiceTest {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Value("${api.security.token.secret}")
+    private String secret;
+
+    private UsuarioAutenticado usuario;
+    private String tokenValido;
+
+    @BeforeEach
+    void colocarTokenEmCache() {
+        usuario = new UsuarioAutenticado(1L, "token-" + UUID.randomUUID() + "@forumhub.com", "Autor", true);
+        tokenValido = tokenService.gerarToken(usuario);
+        assertThat(tokenService.getUsuarioAutenticado(tokenValido)).isEqualTo(usuario);
+    }
+
+    @Test
+    void tokenExpiradoEhRecusado() {
+        var expirado = token(Instant.now().minusSeconds(60), Algorithm.HMAC256(secret));
+
+        assertThat(tokenService.getUsuarioAutenticado(expirado)).isNull();
+        assertThat(tokenService.getSujeito(expirado)).isNull();
+    }
+
+    @Test
+    void tokenEmCacheEhRecusadoAposExpirar() throws InterruptedException {
+        // O exp do JWT tem precisão de segundos
+        var curto = token(Instant.now().plusSeconds(1), Algorithm.HMAC256(secret));
+        assertThat(tokenService.getUsuarioAutenticado(curto)).isEqualTo(usuario);
+
+        Thread.sleep(2100);
+        assertThat(tokenService.getUsuarioAutenticado(curto)).isNull();
+    }
+
+    @Test
+    void tokenAdulteradoEhRecusado() {
+        var partes = tokenValido.split("\\.");
+        var claims = new String(Base64.getUrlDecoder().decode(partes[1]), StandardCharsets.UTF_8)
+                .replace("\"nome\":\"Autor\"", "\"nome\":\"Administrador\"");
+        assertThat(claims).contains("Administrador");
+        var adulterado = partes[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(claims.getBytes(StandardCharsets.UTF_8))
+                + "." + partes[2];
+
+        assertThat(tokenService.getUsuarioAutenticado(adulterado)).isNull();
+        assertThat(tokenService.getUsuarioAutenticado(tokenValido)).isEqualTo(usuario);
+    }
+
+    @Test
+    void tokenAssinadoComOutraChaveEhRecusado() {
+        var outraChave = token(Instant.now().plusSeconds(3600), Algorithm.HMAC256(secret + "-outra"));
+
+        assertThat(tokenService.getUsuarioAutenticado(outraChave)).isNull();
+        assertThat(tokenService.getSujeito(outraChave)).isNull();
+    }
+
+    // Token com as mesmas claims dos emitidos pelo TokenService, para o usuário do teste
+    private String token(Instant expiracao, Algorithm algoritmo) {
+        return JWT.create()
+                .withIssuer("ForumHub")
+                .withSubject(usuario.email())
+                .withClaim("id", usuario.id())
+                .withClaim("nome", usuario.nome())
+                .withClaim("ativo", usuario.ativo())
+                .withExpiresAt(expiracao)
+                .sign(algoritmo);
+    }
+}